@@ -7,6 +7,7 @@ import { AlertCircle, Fingerprint, Scan, Loader2, CheckCircle, X, UserPlus, Shie
 import { Alert, AlertDescription } from "@/components/ui/alert";
 import { useToast } from "@/hooks/use-toast";
 import { startRegistration, startAuthentication } from '@simplewebauthn/browser';
+import { injectedRegistration, injectedAuthentication } from "@/lib/test-hooks";
 
 // Test mode detection
 const isTestMode = () => {
@@ -18,6 +19,10 @@ const isTestMode = () => {
 
 // Mock WebAuthn for testing
 const mockStartRegistration = async (options: any) => {
+  const injected = injectedRegistration(options);
+  if (injected) {
+    return injected;
+  }
   console.log('🧪 Mock WebAuthn Registration triggered');
   await new Promise(resolve => setTimeout(resolve, 2000));
   return {
@@ -33,6 +38,10 @@ const mockStartRegistration = async (options: any) => {
 };
 
 const mockStartAuthentication = async (options: any) => {
+  const injected = injectedAuthentication(options);
+  if (injected) {
+    return injected;
+  }
   console.log('🧪 Mock WebAuthn Authentication triggered');
   await new Promise(resolve => setTimeout(resolve, 2000));
   return {
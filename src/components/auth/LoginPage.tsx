@@ -24,6 +24,7 @@ import {
 import { useToast } from "@/hooks/use-toast";
 import { authService, type AuthUser, type LoginCredentials, type RegisterCredentials } from "@/lib/auth-service";
 import { startRegistration, startAuthentication } from '@simplewebauthn/browser';
+import { injectedRegistration, injectedAuthentication } from "@/lib/test-hooks";
 
 // Test mode detection
 const isTestMode = () => {
@@ -35,6 +36,10 @@ const isTestMode = () => {
 
 // Mock WebAuthn for testing
 const mockStartRegistration = async (options: any) => {
+  const injected = injectedRegistration(options);
+  if (injected) {
+    return injected;
+  }
   console.log('🧪 Mock WebAuthn Registration triggered in LoginPage');
   await new Promise(resolve => setTimeout(resolve, 2000));
   return {
@@ -50,6 +55,10 @@ const mockStartRegistration = async (options: any) => {
 };
 
 const mockStartAuthentication = async (options: any) => {
+  const injected = injectedAuthentication(options);
+  if (injected) {
+    return injected;
+  }
   console.log('🧪 Mock WebAuthn Authentication triggered in LoginPage');
   await new Promise(resolve => setTimeout(resolve, 2000));
   return {
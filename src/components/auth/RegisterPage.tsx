@@ -26,6 +26,7 @@ import {
 import { useToast } from "@/hooks/use-toast";
 import { authService, type AuthUser, type RegisterCredentials } from "@/lib/auth-service";
 import { startRegistration } from '@simplewebauthn/browser';
+import { injectedRegistration } from "@/lib/test-hooks";
 
 // Test mode detection
 const isTestMode = () => {
@@ -37,6 +38,10 @@ const isTestMode = () => {
 
 // Mock WebAuthn for testing
 const mockStartRegistration = async (options: any) => {
+  const injected = injectedRegistration(options);
+  if (injected) {
+    return injected;
+  }
   console.log('🧪 Mock WebAuthn Registration triggered in RegisterPage');
   await new Promise(resolve => setTimeout(resolve, 2000));
   return {
@@ -82,10 +82,11 @@ export class AuthService {
   private currentUser: AuthUser | null = null;
   private sessionToken: string | null = null;
   private isDatabaseReady: boolean = false;
+  private readonly ready: Promise<void>;
 
   private constructor() {
-    this.initializeAuth();
-    this.checkDatabaseReady();
+    // validateSession needs the database check, so restore the stored session after it
+    this.ready = this.checkDatabaseReady().then(() => this.initializeAuth());
   }
 
   public static getInstance(): AuthService {
@@ -814,6 +815,11 @@ export class AuthService {
     return this.currentUser;
   }
 
+  // Resolves once the database check and the stored session restore have finished
+  whenReady(): Promise<void> {
+    return this.ready;
+  }
+
   // Check if user is authenticated
   isAuthenticated(): boolean {
     return this.currentUser !== null && this.sessionToken !== null;
@@ -1,3 +1,5 @@
+import { injectedFaceCapture } from "@/lib/test-hooks";
+
 // Check if we're in test mode
 const isTestMode = () => {
   return window.location.search.includes('test=true') || 
@@ -9,6 +11,10 @@ const isTestMode = () => {
 export async function captureFaceSignature(): Promise<string> {
   // Use mock in test mode
   if (isTestMode()) {
+    const injected = injectedFaceCapture();
+    if (injected) {
+      return injected;
+    }
     console.log('🧪 Using mock face capture for testing');
     await new Promise(resolve => setTimeout(resolve, 2000)); // Simulate capture time
     
@@ -0,0 +1,29 @@
+import { startRegistration, startAuthentication } from '@simplewebauthn/browser';
+
+// Hooks the Selenium bootstrap (test-init.js) installs before the app loads. They are looked
+// up on every call, because tests switch their mode at runtime or hand WebAuthn ceremonies to
+// the browser's (virtual) authenticator.
+
+/** The bootstrap's registration ceremony, or null when the page runs without it. */
+export const injectedRegistration = (options: any): Promise<any> | null => {
+  const injected = (window as any).__mockWebAuthn;
+  if (injected?.native) {
+    return startRegistration(options);
+  }
+  return injected ? injected.startRegistration(options) : null;
+};
+
+/** The bootstrap's authentication ceremony, or null when the page runs without it. */
+export const injectedAuthentication = (options: any): Promise<any> | null => {
+  const injected = (window as any).__mockWebAuthn;
+  if (injected?.native) {
+    return startAuthentication(options);
+  }
+  return injected ? injected.startAuthentication(options) : null;
+};
+
+/** The bootstrap's face capture, or null when the page runs without it. */
+export const injectedFaceCapture = (): Promise<string> | null => {
+  const injected = (window as any).__mockFaceCapture;
+  return injected ? injected.captureFaceSignature() : null;
+};
@@ -17,6 +17,7 @@ const Index = () => {
     // Check if user is already authenticated
     const checkAuth = async () => {
       try {
+        await authService.whenReady();
         const user = authService.getCurrentUser();
         if (user) {
           setCurrentUser(user);
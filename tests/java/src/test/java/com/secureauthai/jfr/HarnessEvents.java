@@ -0,0 +1,145 @@
+package com.secureauthai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.regex.Pattern;
+
+/**
+ * Java Flight Recorder events emitted by the Selenium harness, so a recording of a slow run
+ * shows harness time (commands, waits, page actions, browser start-up) next to the JVM's own
+ * events. They cost next to nothing unless a recording is running; the "jfr" Maven profile
+ * starts one for the whole run.
+ *
+ * All events are in the "SecureAuth Tests" category of JDK Mission Control.
+ */
+public final class HarnessEvents {
+
+    // Session and element ids make every command unique; the recording groups by command instead
+    private static final Pattern SESSION_ID = Pattern.compile("/session/[^/]+");
+    private static final Pattern ELEMENT_ID = Pattern.compile("/(element|shadow|frame)/(?!active\\b)[^/]+");
+
+    private HarnessEvents() {
+    }
+
+    /**
+     * An HTTP client filter that records one {@link WebDriverCommand} per request to the
+     * driver; pass it to the driver's ClientConfig.
+     */
+    public static Filter commandFilter() {
+        return next -> request -> {
+            WebDriverCommand event = new WebDriverCommand();
+            event.begin();
+            try {
+                HttpResponse response = next.execute(request);
+                event.status = response.getStatus();
+                return response;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = request.getMethod().toString();
+                    event.command = commandPath(request.getUri());
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    static String commandPath(String uri) {
+        String path = SESSION_ID.matcher(uri).replaceFirst("/session/{id}");
+        return ELEMENT_ID.matcher(path).replaceAll("/$1/{id}");
+    }
+
+    @Name("com.secureauthai.WebDriverCommand")
+    @Label("WebDriver Command")
+    @Description("One W3C WebDriver or chromedriver CDP command, from request to response")
+    @Category({"SecureAuth Tests", "WebDriver"})
+    @StackTrace(false)
+    public static final class WebDriverCommand extends Event {
+        @Label("HTTP Method")
+        public String method;
+        @Label("Command")
+        @Description("Request path with session and element ids replaced by {id}")
+        public String command;
+        @Label("Status")
+        public int status;
+    }
+
+    @Name("com.secureauthai.Wait")
+    @Label("Wait")
+    @Description("A WaitEngine wait on an application condition")
+    @Category({"SecureAuth Tests", "Harness"})
+    @StackTrace(false)
+    public static final class Wait extends Event {
+        @Label("Condition")
+        public String description;
+        @Label("Outcome")
+        public String outcome;
+        @Label("Satisfied")
+        public boolean satisfied;
+    }
+
+    @Name("com.secureauthai.PageAction")
+    @Label("Page Action")
+    @Description("A LoginPage action, including the commands and waits it runs")
+    @Category({"SecureAuth Tests", "Harness"})
+    @StackTrace(false)
+    public static final class PageAction extends Event {
+        @Label("Action")
+        public String action;
+        @Label("Auth Method")
+        public String method;
+        @Label("Test")
+        public String test;
+        @Label("Step")
+        public String step;
+    }
+
+    @Name("com.secureauthai.BrowserLaunch")
+    @Label("Browser Launch")
+    @Description("Starting chromedriver and Chrome for a worker")
+    @Category({"SecureAuth Tests", "Browser"})
+    @StackTrace(false)
+    public static final class BrowserLaunch extends Event {
+        @Label("Profile")
+        public String profile;
+    }
+
+    @Name("com.secureauthai.DriverResolution")
+    @Label("Driver Resolution")
+    @Description("Finding the chromedriver binary, from the offline cache or WebDriverManager")
+    @Category({"SecureAuth Tests", "Browser"})
+    @StackTrace(false)
+    public static final class DriverResolution extends Event {
+        @Label("Source")
+        public String source;
+    }
+
+    @Name("com.secureauthai.BrowserQuit")
+    @Label("Browser Quit")
+    @Description("Quitting a worker's browser")
+    @Category({"SecureAuth Tests", "Browser"})
+    @StackTrace(false)
+    public static final class BrowserQuit extends Event {
+        @Label("Tests Served")
+        public int testsServed;
+    }
+
+    @Name("com.secureauthai.Test")
+    @Label("Test")
+    @Description("One test, from the launcher's start to finish notifications")
+    @Category({"SecureAuth Tests", "JUnit"})
+    @StackTrace(false)
+    public static final class Test extends Event {
+        @Label("Test")
+        public String name;
+        @Label("Result")
+        public String result;
+    }
+}
@@ -0,0 +1,304 @@
+package com.secureauthai.pages;
+
+import com.secureauthai.jfr.HarnessEvents;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Durations of every {@link LoginPage} action, tagged with the test, the step and the auth
+ * method, so a run can be split into navigation, lookups, waits and app time.
+ *
+ * Each worker thread records into its own histograms ({@link LatencyHistogram}); nothing is
+ * shared while tests run. The histograms are merged when the run ends and written as JSON and
+ * as a Prometheus text file with p50/p90/p99/max per action. Set -Dtimings.actions=false to
+ * turn recording off. Each action is also a {@link HarnessEvents.PageAction} JFR event.
+ *
+ * An action that runs other actions (clickBiometricPrimary looking at the buttons first) is
+ * recorded once, as itself: only the outermost action of a thread goes into the histograms,
+ * the nested ones are JFR events only. The step is "none" unless the test runs its journey
+ * through {@link StepTimer} or calls {@link #step(String)}.
+ */
+public final class ActionTimings {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("timings.actions", "true"));
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final String METRIC = "loginpage_action_duration_seconds";
+    private static final String NO_LABEL = "none";
+
+    private static final List<Recorder> RECORDERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Recorder> RECORDER = ThreadLocal.withInitial(() -> {
+        Recorder recorder = new Recorder();
+        RECORDERS.add(recorder);
+        return recorder;
+    });
+
+    private ActionTimings() {
+    }
+
+    /**
+     * The auth method an action belongs to.
+     */
+    public enum Method {
+        BIOMETRIC, FACE, PASSWORD, REGISTRATION, NONE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Tags the calling thread's actions with {@code test} until {@link #endTest()}.
+     */
+    public static void startTest(String test) {
+        Recorder recorder = RECORDER.get();
+        recorder.test = test;
+        recorder.step = NO_LABEL;
+    }
+
+    /**
+     * Tags the calling thread's following actions with {@code step}, e.g. "authenticate".
+     */
+    public static void step(String step) {
+        RECORDER.get().step = step == null ? NO_LABEL : step;
+    }
+
+    public static void endTest() {
+        Recorder recorder = RECORDER.get();
+        recorder.test = NO_LABEL;
+        recorder.step = NO_LABEL;
+    }
+
+    /**
+     * Starts timing {@code action}; closing the returned timing records it.
+     */
+    static Timing start(String action, Method method) {
+        Recorder recorder = RECORDER.get();
+        return new Timing(action, method, recorder, recorder.depth++ == 0, System.nanoTime());
+    }
+
+    /**
+     * Whether anything has been recorded in this run.
+     */
+    public static boolean isEmpty() {
+        for (Recorder recorder : RECORDERS) {
+            synchronized (recorder) {
+                if (!recorder.histograms.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count and summed duration of every action and auth method so far, keyed "action [method]";
+     * cheap enough to poll while tests run.
+     */
+    public static Map<String, Total> totals() {
+        Map<String, Total> totals = new TreeMap<>();
+        for (Recorder recorder : RECORDERS) {
+            synchronized (recorder) {
+                for (Map.Entry<Key, LatencyHistogram> entry : recorder.histograms.entrySet()) {
+                    LatencyHistogram histogram = entry.getValue();
+                    totals.merge(entry.getKey().action + " [" + entry.getKey().method + "]",
+                            new Total(histogram.count(), histogram.sumMicros()), Total::plus);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * One line per action and auth method over all tests, slowest p99 first.
+     */
+    public static List<String> report() {
+        Map<String, LatencyHistogram> byAction = new TreeMap<>();
+        for (Map.Entry<Key, LatencyHistogram> entry : merged().entrySet()) {
+            byAction.computeIfAbsent(entry.getKey().action + " [" + entry.getKey().method + "]",
+                    key -> new LatencyHistogram()).merge(entry.getValue());
+        }
+        List<Map.Entry<String, LatencyHistogram>> rows = new ArrayList<>(byAction.entrySet());
+        rows.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> row) ->
+                row.getValue().percentileMicros(99)).reversed());
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> row : rows) {
+            LatencyHistogram histogram = row.getValue();
+            lines.add(String.format("%-48s n=%-5d p50 %s  p90 %s  p99 %s  max %s", row.getKey(), histogram.count(),
+                    millis(histogram.percentileMicros(50)), millis(histogram.percentileMicros(90)),
+                    millis(histogram.percentileMicros(99)), millis(histogram.maxMicros())));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes action-timings.json and action-timings.prom to {@code directory}.
+     */
+    public static void writeReports(Path directory) {
+        Map<Key, LatencyHistogram> merged = merged();
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve("action-timings.json"), json(merged), StandardCharsets.UTF_8);
+            Files.writeString(directory.resolve("action-timings.prom"), prometheus(merged), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write action timings to " + directory, e);
+        }
+    }
+
+    private static Map<Key, LatencyHistogram> merged() {
+        Map<Key, LatencyHistogram> merged = new TreeMap<>();
+        for (Recorder recorder : RECORDERS) {
+            synchronized (recorder) {
+                for (Map.Entry<Key, LatencyHistogram> entry : recorder.histograms.entrySet()) {
+                    merged.computeIfAbsent(entry.getKey(), key -> new LatencyHistogram()).merge(entry.getValue());
+                }
+            }
+        }
+        return merged;
+    }
+
+    private static String json(Map<Key, LatencyHistogram> merged) {
+        List<Map<String, Object>> actions = new ArrayList<>();
+        for (Map.Entry<Key, LatencyHistogram> entry : merged.entrySet()) {
+            Key key = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("action", key.action);
+            row.put("method", key.method);
+            row.put("test", key.test);
+            row.put("step", key.step);
+            row.put("count", histogram.count());
+            row.put("p50_ms", histogram.percentileMicros(50) / 1000.0);
+            row.put("p90_ms", histogram.percentileMicros(90) / 1000.0);
+            row.put("p99_ms", histogram.percentileMicros(99) / 1000.0);
+            row.put("max_ms", histogram.maxMicros() / 1000.0);
+            row.put("total_ms", histogram.sumMicros() / 1000.0);
+            actions.add(row);
+        }
+        return new Json().toJson(Map.of("actions", actions));
+    }
+
+    private static String prometheus(Map<Key, LatencyHistogram> merged) {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP ").append(METRIC).append(" Duration of LoginPage actions.\n");
+        out.append("# TYPE ").append(METRIC).append(" summary\n");
+        for (Map.Entry<Key, LatencyHistogram> entry : merged.entrySet()) {
+            String labels = entry.getKey().labels();
+            LatencyHistogram histogram = entry.getValue();
+            for (double quantile : QUANTILES) {
+                out.append(METRIC).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.percentileMicros(quantile * 100))).append('\n');
+            }
+            out.append(METRIC).append("_sum{").append(labels).append("} ").append(seconds(histogram.sumMicros())).append('\n');
+            out.append(METRIC).append("_count{").append(labels).append("} ").append(histogram.count()).append('\n');
+        }
+        out.append("# HELP ").append(METRIC).append("_max Longest duration of LoginPage actions.\n");
+        out.append("# TYPE ").append(METRIC).append("_max gauge\n");
+        for (Map.Entry<Key, LatencyHistogram> entry : merged.entrySet()) {
+            out.append(METRIC).append("_max{").append(entry.getKey().labels()).append("} ")
+                    .append(seconds(entry.getValue().maxMicros())).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f ms", micros / 1000.0);
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    /**
+     * Number of recorded actions and their summed duration.
+     */
+    public record Total(long count, long sumMicros) {
+
+        Total plus(Total other) {
+            return new Total(count + other.count, sumMicros + other.sumMicros);
+        }
+    }
+
+    /**
+     * An action being timed; use in try-with-resources.
+     */
+    static final class Timing implements AutoCloseable {
+        private final String action;
+        private final Method method;
+        private final Recorder recorder;
+        private final boolean outermost;
+        private final long startNanos;
+        private final HarnessEvents.PageAction event = new HarnessEvents.PageAction();
+
+        private Timing(String action, Method method, Recorder recorder, boolean outermost, long startNanos) {
+            this.action = action;
+            this.method = method;
+            this.recorder = recorder;
+            this.outermost = outermost;
+            this.startNanos = startNanos;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            event.end();
+            recorder.depth--;
+            if (event.shouldCommit()) {
+                event.action = action;
+                event.method = method.label();
+                event.test = recorder.test;
+                event.step = recorder.step;
+                event.commit();
+            }
+            if (ENABLED && outermost) {
+                recorder.record(action, method, (System.nanoTime() - startNanos) / 1_000);
+            }
+        }
+    }
+
+    // One thread's histograms; only the owning thread records, the lock is uncontended until the merge
+    private static final class Recorder {
+        private final Map<Key, LatencyHistogram> histograms = new HashMap<>();
+        private String test = NO_LABEL;
+        private String step = NO_LABEL;
+        // Actions open on the owning thread; only one at depth 0 is recorded
+        private int depth;
+
+        private synchronized void record(String action, Method method, long micros) {
+            histograms.computeIfAbsent(new Key(action, method.label(), test, step), key -> new LatencyHistogram())
+                    .record(micros);
+        }
+    }
+
+    private record Key(String action, String method, String test, String step) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::action)
+                .thenComparing(Key::method).thenComparing(Key::test).thenComparing(Key::step);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        String labels() {
+            return "action=\"" + escape(action) + "\",method=\"" + escape(method) + "\",test=\"" + escape(test)
+                    + "\",step=\"" + escape(step) + "\"";
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.secureauthai.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * ExpectedConditions for states of the SecureAuth AI login and registration screens.
+ *
+ * Each condition returns a non-null value as soon as the UI reaches the state, so a
+ * WebDriverWait built on it finishes as early as the app allows.
+ */
+public final class AppConditions {
+
+    // Authenticated view rendered by Index.tsx after any successful login or registration
+    static final By DASHBOARD = By.xpath("//button[.//span[text()='Logout']]");
+    // Destructive Radix toasts used for errors such as "Too many attempts" or "Registration Failed"
+    static final By ERROR_TOAST = By.cssSelector("li[role='status'][data-state='open'].destructive");
+    static final By REGISTRATION_SUCCESS = By.xpath("//p[text()='Registration successful!']");
+
+    private AppConditions() {
+    }
+
+    /**
+     * The biometric tab's primary button once it shows what the credential check decided: the
+     * authenticate button if {@code hasCredentials}, the register button if not, and whichever
+     * shows when the check did not say (null). Returns the locator of the button shown.
+     */
+    public static ExpectedCondition<By> biometricButton(Boolean hasCredentials) {
+        return primaryButton("biometric", LoginPage.BIOMETRIC_AUTH, LoginPage.BIOMETRIC_REGISTER, hasCredentials);
+    }
+
+    /**
+     * Same as {@link #biometricButton(Boolean)} for the face tab.
+     */
+    public static ExpectedCondition<By> faceButton(Boolean hasCredentials) {
+        return primaryButton("face", LoginPage.FACE_AUTH, LoginPage.FACE_REGISTER, hasCredentials);
+    }
+
+    public static ExpectedCondition<WebElement> scanning() {
+        return visible(LoginPage.BIOMETRIC_SCANNING);
+    }
+
+    /**
+     * The authenticated view, e.g. after a successful sign-in has navigated to it.
+     */
+    public static ExpectedCondition<WebElement> dashboard() {
+        return visible(DASHBOARD);
+    }
+
+    /**
+     * A password login has been answered: authenticated view, success status or an error toast.
+     */
+    public static ExpectedCondition<String> passwordLoginResult() {
+        return firstOf("password login result",
+                DASHBOARD, "dashboard",
+                LoginPage.AUTH_SUCCESS, "success",
+                ERROR_TOAST, "error toast");
+    }
+
+    /**
+     * An account registration has been answered, including the automatic biometric
+     * registration that follows when the checkbox was ticked.
+     */
+    public static ExpectedCondition<String> accountRegistrationResult() {
+        return firstOf("account registration result",
+                DASHBOARD, "dashboard",
+                REGISTRATION_SUCCESS, "success",
+                LoginPage.AUTH_SUCCESS, "success",
+                LoginPage.AUTH_ERROR, "error",
+                ERROR_TOAST, "error toast");
+    }
+
+    /**
+     * The app has finished booting: "dashboard" if it restored a session, otherwise "login".
+     */
+    public static ExpectedCondition<String> landingView() {
+        return firstOf("landing view",
+                DASHBOARD, "dashboard",
+                LoginPage.TAB_BIOMETRIC, "login",
+                LoginPage.TAB_PASSWORD, "login");
+    }
+
+    /**
+     * The login screen has rendered its tabs.
+     */
+    public static ExpectedCondition<String> loginScreenReady() {
+        return firstOf("login screen",
+                LoginPage.TAB_BIOMETRIC, "biometric",
+                LoginPage.TAB_PASSWORD, "password");
+    }
+
+    private static ExpectedCondition<By> primaryButton(String tab, By auth, By register, Boolean hasCredentials) {
+        return new ExpectedCondition<By>() {
+            @Override
+            public By apply(WebDriver driver) {
+                if (!Boolean.FALSE.equals(hasCredentials) && isDisplayed(driver, auth)) {
+                    return auth;
+                }
+                if (!Boolean.TRUE.equals(hasCredentials) && isDisplayed(driver, register)) {
+                    return register;
+                }
+                return null;
+            }
+
+            @Override
+            public String toString() {
+                String expected = hasCredentials == null ? "" : hasCredentials ? " (authenticate)" : " (register)";
+                return tab + " button" + expected;
+            }
+        };
+    }
+
+    /**
+     * First displayed element matching {@code locator}.
+     */
+    public static ExpectedCondition<WebElement> visible(By locator) {
+        return new ExpectedCondition<WebElement>() {
+            @Override
+            public WebElement apply(WebDriver driver) {
+                return firstDisplayed(driver, locator);
+            }
+
+            @Override
+            public String toString() {
+                return "visibility of " + locator;
+            }
+        };
+    }
+
+    /**
+     * Label of the first visible locator, checked in order. Arguments alternate
+     * locator, label.
+     */
+    private static ExpectedCondition<String> firstOf(String description, Object... locatorsAndLabels) {
+        return new ExpectedCondition<String>() {
+            @Override
+            public String apply(WebDriver driver) {
+                for (int i = 0; i < locatorsAndLabels.length; i += 2) {
+                    if (isDisplayed(driver, (By) locatorsAndLabels[i])) {
+                        return (String) locatorsAndLabels[i + 1];
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public String toString() {
+                return description;
+            }
+        };
+    }
+
+    static boolean isDisplayed(WebDriver driver, By locator) {
+        return firstDisplayed(driver, locator) != null;
+    }
+
+    // First displayed element matching locator, or null
+    private static WebElement firstDisplayed(WebDriver driver, By locator) {
+        for (WebElement element : driver.findElements(locator)) {
+            try {
+                if (element.isDisplayed()) {
+                    return element;
+                }
+            } catch (StaleElementReferenceException e) {
+                // Re-rendered between lookup and check; the next poll sees the new node
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.secureauthai.pages;
+
+/**
+ * Terminal state of a biometric, face or password attempt, as reported by
+ * {@link WaitEngine#forOutcome}.
+ */
+public enum AuthOutcome {
+    SUCCESS,
+    ERROR,
+    LOCKOUT,
+    FALLBACK,
+    DASHBOARD,
+    ERROR_TOAST,
+    TIMEOUT;
+
+    /** The attempt succeeded: success status or the authenticated view. */
+    public boolean isSuccess() {
+        return this == SUCCESS || this == DASHBOARD;
+    }
+
+    /** The attempt was rejected in any of the ways the app reports it. */
+    public boolean isFailure() {
+        return this == ERROR || this == LOCKOUT || this == FALLBACK || this == ERROR_TOAST;
+    }
+
+    public boolean isTimeout() {
+        return this == TIMEOUT;
+    }
+}
@@ -0,0 +1,147 @@
+package com.secureauthai.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the auth screens show at one instant, read in a single WebDriver round trip
+ * by {@link LoginPage#snapshot()}.
+ *
+ * Tests that poll the UI in loops (attempt loops, lockout checks) should take one snapshot
+ * per iteration and query it, instead of issuing a remote lookup per probe.
+ */
+public final class AuthUiState {
+
+    /** Presence and enabled state of one button. */
+    public enum Button {
+        ABSENT, DISABLED, ENABLED;
+
+        public boolean present() {
+            return this != ABSENT;
+        }
+
+        public boolean enabled() {
+            return this == ENABLED;
+        }
+
+        static Button of(Object value) {
+            return value == null ? ABSENT : valueOf(String.valueOf(value));
+        }
+    }
+
+    // Collects the whole state in one executeScript call; texts match the locators in LoginPage
+    static final String SCRIPT = String.join("\n",
+            "const visible = el => !!el && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);",
+            "const byText = (sel, text) => Array.from(document.querySelectorAll(sel))",
+            "    .some(el => visible(el) && el.textContent.trim() === text);",
+            "const contains = (sel, text) => Array.from(document.querySelectorAll(sel))",
+            "    .some(el => visible(el) && el.textContent.includes(text));",
+            "const button = sel => { const el = document.querySelector(sel);",
+            "    return el && visible(el) ? (el.disabled ? 'DISABLED' : 'ENABLED') : null; };",
+            "const active = Array.from(document.querySelectorAll('[role=tab][data-state=active]'))",
+            "    .map(el => el.textContent.trim().toLowerCase());",
+            "const email = document.getElementById('email');",
+            "return {",
+            "  view: document.getElementById('confirm-password') ? 'register'",
+            "      : contains('button', 'Logout') ? 'dashboard' : 'login',",
+            "  activeTab: active.length ? active[0] : null,",
+            "  biometricRegister: button(\"[data-testid='biometric-register-button']\"),",
+            "  biometricAuth: button(\"[data-testid='biometric-auth-button']\"),",
+            "  faceRegister: button(\"[data-testid='face-register-button']\"),",
+            "  faceAuth: button(\"[data-testid='face-auth-button']\"),",
+            "  passwordSubmit: button(\"[data-testid='password-login-button']\"),",
+            "  scanning: byText('p', 'Scanning biometric data...'),",
+            "  authSuccess: byText('p', 'Authentication successful!'),",
+            "  authError: byText('p', 'Authentication failed'),",
+            "  lockedOut: contains('div', 'locked due to multiple failed attempts'),",
+            "  fallback: contains('div', 'Too many attempts'),",
+            "  email: email ? email.value : null,",
+            "  toasts: Array.from(document.querySelectorAll(\"li[role='status'][data-state='open']\"))",
+            "      .map(el => el.textContent.trim())",
+            "};");
+
+    private final String view;
+    private final String activeTab;
+    private final Button biometricRegister;
+    private final Button biometricAuth;
+    private final Button faceRegister;
+    private final Button faceAuth;
+    private final Button passwordSubmit;
+    private final boolean scanning;
+    private final boolean authSuccess;
+    private final boolean authError;
+    private final boolean lockedOut;
+    private final boolean fallback;
+    private final String email;
+    private final List<String> toasts;
+
+    private AuthUiState(Map<String, Object> raw) {
+        this.view = (String) raw.get("view");
+        this.activeTab = (String) raw.get("activeTab");
+        this.biometricRegister = Button.of(raw.get("biometricRegister"));
+        this.biometricAuth = Button.of(raw.get("biometricAuth"));
+        this.faceRegister = Button.of(raw.get("faceRegister"));
+        this.faceAuth = Button.of(raw.get("faceAuth"));
+        this.passwordSubmit = Button.of(raw.get("passwordSubmit"));
+        this.scanning = Boolean.TRUE.equals(raw.get("scanning"));
+        this.authSuccess = Boolean.TRUE.equals(raw.get("authSuccess"));
+        this.authError = Boolean.TRUE.equals(raw.get("authError"));
+        this.lockedOut = Boolean.TRUE.equals(raw.get("lockedOut"));
+        this.fallback = Boolean.TRUE.equals(raw.get("fallback"));
+        this.email = (String) raw.get("email");
+        List<String> toastTexts = new ArrayList<>();
+        Object rawToasts = raw.get("toasts");
+        if (rawToasts instanceof List) {
+            for (Object toast : (List<?>) rawToasts) {
+                toastTexts.add(String.valueOf(toast));
+            }
+        }
+        this.toasts = Collections.unmodifiableList(toastTexts);
+    }
+
+    @SuppressWarnings("unchecked")
+    static AuthUiState fromScriptResult(Object result) {
+        return new AuthUiState((Map<String, Object>) result);
+    }
+
+    /** "login", "register" or "dashboard". */
+    public String view() { return view; }
+
+    /** "biometric", "password", "face" (or a registration tab name), null if no tab is active. */
+    public String activeTab() { return activeTab; }
+
+    public Button biometricRegister() { return biometricRegister; }
+    public Button biometricAuth() { return biometricAuth; }
+    public Button faceRegister() { return faceRegister; }
+    public Button faceAuth() { return faceAuth; }
+    public Button passwordSubmit() { return passwordSubmit; }
+
+    public boolean isScanning() { return scanning; }
+    public boolean isAuthSuccess() { return authSuccess; }
+    public boolean isAuthError() { return authError; }
+    public boolean isLockedOut() { return lockedOut; }
+    public boolean isFallbackVisible() { return fallback; }
+    public boolean isDashboard() { return "dashboard".equals(view); }
+
+    /** Value of the password tab's email field, null when the field is not rendered. */
+    public String email() { return email; }
+
+    public boolean isEmailPrefilled() {
+        return email != null && !email.isEmpty();
+    }
+
+    /** Texts of the toasts currently open, oldest first. */
+    public List<String> toasts() { return toasts; }
+
+    @Override
+    public String toString() {
+        return "AuthUiState{view=" + view + ", tab=" + activeTab
+                + ", bioRegister=" + biometricRegister + ", bioAuth=" + biometricAuth
+                + ", faceRegister=" + faceRegister + ", faceAuth=" + faceAuth
+                + ", scanning=" + scanning + ", success=" + authSuccess + ", error=" + authError
+                + ", lockedOut=" + lockedOut + ", fallback=" + fallback
+                + ", email=" + email + ", toasts=" + toasts + "}";
+    }
+}
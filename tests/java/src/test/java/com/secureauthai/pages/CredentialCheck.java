@@ -0,0 +1,18 @@
+package com.secureauthai.pages;
+
+import java.time.Duration;
+
+/**
+ * Tells when the login page has answered the credential check it runs whenever the username
+ * changes, and what it found; backed by the browser's network traffic.
+ */
+@FunctionalInterface
+public interface CredentialCheck {
+
+    /**
+     * Blocks until the check for {@code username} against {@code credentialsTable} has been
+     * answered and returns whether the account has credentials there, or null if the answer
+     * did not say. Throws TimeoutException if it has not been answered within {@code timeout}.
+     */
+    Boolean await(String username, String credentialsTable, Duration timeout);
+}
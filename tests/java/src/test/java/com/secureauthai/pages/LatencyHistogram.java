@@ -0,0 +1,98 @@
+package com.secureauthai.pages;
+
+/**
+ * Fixed-size log-linear histogram of durations in microseconds.
+ *
+ * Values below 64 µs are exact; above that each power of two is split into 32 buckets, so
+ * a percentile is within about 3% of the true value. Recording is one array increment and
+ * never allocates. Not thread-safe: each thread records into its own histogram and they are
+ * merged for reporting.
+ */
+final class LatencyHistogram {
+
+    private static final int EXACT = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int SUB_BITS = 5;
+    // Anything from 2^36 µs (about 19 hours) up lands in the last bucket
+    private static final int TOP_EXPONENT = 35;
+    // 64 exact buckets, then 32 per octave from 2^6 up to 2^36: 8 KB per histogram
+    private static final int BUCKETS = EXACT + (TOP_EXPONENT - 6 + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    long sumMicros() {
+        return sum;
+    }
+
+    long maxMicros() {
+        return max;
+    }
+
+    /**
+     * Nearest-rank percentile, {@code p} in (0, 100]; the exact maximum for 100.
+     */
+    long percentileMicros(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        if (p >= 100) {
+            return max;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, representative(i));
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > TOP_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return EXACT + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    // Middle of the bucket's range
+    private static long representative(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        int exponent = (index - EXACT) / SUB_BUCKETS + 6;
+        int sub = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return sub * width + width / 2;
+    }
+}
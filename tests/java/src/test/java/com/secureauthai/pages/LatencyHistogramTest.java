@@ -0,0 +1,72 @@
+package com.secureauthai.pages;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Known answers for {@link LatencyHistogram} percentiles at the bucket bounds.
+ */
+@DisplayName("Latency histogram percentiles")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Values below 64 µs are exact")
+    void exactBelowSixtyFour() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 50; micros++) {
+            histogram.record(micros);
+        }
+        assertEquals(1, histogram.percentileMicros(1));
+        assertEquals(25, histogram.percentileMicros(50));
+        assertEquals(45, histogram.percentileMicros(90));
+        assertEquals(50, histogram.percentileMicros(100));
+    }
+
+    @Test
+    @DisplayName("Above 64 µs a percentile is the middle of its bucket")
+    void middleOfBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1010 lies in [1008, 1024), the 16 µs wide buckets of the 512..1024 octave
+        histogram.record(1010);
+        histogram.record(5000);
+        assertEquals(1016, histogram.percentileMicros(50));
+        assertEquals(5000, histogram.percentileMicros(100));
+    }
+
+    @Test
+    @DisplayName("A percentile never exceeds the recorded maximum")
+    void clampedToMax() {
+        LatencyHistogram first = new LatencyHistogram();
+        // 64 opens the first log bucket, [64, 66), whose middle is 65
+        first.record(64);
+        assertEquals(64, first.percentileMicros(50));
+
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(65);
+        assertEquals(65, second.percentileMicros(50));
+    }
+
+    @Test
+    @DisplayName("Empty, negative and merged histograms")
+    void edges() {
+        LatencyHistogram empty = new LatencyHistogram();
+        assertEquals(0, empty.percentileMicros(50));
+
+        LatencyHistogram negative = new LatencyHistogram();
+        negative.record(-5);
+        assertEquals(0, negative.percentileMicros(50));
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.record(10);
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(20);
+        other.record(30);
+        merged.merge(other);
+        assertEquals(3, merged.count());
+        assertEquals(60, merged.sumMicros());
+        assertEquals(20, merged.percentileMicros(50));
+        assertEquals(30, merged.maxMicros());
+    }
+}
@@ -1,25 +1,37 @@
 package com.secureauthai.pages;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.secureauthai.pages.ActionTimings.Method;
+import com.secureauthai.pages.ActionTimings.Timing;
+
 import java.time.Duration;
+import java.util.List;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.Keys;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebElement;
 
+/**
+ * The login and registration screens. Every action is timed into {@link ActionTimings}; the
+ * actions that render a screen are also sampled by {@link PerfCollector} when it is enabled.
+ */
 public class LoginPage {
     private final WebDriver driver;
     private final WebDriverWait wait;
     private final String baseUrl;
+    private final WaitEngine waits;
+    private final PerfCollector perf;
 
     // Tabs
-    private static final By TAB_BIOMETRIC = By.xpath("//button[@data-state and .//span[text()='Biometric']]");
-    private static final By TAB_PASSWORD = By.xpath("//button[@data-state and .//span[text()='Password']]");
+    static final By TAB_BIOMETRIC = By.xpath("//button[@data-state and .//span[text()='Biometric']]");
+    static final By TAB_PASSWORD = By.xpath("//button[@data-state and .//span[text()='Password']]");
     private static final By TAB_FACE = By.xpath("//button[@data-state and .//span[text()='Face']]");
 
     // Biometric
@@ -33,16 +45,16 @@ public class LoginPage {
     public static final By FACE_AUTH = By.cssSelector("[data-testid='face-auth-button']");
 
     // Password
-    private static final By EMAIL = By.id("email");
+    static final By EMAIL = By.id("email");
     private static final By PASSWORD = By.id("password");
     private static final By PASSWORD_SUBMIT = By.cssSelector("[data-testid='password-login-button']");
     
     // Status elements
-    private static final By BIOMETRIC_SCANNING = By.xpath("//p[text()='Scanning biometric data...']");
-    private static final By AUTH_SUCCESS = By.xpath("//p[text()='Authentication successful!']");
-    private static final By AUTH_ERROR = By.xpath("//p[text()='Authentication failed']");
-    private static final By LOCKOUT_MESSAGE = By.xpath("//div[contains(text(), 'locked due to multiple failed attempts')]");
-    private static final By FALLBACK_MESSAGE = By.xpath("//div[contains(text(), 'Too many attempts')]");
+    static final By BIOMETRIC_SCANNING = By.xpath("//p[text()='Scanning biometric data...']");
+    static final By AUTH_SUCCESS = By.xpath("//p[text()='Authentication successful!']");
+    static final By AUTH_ERROR = By.xpath("//p[text()='Authentication failed']");
+    static final By LOCKOUT_MESSAGE = By.xpath("//div[contains(text(), 'locked due to multiple failed attempts')]");
+    static final By FALLBACK_MESSAGE = By.xpath("//div[contains(text(), 'Too many attempts')]");
     
     // Registration navigation
     private static final By REGISTER_LINK = By.xpath("//button[contains(text(), 'Create one here')]");
@@ -63,263 +75,410 @@ public class LoginPage {
     private static final By REG_TAB_BIOMETRIC = By.xpath("//button[@data-state and .//span[text()='Biometric']]");
     private static final By REG_TAB_FACE = By.xpath("//button[@data-state and .//span[text()='Face']]");
 
-    public LoginPage(WebDriver driver, String baseUrl) {
+    /**
+     * {@code credentialChecks} tells the page's waits when the app has looked a username up;
+     * without one, {@link WaitEngine#forBiometricButton()} and {@link WaitEngine#forFaceButton()}
+     * fail for a non-empty username.
+     */
+    public LoginPage(WebDriver driver, String baseUrl, CredentialCheck credentialChecks) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(15));
         this.baseUrl = baseUrl;
+        this.waits = new WaitEngine(driver, credentialChecks);
+        this.perf = new PerfCollector(driver, PerfBudgets.defaults());
+    }
+
+    /**
+     * Condition-based waits for this page's browser, with per-wait timing.
+     */
+    public WaitEngine waits() {
+        return waits;
+    }
+
+    /**
+     * Browser performance samples of this page's screen-rendering actions.
+     */
+    public PerfCollector performance() {
+        return perf;
     }
 
     public void open() {
-        // Check if we're already on the page to avoid double navigation
-        if (!driver.getCurrentUrl().startsWith(baseUrl)) {
-            driver.get(baseUrl);
+        try (Timing timing = ActionTimings.start("open", Method.NONE);
+             PerfCollector.Capture sample = perf.capture("open")) {
+            // Check if we're already on the page to avoid double navigation
+            if (!driver.getCurrentUrl().startsWith(baseUrl)) {
+                driver.get(baseUrl);
+            }
+            wait.until(ExpectedConditions.or(
+                    ExpectedConditions.visibilityOfElementLocated(TAB_BIOMETRIC),
+                    ExpectedConditions.visibilityOfElementLocated(TAB_PASSWORD)
+            ));
         }
-        wait.until(ExpectedConditions.or(
-                ExpectedConditions.visibilityOfElementLocated(TAB_BIOMETRIC),
-                ExpectedConditions.visibilityOfElementLocated(TAB_PASSWORD)
-        ));
     }
 
-    public void switchToPassword() { 
-        wait.until(ExpectedConditions.elementToBeClickable(TAB_PASSWORD)).click(); 
-        // Wait for the password tab content to be visible
-        wait.until(ExpectedConditions.visibilityOfElementLocated(EMAIL));
+    public void switchToPassword() {
+        try (Timing timing = ActionTimings.start("switchToPassword", Method.PASSWORD);
+             PerfCollector.Capture sample = perf.capture("switchToPassword")) {
+            wait.until(ExpectedConditions.elementToBeClickable(TAB_PASSWORD)).click(); 
+            // Wait for the password tab content to be visible
+            wait.until(ExpectedConditions.visibilityOfElementLocated(EMAIL));
+        }
     }
     
-    public void switchToBiometric() { 
-        wait.until(ExpectedConditions.elementToBeClickable(TAB_BIOMETRIC)).click();
-        // Wait for the biometric tab content to be visible
-        wait.until(ExpectedConditions.visibilityOfElementLocated(BIOMETRIC_USERNAME));
+    public void switchToBiometric() {
+        try (Timing timing = ActionTimings.start("switchToBiometric", Method.BIOMETRIC);
+             PerfCollector.Capture sample = perf.capture("switchToBiometric")) {
+            wait.until(ExpectedConditions.elementToBeClickable(TAB_BIOMETRIC)).click();
+            // Wait for the biometric tab content to be visible
+            wait.until(ExpectedConditions.visibilityOfElementLocated(BIOMETRIC_USERNAME));
+        }
     }
     
-    public void switchToFace() { 
-        wait.until(ExpectedConditions.elementToBeClickable(TAB_FACE)).click();
-        // Wait for the face tab content to be visible
-        wait.until(ExpectedConditions.visibilityOfElementLocated(FACE_USERNAME));
+    public void switchToFace() {
+        try (Timing timing = ActionTimings.start("switchToFace", Method.FACE);
+             PerfCollector.Capture sample = perf.capture("switchToFace")) {
+            wait.until(ExpectedConditions.elementToBeClickable(TAB_FACE)).click();
+            // Wait for the face tab content to be visible
+            wait.until(ExpectedConditions.visibilityOfElementLocated(FACE_USERNAME));
+        }
     }
 
     public void enterBiometricUsername(String user) {
-        WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(BIOMETRIC_USERNAME));
-        el.clear();
-        el.sendKeys(user);
+        try (Timing timing = ActionTimings.start("enterBiometricUsername", Method.BIOMETRIC)) {
+            WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(BIOMETRIC_USERNAME));
+            el.clear();
+            el.sendKeys(user);
+        }
     }
 
-    public void clickBiometricAuth() { wait.until(ExpectedConditions.elementToBeClickable(BIOMETRIC_AUTH)).click(); }
+    public void clickBiometricAuth() {
+        try (Timing timing = ActionTimings.start("clickBiometricAuth", Method.BIOMETRIC)) {
+            wait.until(ExpectedConditions.elementToBeClickable(BIOMETRIC_AUTH)).click();
+        }
+    }
 
     public boolean isPresent(By locator) {
-        try {
-            driver.findElement(locator);
-            return true;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isPresent", Method.NONE)) {
+            return !driver.findElements(locator).isEmpty();
+        }
+    }
+
+    /**
+     * Reads the complete auth UI state in one round trip. Prefer this over several
+     * is* probes when checking more than one thing, especially inside loops.
+     */
+    public AuthUiState snapshot() {
+        try (Timing timing = ActionTimings.start("snapshot", Method.NONE)) {
+            return AuthUiState.fromScriptResult(((JavascriptExecutor) driver).executeScript(AuthUiState.SCRIPT));
         }
     }
 
     public void clickBiometricPrimary() {
-        if (isPresent(BIOMETRIC_AUTH)) {
-            clickBiometricAuth();
-        } else if (isPresent(BIOMETRIC_REGISTER)) {
-            wait.until(ExpectedConditions.elementToBeClickable(BIOMETRIC_REGISTER)).click();
-        } else {
-            throw new RuntimeException("No biometric action button present");
+        try (Timing timing = ActionTimings.start("clickBiometricPrimary", Method.BIOMETRIC)) {
+            AuthUiState state = snapshot();
+            if (state.biometricAuth().present()) {
+                clickBiometricAuth();
+            } else if (state.biometricRegister().present()) {
+                wait.until(ExpectedConditions.elementToBeClickable(BIOMETRIC_REGISTER)).click();
+            } else {
+                throw new RuntimeException("No biometric action button present");
+            }
         }
     }
 
     public void enterFaceUsername(String user) {
-        WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(FACE_USERNAME));
-        el.clear();
-        el.sendKeys(user);
+        try (Timing timing = ActionTimings.start("enterFaceUsername", Method.FACE)) {
+            WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(FACE_USERNAME));
+            el.clear();
+            el.sendKeys(user);
+        }
     }
 
-    public WebElement faceAuthButton() { return wait.until(ExpectedConditions.visibilityOfElementLocated(FACE_AUTH)); }
-    public void clickFaceAuth() { wait.until(ExpectedConditions.elementToBeClickable(FACE_AUTH)).click(); }
+    public WebElement faceAuthButton() {
+        try (Timing timing = ActionTimings.start("faceAuthButton", Method.FACE)) {
+            return wait.until(ExpectedConditions.visibilityOfElementLocated(FACE_AUTH));
+        }
+    }
+
+    public void clickFaceAuth() {
+        try (Timing timing = ActionTimings.start("clickFaceAuth", Method.FACE)) {
+            wait.until(ExpectedConditions.elementToBeClickable(FACE_AUTH)).click();
+        }
+    }
 
     public void clickFacePrimary() {
-        if (isPresent(FACE_AUTH)) {
-            clickFaceAuth();
-        } else if (isPresent(FACE_REGISTER)) {
-            wait.until(ExpectedConditions.elementToBeClickable(FACE_REGISTER)).click();
-        } else {
-            throw new RuntimeException("No face action button present");
+        try (Timing timing = ActionTimings.start("clickFacePrimary", Method.FACE)) {
+            AuthUiState state = snapshot();
+            if (state.faceAuth().present()) {
+                clickFaceAuth();
+            } else if (state.faceRegister().present()) {
+                wait.until(ExpectedConditions.elementToBeClickable(FACE_REGISTER)).click();
+            } else {
+                throw new RuntimeException("No face action button present");
+            }
         }
     }
 
     public void enterEmail(String email) {
-        WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(EMAIL));
-        el.clear();
-        el.sendKeys(email);
+        try (Timing timing = ActionTimings.start("enterEmail", Method.PASSWORD)) {
+            WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(EMAIL));
+            el.clear();
+            el.sendKeys(email);
+        }
     }
     public void enterPassword(String pass) {
-        WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(PASSWORD));
-        el.clear();
-        el.sendKeys(pass);
+        try (Timing timing = ActionTimings.start("enterPassword", Method.PASSWORD)) {
+            WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(PASSWORD));
+            el.clear();
+            el.sendKeys(pass);
+        }
     }
     
-    public void submitPassword() { wait.until(ExpectedConditions.elementToBeClickable(PASSWORD_SUBMIT)).click(); }
+    public void submitPassword() {
+        try (Timing timing = ActionTimings.start("submitPassword", Method.PASSWORD)) {
+            wait.until(ExpectedConditions.elementToBeClickable(PASSWORD_SUBMIT)).click();
+        }
+    }
     
     // Status checking methods
     public boolean isScanningVisible() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(BIOMETRIC_SCANNING)) != null;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isScanningVisible", Method.BIOMETRIC)) {
+            try {
+                return wait.until(ExpectedConditions.visibilityOfElementLocated(BIOMETRIC_SCANNING)) != null;
+            } catch (Exception e) {
+                return false;
+            }
         }
     }
     
+    /**
+     * Waits for the first terminal auth state (success, error, lockout, fallback, redirect
+     * or error toast) and returns it; TIMEOUT only if none shows within 15 seconds.
+     */
+    public AuthOutcome awaitOutcome() {
+        try (Timing timing = ActionTimings.start("awaitOutcome", Method.NONE)) {
+            return waits.forOutcome(WaitEngine.DEFAULT_TIMEOUT);
+        }
+    }
+
     public boolean isAuthSuccessVisible() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(AUTH_SUCCESS)) != null;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isAuthSuccessVisible", Method.NONE)) {
+            return awaitOutcome().isSuccess();
         }
     }
     
     public boolean isAuthErrorVisible() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(AUTH_ERROR)) != null;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isAuthErrorVisible", Method.NONE)) {
+            return awaitOutcome() == AuthOutcome.ERROR;
         }
     }
     
     public boolean isLockedOut() {
-        try {
-            driver.findElement(LOCKOUT_MESSAGE);
-            return true;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isLockedOut", Method.NONE)) {
+            return isPresent(LOCKOUT_MESSAGE);
         }
     }
     
     public boolean isFallbackMessageVisible() {
-        try {
-            driver.findElement(FALLBACK_MESSAGE);
-            return true;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isFallbackMessageVisible", Method.NONE)) {
+            return isPresent(FALLBACK_MESSAGE);
         }
     }
     
     public boolean isButtonDisabled(By locator) {
-        try {
-            WebElement element = driver.findElement(locator);
-            return !element.isEnabled() || element.getAttribute("disabled") != null;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isButtonDisabled", Method.NONE)) {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                return false;
+            }
+            try {
+                return isDisabled(elements.get(0));
+            } catch (StaleElementReferenceException e) {
+                // Re-rendered between finding and reading the button; read the new node once
+                List<WebElement> rendered = driver.findElements(locator);
+                return !rendered.isEmpty() && isDisabled(rendered.get(0));
+            }
         }
     }
+
+    private static boolean isDisabled(WebElement button) {
+        return !button.isEnabled() || button.getAttribute("disabled") != null;
+    }
     
     public void waitForElement(By locator, int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        try (Timing timing = ActionTimings.start("waitForElement", Method.NONE)) {
+            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+            customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        }
     }
     
     public void waitForElementToBeClickable(By locator, int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        customWait.until(ExpectedConditions.elementToBeClickable(locator));
+        try (Timing timing = ActionTimings.start("waitForElementToBeClickable", Method.NONE)) {
+            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+            customWait.until(ExpectedConditions.elementToBeClickable(locator));
+        }
     }
     
     // Registration page methods
     public void clickRegisterLink() {
-        wait.until(ExpectedConditions.elementToBeClickable(REGISTER_LINK)).click();
-        // Wait for registration page to load
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_EMAIL));
+        try (Timing timing = ActionTimings.start("clickRegisterLink", Method.REGISTRATION);
+             PerfCollector.Capture sample = perf.capture("clickRegisterLink")) {
+            wait.until(ExpectedConditions.elementToBeClickable(REGISTER_LINK)).click();
+            // Wait for registration page to load
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_EMAIL));
+        }
     }
     
     public void fillRegistrationForm(String email, String username, String password) {
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_EMAIL)).sendKeys(email);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_USERNAME)).sendKeys(username);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_PASSWORD)).sendKeys(password);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_CONFIRM_PASSWORD)).sendKeys(password);
+        try (Timing timing = ActionTimings.start("fillRegistrationForm", Method.REGISTRATION)) {
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_EMAIL)).sendKeys(email);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_USERNAME)).sendKeys(username);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_PASSWORD)).sendKeys(password);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_CONFIRM_PASSWORD)).sendKeys(password);
+        }
     }
     
     public void checkBiometricRegistrationOption() {
-        wait.until(ExpectedConditions.elementToBeClickable(REG_BIOMETRIC_CHECKBOX)).click();
+        try (Timing timing = ActionTimings.start("checkBiometricRegistrationOption", Method.REGISTRATION)) {
+            wait.until(ExpectedConditions.elementToBeClickable(REG_BIOMETRIC_CHECKBOX)).click();
+        }
     }
     
     public void submitRegistration() {
-        wait.until(ExpectedConditions.elementToBeClickable(REG_ACCOUNT_BUTTON)).click();
+        try (Timing timing = ActionTimings.start("submitRegistration", Method.REGISTRATION)) {
+            wait.until(ExpectedConditions.elementToBeClickable(REG_ACCOUNT_BUTTON)).click();
+        }
     }
     
     public void switchToRegistrationBiometricTab() {
-        wait.until(ExpectedConditions.elementToBeClickable(REG_TAB_BIOMETRIC)).click();
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_BIOMETRIC_REGISTER_BUTTON));
+        try (Timing timing = ActionTimings.start("switchToRegistrationBiometricTab", Method.REGISTRATION);
+             PerfCollector.Capture sample = perf.capture("switchToRegistrationBiometricTab")) {
+            wait.until(ExpectedConditions.elementToBeClickable(REG_TAB_BIOMETRIC)).click();
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_BIOMETRIC_REGISTER_BUTTON));
+        }
     }
     
     public void switchToRegistrationFaceTab() {
-        wait.until(ExpectedConditions.elementToBeClickable(REG_TAB_FACE)).click();
-        wait.until(ExpectedConditions.visibilityOfElementLocated(REG_FACE_REGISTER_BUTTON));
+        try (Timing timing = ActionTimings.start("switchToRegistrationFaceTab", Method.REGISTRATION);
+             PerfCollector.Capture sample = perf.capture("switchToRegistrationFaceTab")) {
+            wait.until(ExpectedConditions.elementToBeClickable(REG_TAB_FACE)).click();
+            wait.until(ExpectedConditions.visibilityOfElementLocated(REG_FACE_REGISTER_BUTTON));
+        }
     }
     
     public void clickRegistrationBiometricRegister() {
-        wait.until(ExpectedConditions.elementToBeClickable(REG_BIOMETRIC_REGISTER_BUTTON)).click();
+        try (Timing timing = ActionTimings.start("clickRegistrationBiometricRegister", Method.REGISTRATION)) {
+            wait.until(ExpectedConditions.elementToBeClickable(REG_BIOMETRIC_REGISTER_BUTTON)).click();
+        }
     }
     
     public void clickRegistrationFaceRegister() {
-        wait.until(ExpectedConditions.elementToBeClickable(REG_FACE_REGISTER_BUTTON)).click();
+        try (Timing timing = ActionTimings.start("clickRegistrationFaceRegister", Method.REGISTRATION)) {
+            wait.until(ExpectedConditions.elementToBeClickable(REG_FACE_REGISTER_BUTTON)).click();
+        }
     }
     
     public boolean isRegistrationSuccessful() {
-        try {
-            // Look for success indicators - either success animation or redirect
-            return wait.until(ExpectedConditions.or(
-                ExpectedConditions.visibilityOfElementLocated(AUTH_SUCCESS),
-                ExpectedConditions.urlContains("dashboard"),
-                ExpectedConditions.visibilityOfElementLocated(By.xpath("//p[text()='Registration successful!']"))
-            )) != null;
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isRegistrationSuccessful", Method.REGISTRATION)) {
+            try {
+                // Look for success indicators - either success animation or redirect
+                return wait.until(ExpectedConditions.or(
+                    ExpectedConditions.visibilityOfElementLocated(AUTH_SUCCESS),
+                    ExpectedConditions.urlContains("dashboard"),
+                    ExpectedConditions.visibilityOfElementLocated(By.xpath("//p[text()='Registration successful!']"))
+                )) != null;
+            } catch (Exception e) {
+                return false;
+            }
         }
     }
     
     // Navigation methods
     public void navigateBackToLogin() {
-        if (isPresent(LOGIN_LINK)) {
-            wait.until(ExpectedConditions.elementToBeClickable(LOGIN_LINK)).click();
-        } else {
-            // If no login link, navigate to base URL
-            driver.get(baseUrl);
+        try (Timing timing = ActionTimings.start("navigateBackToLogin", Method.NONE);
+             PerfCollector.Capture sample = perf.capture("navigateBackToLogin")) {
+            if (isPresent(LOGIN_LINK)) {
+                wait.until(ExpectedConditions.elementToBeClickable(LOGIN_LINK)).click();
+            } else {
+                // If no login link, navigate to base URL
+                driver.get(baseUrl);
+                // A stored session takes the app straight to the authenticated view
+                if (waits.forDashboard()) {
+                    clickLogout();
+                }
+            }
+            wait.until(ExpectedConditions.visibilityOfElementLocated(TAB_BIOMETRIC));
+        }
+    }
+    
+    /**
+     * Ends the current session and returns to the login screen: clicks Logout if signed in,
+     * otherwise reloads the page.
+     */
+    public void signOut() {
+        try (Timing timing = ActionTimings.start("signOut", Method.NONE)) {
+            if (!isPresent(AppConditions.DASHBOARD)) {
+                driver.navigate().refresh();
+            }
+            if (waits.forDashboard()) {
+                clickLogout();
+            }
+            waits.forLoginScreen();
         }
-        wait.until(ExpectedConditions.visibilityOfElementLocated(TAB_BIOMETRIC));
+    }
+    
+    private void clickLogout() {
+        wait.until(ExpectedConditions.elementToBeClickable(AppConditions.DASHBOARD)).click();
     }
     
     // Check if biometric button text changed to authenticate
     public boolean isAuthenticateButtonPresent() {
-        return isPresent(BIOMETRIC_AUTH);
+        try (Timing timing = ActionTimings.start("isAuthenticateButtonPresent", Method.BIOMETRIC)) {
+            return isPresent(BIOMETRIC_AUTH);
+        }
     }
     
     public boolean isRegisterButtonPresent() {
-        return isPresent(BIOMETRIC_REGISTER);
+        try (Timing timing = ActionTimings.start("isRegisterButtonPresent", Method.BIOMETRIC)) {
+            return isPresent(BIOMETRIC_REGISTER);
+        }
     }
     
     public String getBiometricButtonText() {
-        try {
-            if (isPresent(BIOMETRIC_AUTH)) {
-                return driver.findElement(BIOMETRIC_AUTH).getText();
-            } else if (isPresent(BIOMETRIC_REGISTER)) {
-                return driver.findElement(BIOMETRIC_REGISTER).getText();
+        try (Timing timing = ActionTimings.start("getBiometricButtonText", Method.BIOMETRIC)) {
+            try {
+                return driver.findElements(By.cssSelector(
+                                "[data-testid='biometric-auth-button'], [data-testid='biometric-register-button']"))
+                        .stream()
+                        .findFirst()
+                        .map(WebElement::getText)
+                        .orElse("");
+            } catch (Exception e) {
+                // Ignore
+                return "";
             }
-        } catch (Exception e) {
-            // Ignore
         }
-        return "";
     }
     
     // Check if email is auto-populated after biometric failures
     public boolean isEmailAutopopulated() {
-        try {
-            WebElement emailField = driver.findElement(EMAIL);
-            return !emailField.getAttribute("value").isEmpty();
-        } catch (Exception e) {
-            return false;
+        try (Timing timing = ActionTimings.start("isEmailAutopopulated", Method.PASSWORD)) {
+            try {
+                WebElement emailField = driver.findElement(EMAIL);
+                return !emailField.getAttribute("value").isEmpty();
+            } catch (Exception e) {
+                return false;
+            }
         }
     }
     
     public String getAutopopulatedEmail() {
-        try {
-            return driver.findElement(EMAIL).getAttribute("value");
-        } catch (Exception e) {
-            return "";
+        try (Timing timing = ActionTimings.start("getAutopopulatedEmail", Method.PASSWORD)) {
+            try {
+                return driver.findElement(EMAIL).getAttribute("value");
+            } catch (Exception e) {
+                return "";
+            }
         }
     }
 }
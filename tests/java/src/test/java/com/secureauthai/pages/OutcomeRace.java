@@ -0,0 +1,94 @@
+package com.secureauthai.pages;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Races every terminal auth state inside the page and reports the first one to appear.
+ *
+ * A MutationObserver re-checks the outcomes on each DOM change and completes an async
+ * script as soon as one holds, so the browser pushes the result instead of the test
+ * polling each outcome, and a negative result costs no more than the app takes to show it.
+ */
+final class OutcomeRace {
+
+    // Outcome texts match the locators in LoginPage and AppConditions
+    private static final String SCRIPT = String.join("\n",
+            "const timeoutMs = arguments[0], graceMs = arguments[1], done = arguments[arguments.length - 1];",
+            "const visible = el => !!el && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);",
+            "const byText = (sel, text) => Array.from(document.querySelectorAll(sel))",
+            "    .some(el => visible(el) && el.textContent.trim() === text);",
+            "const contains = (sel, text) => Array.from(document.querySelectorAll(sel))",
+            "    .some(el => visible(el) && el.textContent.includes(text));",
+            "const outcomes = [",
+            "  ['SUCCESS', () => byText('p', 'Authentication successful!')],",
+            "  ['ERROR', () => byText('p', 'Authentication failed')],",
+            "  ['LOCKOUT', () => contains('div', 'locked due to multiple failed attempts')],",
+            "  ['FALLBACK', () => contains('div', 'Too many attempts')],",
+            "  ['DASHBOARD', () => byText('button span', 'Logout')],",
+            "  ['ERROR_TOAST', () => Array.from(document.querySelectorAll(",
+            "      \"li[role='status'][data-state='open'].destructive\")).some(visible)]",
+            "];",
+            "let started = graceMs <= 0, finished = false, timer, graceTimer;",
+            "const observer = new MutationObserver(() => check());",
+            "const finish = outcome => {",
+            "  if (finished) return;",
+            "  finished = true;",
+            "  observer.disconnect();",
+            "  clearTimeout(timer);",
+            "  clearTimeout(graceTimer);",
+            "  done(outcome);",
+            "};",
+            "const check = () => {",
+            "  if (finished) return;",
+            "  if (byText('p', 'Scanning biometric data...')) { started = true; return; }",
+            "  if (!started) return;",
+            "  for (const [name, holds] of outcomes) { if (holds()) { finish(name); return; } }",
+            "};",
+            "observer.observe(document.documentElement,",
+            "    { childList: true, subtree: true, characterData: true, attributes: true });",
+            "timer = setTimeout(() => finish('TIMEOUT'), timeoutMs);",
+            "if (!started) graceTimer = setTimeout(() => { started = true; check(); }, graceMs);",
+            "check();");
+
+    // Headroom between the in-page timeout and WebDriver's script timeout
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    private OutcomeRace() {
+    }
+
+    /**
+     * Blocks until one terminal state shows or {@code timeout} passes.
+     *
+     * With a non-zero {@code startGrace}, states already on screen are ignored until the
+     * scanning status of a new attempt has been seen or {@code startGrace} has passed; the
+     * status card of the previous attempt stays up for a few seconds.
+     */
+    static AuthOutcome first(WebDriver driver, Duration timeout, Duration startGrace) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Duration previous = driver.manage().timeouts().getScriptTimeout();
+        try {
+            while (true) {
+                long remaining = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+                driver.manage().timeouts().scriptTimeout(Duration.ofMillis(remaining).plus(SCRIPT_TIMEOUT_MARGIN));
+                try {
+                    Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                            SCRIPT, remaining, startGrace.toMillis());
+                    return AuthOutcome.valueOf(String.valueOf(result));
+                } catch (JavascriptException e) {
+                    // A navigation (e.g. redirect after login) unloads the document the observer
+                    // lives in; race again on the new page with the time that is left
+                    if (remaining == 0) {
+                        return AuthOutcome.TIMEOUT;
+                    }
+                    startGrace = Duration.ZERO;
+                }
+            }
+        } finally {
+            driver.manage().timeouts().scriptTimeout(previous);
+        }
+    }
+}
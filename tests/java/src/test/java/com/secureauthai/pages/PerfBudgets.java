@@ -0,0 +1,75 @@
+package com.secureauthai.pages;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Upper limits for {@link PerfCollector} samples, read from src/test/resources/perf-budgets.properties.
+ *
+ * Keys are {@code <action>.<metric>} or {@code *.<metric>} for every action; a key for the
+ * action wins over the wildcard, even when only the wildcard is overridden. Any key can be
+ * overridden with a system property {@code perf.budget.<key>}, e.g. -Dperf.budget.open.loadMs=6000.
+ */
+public final class PerfBudgets {
+
+    private static final String RESOURCE = "/perf-budgets.properties";
+    private static final PerfBudgets DEFAULT = load();
+
+    private final Properties limits;
+
+    private PerfBudgets(Properties limits) {
+        this.limits = limits;
+    }
+
+    public static PerfBudgets defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * The budget for {@code metric} of {@code action}, or null if it has none.
+     */
+    public Double limit(String action, String metric) {
+        // The action's own budget, overridden or not, wins over any wildcard
+        String value = budget(action + "." + metric);
+        if (value == null) {
+            value = budget("*." + metric);
+        }
+        return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+    }
+
+    private String budget(String key) {
+        return System.getProperty("perf.budget." + key, limits.getProperty(key));
+    }
+
+    /**
+     * One message per metric of {@code sample} over its budget.
+     */
+    public List<String> violations(PerfCollector.PerfSample sample) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Double> metric : sample.metrics().entrySet()) {
+            Double limit = limit(sample.action(), metric.getKey());
+            if (limit != null && metric.getValue() > limit) {
+                violations.add(String.format("%s: %s = %.1f over budget %.1f",
+                        sample.action(), metric.getKey(), metric.getValue(), limit));
+            }
+        }
+        return violations;
+    }
+
+    private static PerfBudgets load() {
+        Properties limits = new Properties();
+        try (InputStream in = PerfBudgets.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                limits.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + RESOURCE, e);
+        }
+        return new PerfBudgets(limits);
+    }
+}
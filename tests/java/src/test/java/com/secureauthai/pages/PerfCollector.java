@@ -0,0 +1,206 @@
+package com.secureauthai.pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional browser performance samples for the LoginPage actions that render a screen: open,
+ * tab switches and registration navigation. Enabled with -Dperf.metrics=true.
+ *
+ * A sample holds Chrome's Performance domain counters (JS heap used after the action; layout,
+ * style recalculation, script and task time spent during it) and, when the action loaded a
+ * new document, its navigation and paint timings. Samples are written per test to
+ * target/perf/ and checked against {@link PerfBudgets}.
+ */
+public final class PerfCollector {
+
+    private static final boolean ENABLED = Boolean.getBoolean("perf.metrics");
+    private static final String NAVIGATION = String.join("\n",
+            "const nav = performance.getEntriesByType('navigation')[0];",
+            "const paint = performance.getEntriesByName('first-contentful-paint')[0];",
+            "return {",
+            "  origin: performance.timeOrigin,",
+            "  ttfb: nav ? nav.responseStart - nav.requestStart : null,",
+            "  dcl: nav && nav.domContentLoadedEventEnd > 0 ? nav.domContentLoadedEventEnd : null,",
+            "  load: nav && nav.loadEventEnd > 0 ? nav.loadEventEnd : null,",
+            "  fcp: paint ? paint.startTime : null",
+            "};");
+    // Cumulative main-thread time counters (seconds) and the metric each becomes
+    private static final String[][] DURATIONS = {
+            {"LayoutDuration", "layoutMs"},
+            {"RecalcStyleDuration", "recalcStyleMs"},
+            {"ScriptDuration", "scriptMs"},
+            {"TaskDuration", "taskMs"}};
+
+    private final WebDriver driver;
+    private final PerfBudgets budgets;
+    private final List<PerfSample> samples = new ArrayList<>();
+    private boolean domainEnabled;
+    private boolean broken;
+
+    PerfCollector(WebDriver driver, PerfBudgets budgets) {
+        this.driver = driver;
+        this.budgets = budgets;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts a sample of {@code action}; closing the capture records it. A no-op unless
+     * collection is enabled.
+     */
+    Capture capture(String action) {
+        if (!ENABLED || broken) {
+            return Capture.OFF;
+        }
+        try {
+            return new Capture(this, action, counters(), navigation());
+        } catch (RuntimeException e) {
+            System.err.println("Warning: performance sampling unavailable: " + e.getMessage());
+            broken = true;
+            return Capture.OFF;
+        }
+    }
+
+    /**
+     * Samples taken since the last {@link #finishTest}.
+     */
+    public List<PerfSample> samples() {
+        return List.copyOf(samples);
+    }
+
+    /**
+     * Writes this test's samples to {@code directory}/{@code test}.json, forgets them and
+     * returns the budgets they exceeded. Does nothing if no sample was taken.
+     */
+    public List<String> finishTest(String test, Path directory) {
+        if (samples.isEmpty()) {
+            return List.of();
+        }
+        List<String> violations = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (PerfSample sample : samples) {
+            violations.addAll(budgets.violations(sample));
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("action", sample.action());
+            row.putAll(sample.metrics());
+            rows.add(row);
+        }
+        samples.clear();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("test", test);
+        report.put("samples", rows);
+        report.put("budgetViolations", violations);
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(test.replaceAll("[^A-Za-z0-9._-]", "_") + ".json"),
+                    new Json().toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write performance samples for " + test, e);
+        }
+        return violations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Double> counters() {
+        HasCdp cdp = (HasCdp) driver;
+        if (!domainEnabled) {
+            cdp.executeCdpCommand("Performance.enable", Map.of());
+            domainEnabled = true;
+        }
+        Map<String, Double> values = new HashMap<>();
+        List<Map<String, Object>> metrics = (List<Map<String, Object>>) cdp
+                .executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+        for (Map<String, Object> metric : metrics) {
+            values.put((String) metric.get("name"), ((Number) metric.get("value")).doubleValue());
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> navigation() {
+        return (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(NAVIGATION);
+    }
+
+    private void record(String action, Map<String, Double> before, Map<String, Object> navigationBefore) {
+        try {
+            Map<String, Double> after = counters();
+            Map<String, Object> navigation = navigation();
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            metrics.put("jsHeapUsedMb", round(after.getOrDefault("JSHeapUsedSize", 0.0) / (1024 * 1024)));
+            for (String[] counter : DURATIONS) {
+                double start = before.getOrDefault(counter[0], 0.0);
+                double end = after.getOrDefault(counter[0], 0.0);
+                // A new renderer process starts its counters again
+                metrics.put(counter[1], round((end >= start ? end - start : end) * 1000));
+            }
+            if (!navigation.get("origin").equals(navigationBefore.get("origin"))) {
+                putIfPresent(metrics, "ttfbMs", navigation.get("ttfb"));
+                putIfPresent(metrics, "firstContentfulPaintMs", navigation.get("fcp"));
+                putIfPresent(metrics, "domContentLoadedMs", navigation.get("dcl"));
+                putIfPresent(metrics, "loadMs", navigation.get("load"));
+            }
+            samples.add(new PerfSample(action, metrics));
+        } catch (RuntimeException e) {
+            System.err.println("Warning: no performance sample for " + action + ": " + e.getMessage());
+        }
+    }
+
+    private static void putIfPresent(Map<String, Double> metrics, String name, Object value) {
+        if (value instanceof Number) {
+            metrics.put(name, round(((Number) value).doubleValue()));
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * A sample in progress; use in try-with-resources around the action.
+     */
+    static final class Capture implements AutoCloseable {
+        private static final Capture OFF = new Capture(null, null, null, null);
+
+        private final PerfCollector collector;
+        private final String action;
+        private final Map<String, Double> before;
+        private final Map<String, Object> navigationBefore;
+
+        private Capture(PerfCollector collector, String action, Map<String, Double> before,
+                        Map<String, Object> navigationBefore) {
+            this.collector = collector;
+            this.action = action;
+            this.before = before;
+            this.navigationBefore = navigationBefore;
+        }
+
+        @Override
+        public void close() {
+            if (this != OFF) {
+                collector.record(action, before, navigationBefore);
+            }
+        }
+    }
+
+    /**
+     * The metrics of one action, by name as in perf-budgets.properties.
+     */
+    public record PerfSample(String action, Map<String, Double> metrics) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.secureauthai.pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Times one user-visible step of a journey from the user's point of view: how long until
+ * the page first reacts (time-to-first-feedback) and how long until the step's result is on
+ * screen (time-to-result).
+ *
+ * First feedback is the first DOM change after the action, outside the input being typed
+ * into (a spinner, a disabled button, a status card), taken with the page's own clock. For
+ * a page load it is the first contentful paint.
+ *
+ * The step name also tags the LoginPage actions that follow in {@link ActionTimings}.
+ */
+public final class StepTimer {
+
+    // The probe starts just before the action; mutations of the typed-into input do not count
+    private static final String ARM = String.join("\n",
+            "if (window.__stepProbe && window.__stepProbe.observer) window.__stepProbe.observer.disconnect();",
+            "const probe = { start: performance.now(), first: null };",
+            "probe.observer = new MutationObserver(records => {",
+            "  if (records.some(r => !(r.target instanceof HTMLInputElement))) {",
+            "    probe.first = performance.now();",
+            "    probe.observer.disconnect();",
+            "  }",
+            "});",
+            "probe.observer.observe(document.documentElement,",
+            "    { subtree: true, childList: true, attributes: true, characterData: true });",
+            "window.__stepProbe = probe;");
+    private static final String READ = "const p = window.__stepProbe;"
+            + " return p && p.first !== null ? p.first - p.start : null;";
+    private static final String FIRST_PAINT = "const paint = performance.getEntriesByName('first-contentful-paint')[0];"
+            + " return paint ? paint.startTime : null;";
+
+    private final WebDriver driver;
+
+    public StepTimer(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Runs {@code action} on the current page, then {@code result}, which waits for the
+     * step's result and names it (an outcome, "dashboard", "timeout", ...); {@code expected}
+     * says whether that result is the one the journey wanted.
+     */
+    public StepTiming measure(String step, Runnable action, Supplier<String> result, Predicate<String> expected) {
+        ActionTimings.step(step);
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript(ARM);
+        long start = System.nanoTime();
+        action.run();
+        String outcome = result.get();
+        long resultMillis = (System.nanoTime() - start) / 1_000_000;
+        Long feedback = millis(js.executeScript(READ));
+        // Nothing changed before the result was read: the result was the first feedback
+        return new StepTiming(step, feedback == null ? resultMillis : Math.min(feedback, resultMillis),
+                resultMillis, outcome, expected.test(outcome));
+    }
+
+    /**
+     * Times a navigation: {@code navigate} loads a page and {@code ready} waits until it is usable.
+     */
+    public StepTiming measureLoad(String step, Runnable navigate, Supplier<String> ready, Predicate<String> expected) {
+        ActionTimings.step(step);
+        long start = System.nanoTime();
+        navigate.run();
+        String outcome = ready.get();
+        long resultMillis = (System.nanoTime() - start) / 1_000_000;
+        Long paint = millis(((JavascriptExecutor) driver).executeScript(FIRST_PAINT));
+        return new StepTiming(step, paint == null ? resultMillis : Math.min(paint, resultMillis),
+                resultMillis, outcome, expected.test(outcome));
+    }
+
+    private static Long millis(Object scriptValue) {
+        return scriptValue instanceof Number ? Math.round(((Number) scriptValue).doubleValue()) : null;
+    }
+
+    /**
+     * One measured step; times in milliseconds from the action.
+     */
+    public record StepTiming(String step, long feedbackMillis, long resultMillis, String outcome, boolean expected) {
+    }
+}
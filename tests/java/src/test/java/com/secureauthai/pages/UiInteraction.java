@@ -0,0 +1,168 @@
+package com.secureauthai.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Single UI interactions of the login screen, measured for the UI latency benchmark from the
+ * user's input to the moment the interaction's result is visible.
+ *
+ * Both ends are taken with the page's own clock: the start is the timestamp of the first
+ * pointer or key event the interaction dispatches, the end is the first DOM change after
+ * which the result element is visible. WebDriver round trips and polling intervals are not
+ * part of the number. Setting up each iteration (tab, username, reload) is not measured.
+ */
+public enum UiInteraction {
+
+    /** Click the Biometric tab until the username field shows. */
+    BIOMETRIC_TAB(LoginPage.BIOMETRIC_USERNAME) {
+        @Override
+        void prepare(LoginPage page, String username) {
+            page.switchToPassword();
+        }
+
+        @Override
+        void perform(LoginPage page, String username) {
+            page.switchToBiometric();
+        }
+    },
+    /** Click the Password tab until the email field shows. */
+    PASSWORD_TAB(LoginPage.EMAIL) {
+        @Override
+        void prepare(LoginPage page, String username) {
+            page.switchToBiometric();
+        }
+
+        @Override
+        void perform(LoginPage page, String username) {
+            page.switchToPassword();
+        }
+    },
+    /** Click the Face tab until the username field shows. */
+    FACE_TAB(LoginPage.FACE_USERNAME) {
+        @Override
+        void prepare(LoginPage page, String username) {
+            page.switchToBiometric();
+        }
+
+        @Override
+        void perform(LoginPage page, String username) {
+            page.switchToFace();
+        }
+    },
+    /** Type a username with biometric credentials until the authenticate button replaces register. */
+    USERNAME_LOOKUP(LoginPage.BIOMETRIC_AUTH) {
+        @Override
+        void prepare(LoginPage page, String username) {
+            // A reload forgets the previous lookup, so register shows again
+            page.signOut();
+            page.switchToBiometric();
+        }
+
+        @Override
+        void perform(LoginPage page, String username) {
+            page.enterBiometricUsername(username);
+        }
+    },
+    /** Click authenticate until "Scanning biometric data..." shows. */
+    AUTHENTICATE_TO_SCANNING(LoginPage.BIOMETRIC_SCANNING) {
+        @Override
+        void prepare(LoginPage page, String username) {
+            page.signOut();
+            page.switchToBiometric();
+            page.enterBiometricUsername(username);
+            if (!LoginPage.BIOMETRIC_AUTH.equals(page.waits().forBiometricButton())) {
+                throw new IllegalStateException("No authenticate button for " + username
+                        + "; the benchmark needs a user with biometric credentials");
+            }
+        }
+
+        @Override
+        void perform(LoginPage page, String username) {
+            page.clickBiometricAuth();
+        }
+
+        @Override
+        void finish(LoginPage page) {
+            // Let the ceremony end so the next iteration starts from an idle page
+            page.waits().forCeremonyResult();
+        }
+    };
+
+    private static final Duration RESULT_TIMEOUT = Duration.ofSeconds(10);
+    // Arguments: locator strategy (xpath, id or css selector) and value of the result element.
+    // The first input event starts the clock; the end is the first mutation after which the
+    // result is visible.
+    private static final String ARM = String.join("\n",
+            "if (window.__uiProbe) window.__uiProbe.stop();",
+            "const [using, value] = arguments;",
+            "const find = () => using === 'xpath'",
+            "  ? document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue",
+            "  : using === 'id' ? document.getElementById(value) : document.querySelector(value);",
+            "const visible = () => {",
+            "  const el = find();",
+            "  return !!el && el.getClientRects().length > 0 && getComputedStyle(el).visibility !== 'hidden';",
+            "};",
+            "if (visible()) return false;",
+            "const inputs = ['pointerdown', 'mousedown', 'keydown'];",
+            "const probe = { start: null, end: null };",
+            "const onInput = event => { if (probe.start === null) probe.start = event.timeStamp; };",
+            "const observer = new MutationObserver(() => {",
+            "  if (probe.start !== null && probe.end === null && visible()) {",
+            "    probe.end = performance.now();",
+            "    probe.stop();",
+            "  }",
+            "});",
+            "probe.stop = () => {",
+            "  observer.disconnect();",
+            "  inputs.forEach(type => document.removeEventListener(type, onInput, true));",
+            "};",
+            "inputs.forEach(type => document.addEventListener(type, onInput, true));",
+            "observer.observe(document.documentElement,",
+            "    { subtree: true, childList: true, attributes: true, characterData: true });",
+            "window.__uiProbe = probe;",
+            "return true;");
+    private static final String READ = "const p = window.__uiProbe;"
+            + " return p && p.end !== null ? p.end - p.start : null;";
+
+    private final By result;
+
+    UiInteraction(By result) {
+        this.result = result;
+    }
+
+    public static UiInteraction parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Sets the page up, performs the interaction once and returns its latency in milliseconds.
+     * {@code username} must have biometric credentials.
+     */
+    public double measure(WebDriver driver, LoginPage page, String username) {
+        prepare(page, username);
+        By.Remotable.Parameters locator = ((By.Remotable) result).getRemoteParameters();
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        if (!Boolean.TRUE.equals(js.executeScript(ARM, locator.using(), locator.value()))) {
+            throw new IllegalStateException(result + " is already visible before " + this);
+        }
+        perform(page, username);
+        Number millis = new WebDriverWait(driver, RESULT_TIMEOUT)
+                .withMessage(() -> this + " did not show " + result)
+                .until(d -> (Number) js.executeScript(READ));
+        finish(page);
+        return millis.doubleValue();
+    }
+
+    abstract void prepare(LoginPage page, String username);
+
+    abstract void perform(LoginPage page, String username);
+
+    void finish(LoginPage page) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.secureauthai.pages;
+
+import com.secureauthai.jfr.HarnessEvents;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Event-driven replacement for fixed Thread.sleep calls.
+ *
+ * Every wait blocks on a real application condition (see {@link AppConditions}), returns
+ * as soon as it holds, and is recorded with the time it actually took so a test run shows
+ * how much of each old sleep was dead time. Each wait is also a {@link HarnessEvents.Wait} JFR
+ * event.
+ *
+ * One engine belongs to one browser and is used only from that browser's worker thread.
+ */
+public class WaitEngine {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+    public static final Duration RESULT_TIMEOUT = Duration.ofSeconds(20);
+    public static final Duration SWITCH_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration START_GRACE = Duration.ofSeconds(1);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final WebDriver driver;
+    private final CredentialCheck credentialChecks;
+    private final List<WaitRecord> records = new ArrayList<>();
+
+    public WaitEngine(WebDriver driver, CredentialCheck credentialChecks) {
+        this.driver = driver;
+        this.credentialChecks = credentialChecks;
+    }
+
+    /**
+     * Waits for {@code condition} and returns its value; throws TimeoutException if it
+     * does not hold within {@code timeout}.
+     */
+    public <T> T until(String description, Duration timeout, ExpectedCondition<T> condition) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout, POLL_INTERVAL);
+        HarnessEvents.Wait event = new HarnessEvents.Wait();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            T value = wait.until(condition);
+            record(event, description, start, true, String.valueOf(value));
+            return value;
+        } catch (TimeoutException e) {
+            record(event, description, start, false, "timeout");
+            throw e;
+        } catch (RuntimeException e) {
+            // A missing element or signal ends the wait too; it still counts as a wait spent
+            record(event, description, start, false, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    public <T> T until(String description, ExpectedCondition<T> condition) {
+        return until(description, DEFAULT_TIMEOUT, condition);
+    }
+
+    /**
+     * Like {@link #until} but returns null instead of throwing when the condition never holds.
+     */
+    public <T> T tryUntil(String description, Duration timeout, ExpectedCondition<T> condition) {
+        try {
+            return until(description, timeout, condition);
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+
+    // Application waits
+
+    /**
+     * Waits for the app to answer the credential check of the username entered, then for the
+     * biometric register/authenticate button that answer renders, and returns its locator.
+     */
+    public By forBiometricButton() {
+        return forPrimaryButton("biometric", LoginPage.BIOMETRIC_USERNAME, "biometric_credentials",
+                AppConditions::biometricButton);
+    }
+
+    public By forFaceButton() {
+        return forPrimaryButton("face", LoginPage.FACE_USERNAME, "face_credentials", AppConditions::faceButton);
+    }
+
+    /**
+     * Waits for a tab's button to change from register to authenticate after a registration;
+     * pass {@link LoginPage#BIOMETRIC_AUTH} or {@link LoginPage#FACE_AUTH}. Returns false if it
+     * never does.
+     */
+    public boolean forAuthenticateButton(By authButton) {
+        return tryUntil("button switched to authenticate", SWITCH_TIMEOUT,
+                AppConditions.visible(authButton)) != null;
+    }
+
+    public boolean forScanning() {
+        return tryUntil("Scanning biometric data...", DEFAULT_TIMEOUT, AppConditions.scanning()) != null;
+    }
+
+    /**
+     * Whether the authenticated view shows within {@link #RESULT_TIMEOUT}; unlike
+     * {@link #forDashboard()} it keeps waiting while the login screen is still up.
+     */
+    public boolean forSignedIn() {
+        return tryUntil("signed in", RESULT_TIMEOUT, AppConditions.dashboard()) != null;
+    }
+
+    /**
+     * Waits for a biometric or face ceremony started by the last click to finish and returns
+     * how it ended. The previous attempt's status card is ignored until the new attempt has
+     * started scanning, or for {@link #START_GRACE} if it never does (e.g. locked out).
+     */
+    public AuthOutcome forCeremonyResult() {
+        return race("ceremony result", RESULT_TIMEOUT, START_GRACE);
+    }
+
+    /**
+     * Waits for whichever terminal auth state shows first, including one already on screen.
+     * Only times out when none of them shows within {@code timeout}.
+     */
+    public AuthOutcome forOutcome(Duration timeout) {
+        return race("auth outcome", timeout, Duration.ZERO);
+    }
+
+    public String forPasswordLoginResult() {
+        String result = tryUntil("password login result", RESULT_TIMEOUT, AppConditions.passwordLoginResult());
+        return result == null ? "timeout" : result;
+    }
+
+    public String forAccountRegistrationResult() {
+        String result = tryUntil("account registration result", RESULT_TIMEOUT,
+                AppConditions.accountRegistrationResult());
+        return result == null ? "timeout" : result;
+    }
+
+    public void forLoginScreen() {
+        until("login screen ready", AppConditions.loginScreenReady());
+    }
+
+    /**
+     * Waits for the app to boot and returns "dashboard" or "login", or "timeout".
+     */
+    public String forLandingView() {
+        String view = tryUntil("landing view", DEFAULT_TIMEOUT, AppConditions.landingView());
+        return view == null ? "timeout" : view;
+    }
+
+    /**
+     * Whether the app booted into the authenticated view; false as soon as it shows the
+     * login screen instead.
+     */
+    public boolean forDashboard() {
+        return "dashboard".equals(forLandingView());
+    }
+
+    private By forPrimaryButton(String tab, By usernameField, String credentialsTable,
+                                Function<Boolean, ExpectedCondition<By>> button) {
+        String description = tab + " button settled";
+        HarnessEvents.Wait event = new HarnessEvents.Wait();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            // The app trims the username before looking it up; an empty one is never looked up
+            String username = Objects.toString(driver.findElement(usernameField).getAttribute("value"), "").trim();
+            Boolean hasCredentials = false;
+            if (!username.isEmpty()) {
+                if (credentialChecks == null) {
+                    throw new IllegalStateException("No credential check signal for this browser");
+                }
+                hasCredentials = credentialChecks.await(username, credentialsTable, DEFAULT_TIMEOUT);
+            }
+            By shown = new WebDriverWait(driver, DEFAULT_TIMEOUT, POLL_INTERVAL).until(button.apply(hasCredentials));
+            record(event, description, start, true, buttonName(shown));
+            return shown;
+        } catch (TimeoutException e) {
+            record(event, description, start, false, "timeout");
+            throw e;
+        } catch (RuntimeException e) {
+            // A missing element or signal ends the wait too; it still counts as a wait spent
+            record(event, description, start, false, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    private static String buttonName(By button) {
+        return button.equals(LoginPage.BIOMETRIC_AUTH) || button.equals(LoginPage.FACE_AUTH) ? "authenticate" : "register";
+    }
+
+    private AuthOutcome race(String description, Duration timeout, Duration startGrace) {
+        HarnessEvents.Wait event = new HarnessEvents.Wait();
+        event.begin();
+        long start = System.nanoTime();
+        AuthOutcome outcome = OutcomeRace.first(driver, timeout, startGrace);
+        record(event, description, start, !outcome.isTimeout(), outcome.name().toLowerCase(Locale.ROOT));
+        return outcome;
+    }
+
+    // Reporting
+
+    public List<WaitRecord> records() {
+        return Collections.unmodifiableList(records);
+    }
+
+    public void clear() {
+        records.clear();
+    }
+
+    /**
+     * Prints the waits recorded since the last clear and resets the record list.
+     */
+    public void printSummary(String label) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long total = 0;
+        for (WaitRecord r : records) {
+            total += r.elapsedMillis();
+        }
+        System.out.println("⏱ " + label + ": " + records.size() + " waits, " + total + " ms spent waiting");
+        clear();
+    }
+
+    private void record(HarnessEvents.Wait event, String description, long startNanos, boolean satisfied, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.description = description;
+            event.outcome = outcome;
+            event.satisfied = satisfied;
+            event.commit();
+        }
+        long elapsed = (System.nanoTime() - startNanos) / 1_000_000;
+        records.add(new WaitRecord(description, elapsed, satisfied, outcome));
+        System.out.println("  ⏱ " + description + ": " + outcome + " after " + elapsed + " ms");
+    }
+
+    /**
+     * One completed wait: what was awaited, how long it took and how it ended.
+     */
+    public record WaitRecord(String description, long elapsedMillis, boolean satisfied, String outcome) {
+    }
+}
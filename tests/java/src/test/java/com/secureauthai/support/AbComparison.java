@@ -0,0 +1,279 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.StepTimer.StepTiming;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Step timings of the same journeys against a baseline and a candidate frontend build, compared
+ * step by step for time-to-first-feedback and time-to-result.
+ *
+ * The difference is the Hodges-Lehmann shift (median of all candidate - baseline differences)
+ * and its significance a two-sided Mann-Whitney U test, so a few slow outliers neither hide
+ * nor fake a change. Only runs that reached the expected result give timings; a failed run
+ * says nothing about speed. A step regresses when the candidate is slower with p below
+ * {@code alpha} and by more than {@code thresholdPercent} of the baseline median, or when it
+ * fails more often than the baseline with a one-sided Fisher exact p below {@code alpha}, so a
+ * single flaky failure does not count as a regression.
+ */
+public final class AbComparison {
+
+    // Below this many samples per build the normal approximation of U is not trusted
+    private static final int MIN_SAMPLES = 8;
+    private static final String[] METRICS = {"feedback", "result"};
+
+    private final double alpha;
+    private final double thresholdPercent;
+    private final Map<String, Map<Arm, List<StepTiming>>> samples = new LinkedHashMap<>();
+
+    public AbComparison(double alpha, double thresholdPercent) {
+        this.alpha = alpha;
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    /**
+     * The two builds under comparison.
+     */
+    public enum Arm {
+        BASELINE, CANDIDATE
+    }
+
+    public enum Verdict {
+        REGRESSION, IMPROVEMENT, NO_CHANGE, INCONCLUSIVE
+    }
+
+    public synchronized void record(String journey, Arm arm, StepTiming timing) {
+        samples.computeIfAbsent(journey + " / " + timing.step(), key -> new LinkedHashMap<>())
+                .computeIfAbsent(arm, key -> new ArrayList<>())
+                .add(timing);
+    }
+
+    /**
+     * One row per journey step and metric.
+     */
+    public synchronized List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<Arm, List<StepTiming>>> step : samples.entrySet()) {
+            List<StepTiming> baseline = step.getValue().getOrDefault(Arm.BASELINE, List.of());
+            List<StepTiming> candidate = step.getValue().getOrDefault(Arm.CANDIDATE, List.of());
+            for (String metric : METRICS) {
+                rows.add(compare(step.getKey(), metric, baseline, candidate));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * A description of every regressed step of {@code journey}; empty if there is none.
+     */
+    public List<String> regressions(String journey) {
+        List<String> regressions = new ArrayList<>();
+        for (Row row : rows()) {
+            // A failure regression shows on both metrics of the step; report it once
+            if (row.verdict() == Verdict.REGRESSION && row.step().startsWith(journey + " / ")
+                    && !regressions.contains(row.describe())) {
+                regressions.add(row.describe());
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * The comparison as text lines.
+     */
+    public List<String> table() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("alpha %.3f, regression threshold %.1f%%, medians in ms", alpha, thresholdPercent));
+        lines.add(String.format("%-32s %-8s %5s  %9s  %9s  %9s  %8s  %8s  %-7s  %8s  %s",
+                "step", "metric", "n", "baseline", "candidate", "shift", "change", "p", "failed", "failed p", "verdict"));
+        for (Row row : rows()) {
+            lines.add(String.format(Locale.ROOT, "%-32s %-8s %2d/%-2d  %9.0f  %9.0f  %+9.0f  %+7.1f%%  %8.4f  %-7s  %8.4f  %s",
+                    row.step(), row.metric(), row.baselineCount(), row.candidateCount(), row.baselineMedian(),
+                    row.candidateMedian(), row.shiftMillis(), row.changePercent(), row.pValue(),
+                    row.baselineFailed() + "/" + row.candidateFailed(), row.failurePValue(), row.verdict()));
+        }
+        return lines;
+    }
+
+    public void writeCsv(Path file) {
+        List<String> lines = new ArrayList<>();
+        lines.add("step,metric,baseline_samples,candidate_samples,baseline_median_ms,candidate_median_ms,"
+                + "shift_ms,change_percent,p_value,baseline_failed,candidate_failed,failure_p_value,verdict");
+        for (Row row : rows()) {
+            lines.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.1f,%.1f,%.2f,%.6f,%d,%d,%.6f,%s",
+                    row.step(), row.metric(), row.baselineCount(), row.candidateCount(), row.baselineMedian(),
+                    row.candidateMedian(), row.shiftMillis(), row.changePercent(), row.pValue(),
+                    row.baselineFailed(), row.candidateFailed(), row.failurePValue(), row.verdict()));
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    private Row compare(String step, String metric, List<StepTiming> baseline, List<StepTiming> candidate) {
+        double[] a = values(baseline, metric);
+        double[] b = values(candidate, metric);
+        int baselineFailed = baseline.size() - a.length;
+        int candidateFailed = candidate.size() - b.length;
+        double failureP = fisherExactP(baselineFailed, baseline.size(), candidateFailed, candidate.size());
+        boolean failsMore = failureP < alpha;
+        if (a.length == 0 || b.length == 0) {
+            return new Row(step, metric, a.length, b.length, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                    Double.NaN, baselineFailed, candidateFailed, failureP, failsMore,
+                    failsMore ? Verdict.REGRESSION : Verdict.INCONCLUSIVE);
+        }
+        double baselineMedian = median(a);
+        double shift = hodgesLehmann(a, b);
+        double change = baselineMedian > 0 ? shift / baselineMedian * 100 : 0;
+        double p = mannWhitneyP(a, b);
+        Verdict verdict;
+        if (failsMore) {
+            verdict = Verdict.REGRESSION;
+        } else if (a.length < MIN_SAMPLES || b.length < MIN_SAMPLES) {
+            verdict = Verdict.INCONCLUSIVE;
+        } else if (p < alpha && change > thresholdPercent) {
+            verdict = Verdict.REGRESSION;
+        } else if (p < alpha && change < -thresholdPercent) {
+            verdict = Verdict.IMPROVEMENT;
+        } else {
+            verdict = Verdict.NO_CHANGE;
+        }
+        return new Row(step, metric, a.length, b.length, baselineMedian, median(b), shift, change, p,
+                baselineFailed, candidateFailed, failureP, failsMore, verdict);
+    }
+
+    // Timings of the runs that reached the expected result
+    private static double[] values(List<StepTiming> timings, String metric) {
+        return timings.stream()
+                .filter(StepTiming::expected)
+                .mapToDouble(t -> metric.equals("feedback") ? t.feedbackMillis() : t.resultMillis())
+                .toArray();
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    // Median of all pairwise differences b - a
+    static double hodgesLehmann(double[] a, double[] b) {
+        double[] differences = new double[a.length * b.length];
+        int i = 0;
+        for (double x : a) {
+            for (double y : b) {
+                differences[i++] = y - x;
+            }
+        }
+        return median(differences);
+    }
+
+    // Two-sided p-value of the Mann-Whitney U test, normal approximation with tie and continuity correction
+    static double mannWhitneyP(double[] a, double[] b) {
+        int n1 = a.length;
+        int n2 = b.length;
+        int n = n1 + n2;
+        double[][] pooled = new double[n][];
+        for (int i = 0; i < n; i++) {
+            pooled[i] = new double[] {i < n1 ? a[i] : b[i - n1], i < n1 ? 0 : 1};
+        }
+        Arrays.sort(pooled, (x, y) -> Double.compare(x[0], y[0]));
+        double rankSumA = 0;
+        double ties = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && pooled[j + 1][0] == pooled[i][0]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1;
+            for (int k = i; k <= j; k++) {
+                if (pooled[k][1] == 0) {
+                    rankSumA += rank;
+                }
+            }
+            double t = j - i + 1;
+            ties += t * t * t - t;
+            i = j + 1;
+        }
+        double u = rankSumA - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - ties / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = Math.max(0, Math.abs(u - mean) - 0.5) / Math.sqrt(variance);
+        return Math.min(1, 2 * (1 - normalCdf(z)));
+    }
+
+    /**
+     * One-sided p-value of Fisher's exact test that the candidate fails more often than the
+     * baseline: the chance, with the total failures fixed, of the candidate having at least
+     * {@code candidateFailed} of them if both builds failed alike.
+     */
+    static double fisherExactP(int baselineFailed, int baselineRuns, int candidateFailed, int candidateRuns) {
+        int runs = baselineRuns + candidateRuns;
+        int failed = baselineFailed + candidateFailed;
+        if (candidateFailed == 0 || runs == 0) {
+            return 1;
+        }
+        double p = 0;
+        for (int x = candidateFailed; x <= Math.min(failed, candidateRuns); x++) {
+            p += Math.exp(logChoose(failed, x) + logChoose(runs - failed, candidateRuns - x) - logChoose(runs, candidateRuns));
+        }
+        return Math.min(1, p);
+    }
+
+    private static double logChoose(int n, int k) {
+        if (k < 0 || k > n) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double log = 0;
+        for (int i = 1; i <= Math.min(k, n - k); i++) {
+            log += Math.log(n - Math.min(k, n - k) + i) - Math.log(i);
+        }
+        return log;
+    }
+
+    // Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592)
+                * t * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    /**
+     * One step and metric of the comparison. The counts and medians are of successful runs only.
+     * {@code shiftMillis} is positive when the candidate is slower; {@code changePercent}
+     * relates it to the baseline median. {@code failsMore} is set when the candidate's extra
+     * failures are significant ({@code failurePValue} below alpha).
+     */
+    public record Row(String step, String metric, int baselineCount, int candidateCount, double baselineMedian,
+                      double candidateMedian, double shiftMillis, double changePercent, double pValue,
+                      long baselineFailed, long candidateFailed, double failurePValue, boolean failsMore,
+                      Verdict verdict) {
+
+        public String describe() {
+            if (failsMore) {
+                return String.format(Locale.ROOT, "%s: %d failed runs on the candidate, %d on the baseline (p = %.4f)",
+                        step, candidateFailed, baselineFailed, failurePValue);
+            }
+            return String.format(Locale.ROOT, "%s (%s): %.0f ms -> %.0f ms median, shift %+.0f ms (%+.1f%%), p = %.4f",
+                    step, metric, baselineMedian, candidateMedian, shiftMillis, changePercent, pValue);
+        }
+    }
+}
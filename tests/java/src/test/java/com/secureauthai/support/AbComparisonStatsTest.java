@@ -0,0 +1,56 @@
+package com.secureauthai.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Known answers for the statistics behind {@link AbComparison}; the browser comparison
+ * itself is {@code tests.AbComparisonTest}.
+ */
+@DisplayName("A/B comparison statistics")
+class AbComparisonStatsTest {
+
+    private static final double[] BASELINE = {1, 2, 2, 3};
+    private static final double[] CANDIDATE = {2, 3, 4, 5};
+
+    @Test
+    @DisplayName("Mann-Whitney p with tied ranks")
+    void mannWhitneyWithTies() {
+        // Ranks 1, 3, 3, 5.5 for the baseline: U = 12.5 - 10 = 2.5 against a mean of 8.
+        // Ties of three and two give a variance of 16/12 * (9 - 30/56) = 79/7, and with the
+        // continuity correction z = 5 / sqrt(79/7) = 1.4884
+        assertEquals(0.13666, AbComparison.mannWhitneyP(BASELINE, CANDIDATE), 1e-4);
+        assertEquals(0.13666, AbComparison.mannWhitneyP(CANDIDATE, BASELINE), 1e-4);
+    }
+
+    @Test
+    @DisplayName("Mann-Whitney p is 1 for identical samples")
+    void mannWhitneyIdentical() {
+        assertEquals(1, AbComparison.mannWhitneyP(new double[] {5, 5, 5}, new double[] {5, 5, 5}));
+    }
+
+    @Test
+    @DisplayName("Hodges-Lehmann shift is the median pairwise difference")
+    void hodgesLehmann() {
+        // The 16 differences candidate - baseline have 1 and 2 as their middle pair
+        assertEquals(1.5, AbComparison.hodgesLehmann(BASELINE, CANDIDATE));
+        assertEquals(-1.5, AbComparison.hodgesLehmann(CANDIDATE, BASELINE));
+        assertEquals(0, AbComparison.hodgesLehmann(BASELINE, BASELINE));
+    }
+
+    @Test
+    @DisplayName("Fisher exact p for extra candidate failures")
+    void fisherExact() {
+        // One failure in 24 runs is as likely on either build
+        assertEquals(0.5, AbComparison.fisherExactP(0, 12, 1, 12), 1e-9);
+        // C(16, 6) / C(20, 10) = 8008 / 184756
+        assertEquals(0.043344, AbComparison.fisherExactP(0, 10, 4, 10), 1e-6);
+        // C(18, 6) / C(24, 12) = 18564 / 2704156
+        assertEquals(0.006865, AbComparison.fisherExactP(0, 12, 6, 12), 1e-6);
+        assertEquals(1, AbComparison.fisherExactP(3, 12, 0, 12));
+        assertTrue(AbComparison.fisherExactP(2, 12, 2, 12) > 0.5);
+    }
+}
@@ -0,0 +1,292 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.ActionTimings;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of browser workers allowed to run a test at the same time, adjusted while the run
+ * goes (-Dconcurrency.adaptive=true with -Dparallel=true).
+ *
+ * At start-up the ceiling comes from the cgroup's CPUs and memory ({@link ContainerLimits})
+ * divided by what one browser needs (-Dconcurrency.cpusPerBrowser, -Dconcurrency.mbPerBrowser);
+ * JUnit's pool is sized to that ceiling and {@link #admit()} holds back the workers above the
+ * current limit, which starts at half of it. Every concurrency.interval seconds the limit is
+ * lowered when memory, CPU or CPU pressure is high or LoginPage steps have become slower than
+ * when the host was not busy, and raised by one when tests are waiting and all of them are
+ * low. A held-back worker quits its browser, so lowering the limit also frees its memory.
+ *
+ * Every change is printed to the run log with the readings behind it, and listed in the run
+ * summary.
+ */
+public final class AdaptiveConcurrency {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("concurrency.adaptive", "false"));
+    private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm:ss");
+    // Readings above these lower the limit, readings below the grow thresholds raise it
+    private static final double MEMORY_HIGH = 0.90;
+    private static final double MEMORY_GROW = 0.75;
+    private static final double CPU_HIGH = 0.90;
+    private static final double CPU_GROW = 0.70;
+    private static final double PRESSURE_HIGH = 40;
+    private static final double SLOWDOWN_HIGH = 1.5;
+    private static final double SLOWDOWN_GROW = 1.2;
+    // Actions a window needs before its step latency counts
+    private static final int MIN_ACTIONS = 5;
+    // Intervals without a change after each change, so new browsers start before the next reading
+    private static final int COOLDOWN = 2;
+    private static final ThreadLocal<Boolean> ADMITTED = ThreadLocal.withInitial(() -> false);
+    private static volatile AdaptiveConcurrency shared;
+
+    private final ContainerLimits limits;
+    private final int ceiling;
+    private final long intervalMillis;
+    private final List<String> decisions = new ArrayList<>();
+    private final Map<String, Double> baselineMicros = new HashMap<>();
+    private final Map<String, Long> baselineCount = new HashMap<>();
+    private ScheduledExecutorService sampler;
+    private int limit;
+    private int active;
+    private int waiting;
+    private int cooldown;
+    private int lowest;
+    private int highest;
+    private long lastCpuMicros = -1;
+    private long lastSampleNanos;
+    private Map<String, ActionTimings.Total> lastTotals = Map.of();
+
+    private AdaptiveConcurrency(ContainerLimits limits, int ceiling, long intervalMillis) {
+        this.limits = limits;
+        this.ceiling = ceiling;
+        this.intervalMillis = intervalMillis;
+        this.limit = Math.max(1, (ceiling + 1) / 2);
+        this.lowest = limit;
+        this.highest = limit;
+    }
+
+    public static boolean enabled() {
+        return ENABLED && TestConfig.parallelEnabled();
+    }
+
+    /**
+     * The controller of this run; created on first use.
+     */
+    public static AdaptiveConcurrency shared() {
+        AdaptiveConcurrency controller = shared;
+        if (controller == null) {
+            synchronized (AdaptiveConcurrency.class) {
+                controller = shared;
+                if (controller == null) {
+                    controller = create();
+                    shared = controller;
+                }
+            }
+        }
+        return controller;
+    }
+
+    private static AdaptiveConcurrency create() {
+        ContainerLimits limits = ContainerLimits.read();
+        double cpusPerBrowser = Math.max(0.1, TestConfig.doubleProperty("concurrency.cpusPerBrowser", 1.0));
+        double mbPerBrowser = Math.max(50, TestConfig.doubleProperty("concurrency.mbPerBrowser", 400));
+        int byCpu = (int) Math.floor(limits.cpus() / cpusPerBrowser);
+        int byMemory = (int) Math.floor(limits.memoryBytes() * MEMORY_HIGH / (mbPerBrowser * 1024 * 1024));
+        int ceiling = Math.max(1, Math.min(byCpu, byMemory));
+        // An explicit -Dparallel.workers caps the ceiling
+        ceiling = Math.min(ceiling, TestConfig.intProperty("parallel.workers", ceiling));
+        AdaptiveConcurrency controller = new AdaptiveConcurrency(limits, Math.max(1, ceiling),
+                TimeUnit.SECONDS.toMillis(Math.max(1, TestConfig.intProperty("concurrency.interval", 5))));
+        controller.log(String.format(Locale.ROOT, "%s; up to %d browser workers (%d by CPU, %d by memory), starting with %d",
+                limits.describe(), controller.ceiling, byCpu, byMemory, controller.limit));
+        RunSummary.addSection("Adaptive concurrency", controller::summary);
+        return controller;
+    }
+
+    /**
+     * Most browser workers the run may use; the size of JUnit's pool.
+     */
+    public int ceiling() {
+        return ceiling;
+    }
+
+    /**
+     * Waits until the calling worker may run a test. A worker held back quits its browser
+     * first. Does nothing unless adaptive concurrency is on.
+     */
+    public static void admit() {
+        if (!enabled() || ADMITTED.get()) {
+            return;
+        }
+        shared().enter();
+        ADMITTED.set(true);
+    }
+
+    /**
+     * Gives the calling worker's slot back after its test.
+     */
+    public static void leave() {
+        if (ADMITTED.get()) {
+            ADMITTED.set(false);
+            shared().exit();
+        }
+    }
+
+    private void enter() {
+        synchronized (this) {
+            startSampler();
+            if (active < limit) {
+                active++;
+                return;
+            }
+        }
+        // Idle browsers held by waiting workers are what the limit is meant to free
+        WorkerBrowser.release();
+        synchronized (this) {
+            waiting++;
+            try {
+                while (active >= limit) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser worker slot", e);
+            } finally {
+                waiting--;
+            }
+            active++;
+        }
+    }
+
+    private synchronized void exit() {
+        active--;
+        notifyAll();
+    }
+
+    private void startSampler() {
+        if (sampler != null) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-concurrency");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastCpuMicros = limits.cpuUsageMicros();
+        lastSampleNanos = System.nanoTime();
+        lastTotals = ActionTimings.totals();
+        sampler.scheduleWithFixedDelay(this::adjustSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void adjustSafely() {
+        try {
+            adjust();
+        } catch (RuntimeException e) {
+            System.err.println("Warning: adaptive concurrency reading failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized void adjust() {
+        long now = System.nanoTime();
+        long cpuMicros = limits.cpuUsageMicros();
+        double elapsedMicros = (now - lastSampleNanos) / 1000.0;
+        double cpu = cpuMicros < 0 || lastCpuMicros < 0 || elapsedMicros <= 0
+                ? -1 : (cpuMicros - lastCpuMicros) / (elapsedMicros * limits.cpus());
+        long used = limits.memoryUsedBytes();
+        double memory = used < 0 ? -1 : (double) used / limits.memoryBytes();
+        double pressure = limits.cpuPressure();
+        lastCpuMicros = cpuMicros;
+        lastSampleNanos = now;
+        double slowdown = slowdown(cpu >= 0 && cpu < CPU_GROW && memory < MEMORY_GROW);
+
+        if (cooldown > 0) {
+            cooldown--;
+            return;
+        }
+        String readings = String.format(Locale.ROOT, "cpu %s, memory %s, cpu pressure %s, step latency %s, %d running, %d waiting",
+                percent(cpu), percent(memory), pressure < 0 ? "n/a" : String.format(Locale.ROOT, "%.0f%%", pressure),
+                Double.isNaN(slowdown) ? "n/a" : String.format(Locale.ROOT, "%.2fx baseline", slowdown), active, waiting);
+        if (memory > MEMORY_HIGH && limit > 1) {
+            // Running out of memory kills browsers, so back off harder than for CPU
+            change(Math.max(1, Math.min(limit * 3 / 4, limit - 1)), "memory high", readings);
+        } else if ((cpu > CPU_HIGH || pressure > PRESSURE_HIGH || slowdown > SLOWDOWN_HIGH) && limit > 1) {
+            change(limit - 1, cpu > CPU_HIGH ? "cpu saturated" : pressure > PRESSURE_HIGH ? "cpu starved" : "steps slowed down",
+                    readings);
+        } else if (waiting > 0 && limit < ceiling && cpu >= 0 && cpu < CPU_GROW && memory < MEMORY_GROW
+                && (pressure < 0 || pressure < PRESSURE_HIGH / 2) && (Double.isNaN(slowdown) || slowdown < SLOWDOWN_GROW)) {
+            change(limit + 1, "headroom", readings);
+        }
+    }
+
+    /**
+     * Count-weighted mean over the actions of the last window of (window mean / baseline mean);
+     * NaN when the window has too few actions. Windows on an idle host update the baseline.
+     */
+    private double slowdown(boolean idleHost) {
+        Map<String, ActionTimings.Total> totals = ActionTimings.totals();
+        double weighted = 0;
+        long counted = 0;
+        for (Map.Entry<String, ActionTimings.Total> entry : totals.entrySet()) {
+            ActionTimings.Total before = lastTotals.getOrDefault(entry.getKey(), new ActionTimings.Total(0, 0));
+            long count = entry.getValue().count() - before.count();
+            if (count <= 0) {
+                continue;
+            }
+            double mean = (double) (entry.getValue().sumMicros() - before.sumMicros()) / count;
+            Double baseline = baselineMicros.get(entry.getKey());
+            if (baseline != null) {
+                weighted += count * mean / baseline;
+                counted += count;
+            }
+            if (idleHost || baseline == null) {
+                long seen = baselineCount.getOrDefault(entry.getKey(), 0L);
+                baselineMicros.put(entry.getKey(), baseline == null ? mean : (baseline * seen + mean * count) / (seen + count));
+                baselineCount.put(entry.getKey(), seen + count);
+            }
+        }
+        lastTotals = totals;
+        return counted < MIN_ACTIONS ? Double.NaN : weighted / counted;
+    }
+
+    private void change(int next, String reason, String readings) {
+        log(String.format(Locale.ROOT, "%s %d -> %d workers (%s): %s", next > limit ? "grow" : "shrink", limit, next,
+                reason, readings));
+        limit = next;
+        lowest = Math.min(lowest, limit);
+        highest = Math.max(highest, limit);
+        cooldown = COOLDOWN;
+        notifyAll();
+    }
+
+    private void log(String message) {
+        String line = LocalTime.now().format(CLOCK) + " " + message;
+        synchronized (decisions) {
+            decisions.add(line);
+        }
+        System.out.println("[concurrency] " + line);
+    }
+
+    private List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        synchronized (this) {
+            lines.add(String.format(Locale.ROOT, "limit now %d, lowest %d, highest %d, ceiling %d", limit, lowest,
+                    highest, ceiling));
+        }
+        synchronized (decisions) {
+            lines.addAll(decisions);
+        }
+        return lines;
+    }
+
+    private static String percent(double share) {
+        return share < 0 ? "n/a" : String.format(Locale.ROOT, "%.0f%%", share * 100);
+    }
+}
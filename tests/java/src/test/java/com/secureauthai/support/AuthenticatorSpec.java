@@ -0,0 +1,37 @@
+package com.secureauthai.support;
+
+/**
+ * Options for the virtual platform authenticator a test attaches through
+ * {@link BiometricAuthenticator}.
+ *
+ * @param userVerification whether the authenticator verifies the user (the fingerprint check)
+ * @param residentKeys     whether it stores discoverable (resident) credentials
+ * @param failing          whether every ceremony is refused, as when the user cancels or the
+ *                         sensor rejects them; the page sees NotAllowedError
+ */
+public record AuthenticatorSpec(boolean userVerification, boolean residentKeys, boolean failing) {
+
+    /**
+     * A platform authenticator with user verification and resident keys that accepts
+     * every ceremony.
+     */
+    public static AuthenticatorSpec defaults() {
+        return new AuthenticatorSpec(true, true, false);
+    }
+
+    public AuthenticatorSpec withoutUserVerification() {
+        return new AuthenticatorSpec(false, residentKeys, failing);
+    }
+
+    public AuthenticatorSpec withoutResidentKeys() {
+        return new AuthenticatorSpec(userVerification, false, failing);
+    }
+
+    public AuthenticatorSpec withFailure() {
+        return new AuthenticatorSpec(userVerification, residentKeys, true);
+    }
+
+    public AuthenticatorSpec withoutFailure() {
+        return new AuthenticatorSpec(userVerification, residentKeys, false);
+    }
+}
@@ -0,0 +1,145 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measured samples of the UI latency benchmark, one series per interaction, summarised as
+ * mean with a 95% confidence interval, standard deviation and percentiles.
+ *
+ * Printed in the run summary and written as JSON with the raw samples, labelled with the
+ * frontend build under test (-Dbenchmark.label), so runs against different releases can be
+ * compared.
+ */
+public final class BenchmarkReport {
+
+    // Two-sided 95% Student t critical values for 1..30 degrees of freedom
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private final String label;
+    private final int warmup;
+    private final Map<String, double[]> series = new LinkedHashMap<>();
+
+    public BenchmarkReport(String label, int warmup) {
+        this.label = label;
+        this.warmup = warmup;
+    }
+
+    public synchronized void add(String interaction, double[] samplesMillis) {
+        series.put(interaction, samplesMillis.clone());
+    }
+
+    /**
+     * The summary as text lines, one per interaction.
+     */
+    public synchronized List<String> table() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("label %s, %d warmup iterations per interaction, times in ms",
+                label.isEmpty() ? "(none)" : label, warmup));
+        lines.add(String.format("%-26s %4s  %8s  %-19s  %7s  %7s  %7s  %7s  %7s  %7s",
+                "interaction", "n", "mean", "95% CI", "stddev", "min", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, double[]> entry : series.entrySet()) {
+            Stats stats = Stats.of(entry.getValue());
+            lines.add(String.format(Locale.ROOT, "%-26s %4d  %8.1f  %-19s  %7.1f  %7.1f  %7.1f  %7.1f  %7.1f  %7.1f",
+                    entry.getKey(), stats.count(), stats.mean(),
+                    String.format(Locale.ROOT, "%.1f..%.1f", stats.ciLow(), stats.ciHigh()),
+                    stats.stddev(), stats.min(), stats.p50(), stats.p90(), stats.p99(), stats.max()));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the summary and the raw samples of every interaction to {@code file}.
+     */
+    public synchronized void writeJson(Path file) {
+        List<Map<String, Object>> interactions = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : series.entrySet()) {
+            Stats stats = Stats.of(entry.getValue());
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("interaction", entry.getKey());
+            row.put("count", stats.count());
+            row.put("mean_ms", stats.mean());
+            row.put("ci95_low_ms", stats.ciLow());
+            row.put("ci95_high_ms", stats.ciHigh());
+            row.put("stddev_ms", stats.stddev());
+            row.put("min_ms", stats.min());
+            row.put("p50_ms", stats.p50());
+            row.put("p90_ms", stats.p90());
+            row.put("p99_ms", stats.p99());
+            row.put("max_ms", stats.max());
+            row.put("samples_ms", entry.getValue());
+            interactions.add(row);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", label);
+        report.put("baseUrl", TestConfig.baseUrl());
+        report.put("browserProfile", System.getProperty("browser.profile", "headful"));
+        report.put("timestamp", Instant.now().toString());
+        report.put("warmup", warmup);
+        report.put("interactions", interactions);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, new Json().toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    /**
+     * Summary statistics of one series of samples. The confidence interval is for the mean,
+     * from Student's t distribution; percentiles are nearest-rank.
+     */
+    public record Stats(int count, double mean, double stddev, double ciLow, double ciHigh,
+                        double min, double p50, double p90, double p99, double max) {
+
+        public static Stats of(double[] samples) {
+            if (samples.length == 0) {
+                throw new IllegalArgumentException("No samples");
+            }
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            int n = sorted.length;
+            double mean = Arrays.stream(sorted).sum() / n;
+            double squares = 0;
+            for (double sample : sorted) {
+                squares += (sample - mean) * (sample - mean);
+            }
+            double stddev = n > 1 ? Math.sqrt(squares / (n - 1)) : 0;
+            double margin = n > 1 ? t95(n - 1) * stddev / Math.sqrt(n) : 0;
+            return new Stats(n, round(mean), round(stddev), round(mean - margin), round(mean + margin),
+                    sorted[0], percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[n - 1]);
+        }
+
+        static double t95(int degreesOfFreedom) {
+            if (degreesOfFreedom <= T_95.length) {
+                return T_95[degreesOfFreedom - 1];
+            }
+            // Within 0.005 of the exact value above 30 degrees of freedom
+            return 1.96 + 2.5 / degreesOfFreedom;
+        }
+
+        private static double percentile(double[] sorted, int p) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.secureauthai.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Known answers for {@link BenchmarkReport.Stats} and its Student t lookup.
+ */
+@DisplayName("Benchmark statistics")
+class BenchmarkReportTest {
+
+    @Test
+    @DisplayName("t critical values come from the table up to 30 degrees of freedom")
+    void tTable() {
+        assertEquals(12.706, BenchmarkReport.Stats.t95(1));
+        assertEquals(2.228, BenchmarkReport.Stats.t95(10));
+        assertEquals(2.042, BenchmarkReport.Stats.t95(30));
+    }
+
+    @Test
+    @DisplayName("t critical values above the table stay within 0.005 of the exact value")
+    void tApproximation() {
+        assertEquals(2.000, BenchmarkReport.Stats.t95(60), 0.005);
+        assertEquals(1.980, BenchmarkReport.Stats.t95(120), 0.005);
+        assertEquals(1.960, BenchmarkReport.Stats.t95(100_000), 0.005);
+    }
+
+    @Test
+    @DisplayName("Mean, confidence interval and nearest-rank percentiles")
+    void stats() {
+        // Sample standard deviation sqrt(32 / 7) = 2.138; margin 2.365 * 2.138 / sqrt(8) = 1.788
+        BenchmarkReport.Stats stats = BenchmarkReport.Stats.of(new double[] {9, 4, 2, 5, 4, 7, 4, 5});
+        assertEquals(8, stats.count());
+        assertEquals(5.0, stats.mean());
+        assertEquals(2.14, stats.stddev());
+        assertEquals(3.21, stats.ciLow());
+        assertEquals(6.79, stats.ciHigh());
+        assertEquals(2, stats.min());
+        assertEquals(4, stats.p50());
+        assertEquals(9, stats.p90());
+        assertEquals(9, stats.p99());
+        assertEquals(9, stats.max());
+    }
+
+    @Test
+    @DisplayName("A single sample has no spread")
+    void singleSample() {
+        BenchmarkReport.Stats stats = BenchmarkReport.Stats.of(new double[] {42});
+        assertEquals(0, stats.stddev());
+        assertEquals(42, stats.ciLow());
+        assertEquals(42, stats.ciHigh());
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkReport.Stats.of(new double[0]));
+    }
+}
@@ -0,0 +1,154 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.virtualauthenticator.Credential;
+import org.openqa.selenium.virtualauthenticator.HasVirtualAuthenticator;
+import org.openqa.selenium.virtualauthenticator.VirtualAuthenticator;
+import org.openqa.selenium.virtualauthenticator.VirtualAuthenticatorOptions;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Chrome's virtual WebAuthn authenticator in place of the scripted WebAuthn mocks.
+ *
+ * While attached, the app runs the real registration and authentication ceremonies through
+ * navigator.credentials against a virtual platform authenticator, with no artificial
+ * delays. {@link #enroll(PooledUser)} gives a seeded account a credential the authenticator
+ * actually holds, and {@link #setFailing(boolean)} makes every ceremony fail with
+ * NotAllowedError, so failure and lockout scenarios are deterministic.
+ *
+ * Camera and face capture stay on the mocks controlled by {@link BrowserMocks}.
+ * Detach before the browser is reused; BaseTest does this after every test.
+ */
+public final class BiometricAuthenticator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final WebDriver driver;
+    private final BrowserMocks mocks;
+    private final SeedClient seedClient;
+    private final String rpId;
+    private AuthenticatorSpec spec;
+    private VirtualAuthenticator authenticator;
+
+    private BiometricAuthenticator(WebDriver driver, BrowserMocks mocks, SeedClient seedClient,
+                                   String rpId, AuthenticatorSpec spec) {
+        this.driver = driver;
+        this.mocks = mocks;
+        this.seedClient = seedClient;
+        this.rpId = rpId;
+        this.spec = spec;
+    }
+
+    /**
+     * Adds a virtual authenticator described by {@code spec} to {@code driver} and switches
+     * the current page to native WebAuthn. The page must already be on the app's origin.
+     */
+    public static BiometricAuthenticator attach(WebDriver driver, String baseUrl, BrowserMocks mocks,
+                                                SeedClient seedClient, AuthenticatorSpec spec) {
+        if (!(driver instanceof HasVirtualAuthenticator)) {
+            throw new IllegalStateException("Driver has no virtual authenticator support: "
+                    + driver.getClass().getName());
+        }
+        BiometricAuthenticator device = new BiometricAuthenticator(driver, mocks, seedClient,
+                URI.create(baseUrl).getHost(), spec);
+        device.authenticator = device.add(spec);
+        mocks.useNativeWebAuthn(true);
+        return device;
+    }
+
+    /**
+     * Creates a credential for {@code user} inside the authenticator and makes it the
+     * account's only biometric credential in the database, so the next authentication is a
+     * real round trip that succeeds (unless the authenticator is failing).
+     */
+    public void enroll(PooledUser user) {
+        byte[] id = new byte[16];
+        RANDOM.nextBytes(id);
+        PKCS8EncodedKeySpec privateKey = newPrivateKey();
+        Credential credential = spec.residentKeys()
+                ? Credential.createResidentCredential(id, rpId, privateKey,
+                        user.id().getBytes(StandardCharsets.UTF_8), 0)
+                : Credential.createNonResidentCredential(id, rpId, privateKey, 0);
+        authenticator.addCredential(credential);
+        seedClient.replaceBiometricCredential(user.id(), Base64.getUrlEncoder().withoutPadding().encodeToString(id));
+    }
+
+    /**
+     * Starts or stops refusing every ceremony. The authenticator is replaced (consent is
+     * fixed at creation), keeping the credentials it holds.
+     */
+    public void setFailing(boolean failing) {
+        if (failing == spec.failing()) {
+            return;
+        }
+        List<Credential> credentials = authenticator.getCredentials();
+        ((HasVirtualAuthenticator) driver).removeVirtualAuthenticator(authenticator);
+        spec = failing ? spec.withFailure() : spec.withoutFailure();
+        authenticator = add(spec);
+        for (Credential credential : credentials) {
+            authenticator.addCredential(credential);
+        }
+    }
+
+    /**
+     * Whether the next user verification passes; only meaningful with user verification on.
+     */
+    public void setUserVerified(boolean verified) {
+        authenticator.setUserVerified(verified);
+    }
+
+    /**
+     * Credentials the authenticator currently holds, including those registered through the UI.
+     */
+    public List<Credential> credentials() {
+        return authenticator.getCredentials();
+    }
+
+    public AuthenticatorSpec spec() {
+        return spec;
+    }
+
+    /**
+     * Removes the authenticator and returns the page to the WebAuthn mocks.
+     */
+    public void detach() {
+        ((HasVirtualAuthenticator) driver).removeVirtualAuthenticator(authenticator);
+        try {
+            mocks.useNativeWebAuthn(false);
+        } catch (Exception e) {
+            // The browser reset clears the setting with sessionStorage anyway
+            System.err.println("Warning: could not switch page back to WebAuthn mocks: " + e.getMessage());
+        }
+    }
+
+    private VirtualAuthenticator add(AuthenticatorSpec options) {
+        return ((HasVirtualAuthenticator) driver).addVirtualAuthenticator(new VirtualAuthenticatorOptions()
+                .setProtocol(VirtualAuthenticatorOptions.Protocol.CTAP2)
+                .setTransport(VirtualAuthenticatorOptions.Transport.INTERNAL)
+                .setHasResidentKey(options.residentKeys())
+                .setHasUserVerification(options.userVerification())
+                .setIsUserVerified(options.userVerification())
+                .setIsUserConsenting(!options.failing()));
+    }
+
+    private static PKCS8EncodedKeySpec newPrivateKey() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            return new PKCS8EncodedKeySpec(pair.getPrivate().getEncoded());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not create a P-256 key for the virtual authenticator", e);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm Chrome instances kept alive between Maven runs, for the edit-and-rerun loop of local
+ * development.
+ *
+ * The daemon ({@link #main}, "browser-daemon" Maven profile) launches browser.daemon.size
+ * browsers through chromedriver, registers the test bootstrap in each, and publishes their
+ * chromedriver URL and session in a registry file under browser.daemon.dir. A test JVM then
+ * leases a free browser with a file lock, attaches to its session ({@link DaemonDriver}) and
+ * resets it, instead of resolving chromedriver and starting Chrome; quitting it only gives the
+ * lease back. With no daemon, a different browser profile, or every browser leased, tests
+ * launch their own browser as usual. -Dbrowser.daemon=off ignores a running daemon.
+ *
+ * The daemon checks its idle browsers every few seconds, relaunches any that died, and stops
+ * after browser.daemon.idleMinutes without a lease.
+ */
+public final class BrowserDaemon {
+
+    private static final boolean ATTACH = !"off".equalsIgnoreCase(System.getProperty("browser.daemon", "auto").trim());
+    private static final Path DIRECTORY = directory();
+    private static final Path REGISTRY = DIRECTORY.resolve("registry.json");
+    private static final long CHECK_MILLIS = TimeUnit.SECONDS.toMillis(15);
+    private static final Json JSON = new Json();
+    private static final LongSummaryStatistics ATTACH_TIMES = new LongSummaryStatistics();
+
+    private final List<Slot> slots = new ArrayList<>();
+    // Held for the daemon's life, so a second daemon on the same directory refuses to start
+    private final FileChannel running;
+
+    private BrowserDaemon(FileChannel running) {
+        this.running = running;
+    }
+
+    /**
+     * Whether a daemon with browsers of this run's profile is running.
+     */
+    public static boolean available() {
+        return registry() != null;
+    }
+
+    /**
+     * A warm browser from the daemon, reset for {@code baseUrl}; null if there is no daemon
+     * or all its browsers are leased.
+     */
+    @SuppressWarnings("unchecked")
+    public static WebDriver lease(String baseUrl) {
+        Map<String, Object> registry = registry();
+        if (registry == null) {
+            return null;
+        }
+        for (Map<String, Object> slot : (List<Map<String, Object>>) registry.get("slots")) {
+            int index = ((Number) slot.get("index")).intValue();
+            FileChannel lock = tryLock(index);
+            if (lock == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            WebDriver driver = null;
+            try {
+                driver = DaemonDriver.attach(new URL((String) slot.get("url")), (String) slot.get("sessionId"),
+                        (Map<String, Object>) slot.get("capabilities"), () -> close(lock));
+                BrowserStateReset.reset(driver, baseUrl);
+                // Tells the daemon it is in use, even when the lease ends before its next check
+                Files.setLastModifiedTime(lockFile(index), FileTime.fromMillis(System.currentTimeMillis()));
+                recordAttach(index, (System.nanoTime() - start) / 1_000_000);
+                return driver;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: could not attach to daemon browser " + index + ": " + e.getMessage());
+                if (driver != null) {
+                    driver.quit();
+                } else {
+                    close(lock);
+                }
+            }
+        }
+        System.out.println("All daemon browsers are leased; launching a fresh browser");
+        return null;
+    }
+
+    /**
+     * Starts the daemon and keeps it running until it is idle for browser.daemon.idleMinutes
+     * or the process is stopped.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int size = Math.max(1, TestConfig.intProperty("browser.daemon.size", 2));
+        long idleMillis = TimeUnit.MINUTES.toMillis(Math.max(1, TestConfig.intProperty("browser.daemon.idleMinutes", 120)));
+        Files.createDirectories(DIRECTORY);
+        FileChannel running = FileChannel.open(DIRECTORY.resolve("daemon.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        if (running.tryLock() == null) {
+            System.err.println("A browser daemon is already running for " + DIRECTORY);
+            System.exit(1);
+        }
+        DriverFactory.resolveDriverBinary();
+        BrowserDaemon daemon = new BrowserDaemon(running);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::shutdown, "browser-daemon-shutdown"));
+        for (int index = 1; index <= size; index++) {
+            daemon.slots.add(launch(index));
+        }
+        daemon.writeRegistry();
+        System.out.println("Browser daemon: " + size + " warm " + DriverFactory.profile().name().toLowerCase(Locale.ROOT)
+                + " browser(s), registry " + REGISTRY + "; stops after " + TimeUnit.MILLISECONDS.toMinutes(idleMillis)
+                + " idle minutes or Ctrl+C");
+
+        long started = System.currentTimeMillis();
+        while (System.currentTimeMillis() - Math.max(started, daemon.lastLease()) < idleMillis) {
+            Thread.sleep(CHECK_MILLIS);
+            daemon.check();
+        }
+        System.out.println("Browser daemon idle, stopping");
+        System.exit(0);
+    }
+
+    /**
+     * Relaunches idle browsers that stopped responding.
+     */
+    private synchronized void check() throws IOException {
+        boolean relaunched = false;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            FileChannel lock = tryLock(slot.index());
+            if (lock == null) {
+                continue;
+            }
+            try {
+                slot.driver().getWindowHandle();
+            } catch (RuntimeException e) {
+                System.out.println("Daemon browser " + slot.index() + " stopped responding, relaunching: " + e.getMessage());
+                quit(slot);
+                try {
+                    slots.set(i, launch(slot.index()));
+                    relaunched = true;
+                } catch (RuntimeException launchFailure) {
+                    System.err.println("Warning: could not relaunch daemon browser " + slot.index() + ": "
+                            + launchFailure.getMessage());
+                }
+            } finally {
+                close(lock);
+            }
+        }
+        if (relaunched) {
+            writeRegistry();
+        }
+    }
+
+    // Latest lease of any browser: now while one is leased, else the last time a test marked one
+    private synchronized long lastLease() throws IOException {
+        long last = 0;
+        for (Slot slot : slots) {
+            FileChannel lock = tryLock(slot.index());
+            if (lock == null) {
+                return System.currentTimeMillis();
+            }
+            close(lock);
+            last = Math.max(last, Files.getLastModifiedTime(lockFile(slot.index())).toMillis());
+        }
+        return last;
+    }
+
+    private static Slot launch(int index) {
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        WebDriver driver = DriverFactory.createChromeDriver(service);
+        // Registered through chromedriver, so it stays with the browser across leases
+        TestBootstrap.install(driver);
+        return new Slot(index, service.getUrl().toString(), ((RemoteWebDriver) driver).getSessionId().toString(),
+                ((HasCapabilities) driver).getCapabilities().asMap(), driver);
+    }
+
+    private synchronized void writeRegistry() throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Slot slot : slots) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("index", slot.index());
+            entry.put("url", slot.url());
+            entry.put("sessionId", slot.sessionId());
+            entry.put("capabilities", slot.capabilities());
+            entries.add(entry);
+        }
+        Map<String, Object> registry = new LinkedHashMap<>();
+        registry.put("pid", ProcessHandle.current().pid());
+        registry.put("profile", DriverFactory.profile().name());
+        registry.put("slots", entries);
+        // Readers never see a half-written file
+        Path temp = DIRECTORY.resolve("registry.json.tmp");
+        Files.writeString(temp, JSON.toJson(registry), StandardCharsets.UTF_8);
+        Files.move(temp, REGISTRY, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized void shutdown() {
+        try {
+            Files.deleteIfExists(REGISTRY);
+        } catch (IOException e) {
+            System.err.println("Warning: could not remove " + REGISTRY + ": " + e.getMessage());
+        }
+        slots.forEach(BrowserDaemon::quit);
+        close(running);
+    }
+
+    private static void quit(Slot slot) {
+        try {
+            slot.driver().quit();
+        } catch (RuntimeException e) {
+            System.err.println("Warning: could not quit daemon browser " + slot.index() + ": " + e.getMessage());
+        }
+    }
+
+    // The registry of a live daemon with this run's browser profile; null otherwise
+    private static Map<String, Object> registry() {
+        if (!ATTACH || !Files.isReadable(REGISTRY)) {
+            return null;
+        }
+        try {
+            Map<String, Object> registry = JSON.toType(Files.readString(REGISTRY, StandardCharsets.UTF_8), Json.MAP_TYPE);
+            long pid = ((Number) registry.get("pid")).longValue();
+            boolean alive = ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+            return alive && DriverFactory.profile().name().equals(registry.get("profile")) ? registry : null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: ignoring unreadable browser daemon registry " + REGISTRY + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // The lease of browser {@code index}, held until the channel is closed; null if taken
+    private static FileChannel tryLock(int index) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile(index), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return channel;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Leased by another thread of this JVM
+        } catch (IOException e) {
+            System.err.println("Warning: could not lock daemon browser " + index + ": " + e.getMessage());
+        }
+        close(channel);
+        return null;
+    }
+
+    private static Path lockFile(int index) {
+        return DIRECTORY.resolve("slot-" + index + ".lock");
+    }
+
+    private static void close(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Warning: could not release daemon browser lease: " + e.getMessage());
+        }
+    }
+
+    private static void recordAttach(int index, long millis) {
+        synchronized (ATTACH_TIMES) {
+            if (ATTACH_TIMES.getCount() == 0) {
+                RunSummary.addSection("Browser daemon", BrowserDaemon::attachReport);
+            }
+            ATTACH_TIMES.accept(millis);
+        }
+        System.out.println("Browser attached from daemon (slot " + index + ") in " + millis + " ms");
+    }
+
+    private static List<String> attachReport() {
+        synchronized (ATTACH_TIMES) {
+            return List.of(ATTACH_TIMES.getCount() + " lease(s) of warm browsers, avg "
+                    + Math.round(ATTACH_TIMES.getAverage()) + " ms, max " + ATTACH_TIMES.getMax() + " ms");
+        }
+    }
+
+    private static Path directory() {
+        String configured = System.getProperty("browser.daemon.dir", "");
+        return configured.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".cache", "bioauth-tests", "browser-daemon")
+                : Path.of(configured.trim());
+    }
+
+    private record Slot(int index, String url, String sessionId, Map<String, Object> capabilities, WebDriver driver) {
+    }
+}
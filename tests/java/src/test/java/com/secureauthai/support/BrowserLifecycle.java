@@ -0,0 +1,28 @@
+package com.secureauthai.support;
+
+import java.util.Locale;
+
+/**
+ * How long a worker keeps its Chrome instance (-Dbrowser.lifecycle).
+ */
+public enum BrowserLifecycle {
+    /** Quit and relaunch Chrome around every test (the original behaviour). */
+    PER_TEST,
+    /** Reuse Chrome while the worker runs tests of the same class; relaunch on class change. */
+    PER_CLASS,
+    /** Keep one Chrome per worker for the whole run. */
+    PER_WORKER;
+
+    public static BrowserLifecycle fromProperty() {
+        String value = System.getProperty("browser.lifecycle");
+        if (value == null || value.trim().isEmpty()) {
+            return PER_TEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: unknown browser.lifecycle=" + value + ", using per-test");
+            return PER_TEST;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Switches the biometric mocks of one browser between {@link MockMode}s without a reload.
+ *
+ * The change takes effect on the next ceremony in the current page and is kept in
+ * sessionStorage, so it also holds after a refresh of the same tab. The reset between
+ * tests clears sessionStorage, so every test starts in {@link MockMode#SUCCESS}.
+ */
+public final class BrowserMocks {
+
+    private static final String APPLY = "if (!window.__testMocks) { return false; }"
+            + " window.__testMocks.set(arguments[0]); return true;";
+
+    private final WebDriver driver;
+
+    public BrowserMocks(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public void set(MockMode mode) {
+        apply(Map.of("mode", mode.scriptValue()));
+    }
+
+    /**
+     * Sets {@code mode} with {@code delay} as the time a successful or failing ceremony
+     * takes ({@link MockMode#SLOW} uses it as its slow delay).
+     */
+    public void set(MockMode mode, Duration delay) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("mode", mode.scriptValue());
+        changes.put(mode == MockMode.SLOW ? "slowDelayMs" : "delayMs", delay.toMillis());
+        apply(changes);
+    }
+
+    /**
+     * Back to {@link MockMode#SUCCESS} with the default delays. Does not change the
+     * WebAuthn backend.
+     */
+    public void reset() {
+        ((JavascriptExecutor) driver).executeScript("if (window.__testMocks) { window.__testMocks.reset(); }");
+    }
+
+    /**
+     * Hands WebAuthn ceremonies to the browser's own API (a virtual authenticator attached
+     * by {@link BiometricAuthenticator}) instead of the mocks, or back.
+     */
+    public void useNativeWebAuthn(boolean enabled) {
+        apply(Map.of("webauthn", enabled ? "native" : "mock"));
+    }
+
+    private void apply(Map<String, Object> changes) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        if (!Boolean.TRUE.equals(js.executeScript(APPLY, changes))) {
+            // Document loaded without the registered bootstrap (no CDP); install it here
+            TestBootstrap.runInPage(driver);
+            js.executeScript(APPLY, changes);
+        }
+    }
+}
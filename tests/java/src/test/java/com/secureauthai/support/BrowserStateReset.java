@@ -0,0 +1,66 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Returns a reused browser to a clean state between tests.
+ *
+ * Covers everything a test can leave behind in Chrome: the app's in-memory React state
+ * (including biometric lockout counters, dropped by unloading the page), localStorage
+ * (the auth_session key written by auth-service.ts), sessionStorage, cookies,
+ * IndexedDB, cache storage, service workers, granted permissions and extra windows; and
+ * what goes through chromedriver's own DevTools session and so outlives the test's driver:
+ * network emulation and virtual authenticators.
+ */
+public final class BrowserStateReset {
+
+    private BrowserStateReset() {
+    }
+
+    public static void reset(WebDriver driver, String baseUrl) {
+        String origin = originOf(baseUrl);
+        closeExtraWindows(driver);
+
+        // sessionStorage is per-tab and survives Storage.clearDataForOrigin, so clear it in-page
+        if (driver.getCurrentUrl().startsWith(origin)) {
+            try {
+                ((JavascriptExecutor) driver).executeScript("localStorage.clear(); sessionStorage.clear();");
+            } catch (Exception e) {
+                System.err.println("Warning: could not clear web storage in page: " + e.getMessage());
+            }
+        }
+        // Unload the app so no component state or timers carry over
+        driver.get("about:blank");
+
+        Cdp.execute(driver, "Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+        Cdp.execute(driver, "Network.clearBrowserCookies");
+        Cdp.execute(driver, "Browser.resetPermissions");
+        Cdp.execute(driver, "Network.emulateNetworkConditions",
+                Map.of("offline", false, "latency", 0, "downloadThroughput", -1, "uploadThroughput", -1));
+        try {
+            Cdp.execute(driver, "WebAuthn.disable");
+        } catch (RuntimeException e) {
+            System.err.println("Warning: could not remove virtual authenticators: " + e.getMessage());
+        }
+    }
+
+    static String originOf(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        String origin = uri.getScheme() + "://" + uri.getHost();
+        return uri.getPort() == -1 ? origin : origin + ":" + uri.getPort();
+    }
+
+    private static void closeExtraWindows(WebDriver driver) {
+        String keep = driver.getWindowHandles().iterator().next();
+        for (String handle : driver.getWindowHandles()) {
+            if (!handle.equals(keep)) {
+                driver.switchTo().window(handle).close();
+            }
+        }
+        driver.switchTo().window(keep);
+    }
+}
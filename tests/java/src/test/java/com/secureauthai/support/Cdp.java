@@ -0,0 +1,33 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Map;
+
+/**
+ * Thin wrapper over the Chrome DevTools Protocol commands exposed by ChromeDriver.
+ *
+ * Goes through chromedriver's version-independent CDP endpoint, so it keeps working
+ * when the installed Chrome is newer than the selenium-devtools modules on the classpath.
+ */
+public final class Cdp {
+
+    private Cdp() {
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasCdp;
+    }
+
+    public static Map<String, Object> execute(WebDriver driver, String command) {
+        return execute(driver, command, Map.of());
+    }
+
+    public static Map<String, Object> execute(WebDriver driver, String command, Map<String, Object> params) {
+        if (!(driver instanceof HasCdp)) {
+            throw new IllegalStateException("Driver does not support CDP: " + driver.getClass().getName());
+        }
+        return ((HasCdp) driver).executeCdpCommand(command, params);
+    }
+}
@@ -0,0 +1,62 @@
+package com.secureauthai.support;
+
+import java.util.regex.Pattern;
+
+/**
+ * Network requests the login page makes during a biometric or face ceremony, as URL
+ * patterns for {@link NetworkFault}. auth-service.ts talks to Supabase REST directly, so
+ * most steps are table requests; the standalone BiometricAuth component uses the
+ * WebAuthn API server instead.
+ */
+public enum CeremonyStep {
+    /** Looking the account up by username before any ceremony. */
+    USER_LOOKUP("*/rest/v1/users?*", "GET"),
+    /** Storing the challenge while building registration or authentication options. */
+    CHALLENGE("*/rest/v1/webauthn_challenges*", "POST"),
+    /** Loading the stored challenge, the first request of verification. */
+    VERIFY("*/rest/v1/webauthn_challenges?*", "GET"),
+    /** Saving a newly registered biometric credential. */
+    CREDENTIAL_STORE("*/rest/v1/biometric_credentials*", "POST"),
+    /** Creating the session row after a successful authentication. */
+    SESSION("*/rest/v1/authentication_sessions*", "POST"),
+    /** Any request for face credentials: registration, options and verification. */
+    FACE("*/rest/v1/face_credentials*", null),
+    /** Any call to the WebAuthn API server. */
+    WEBAUTHN_API("*/api/webauthn/*", null);
+
+    private final String urlPattern;
+    private final String method;
+    private final Pattern url;
+
+    CeremonyStep(String urlPattern, String method) {
+        this.urlPattern = urlPattern;
+        this.method = method;
+        this.url = NetworkFaults.glob(urlPattern);
+    }
+
+    /**
+     * The step a request belongs to, or null if it is not part of a ceremony.
+     */
+    public static CeremonyStep of(String requestUrl, String requestMethod) {
+        for (CeremonyStep step : values()) {
+            if (step.matches(requestUrl, requestMethod)) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    public boolean matches(String requestUrl, String requestMethod) {
+        return (method == null || method.equalsIgnoreCase(requestMethod)) && url.matcher(requestUrl).matches();
+    }
+
+    /** Glob over the full request URL; {@code *} matches any run of characters. */
+    public String urlPattern() {
+        return urlPattern;
+    }
+
+    /** HTTP method the step uses, or null for any. */
+    public String method() {
+        return method;
+    }
+}
@@ -0,0 +1,52 @@
+package com.secureauthai.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Known answers for the URL globs of {@link CeremonyStep} and {@link NetworkFaults}.
+ */
+@DisplayName("Ceremony step URL globs")
+class CeremonyStepTest {
+
+    private static final String SUPABASE = "https://project.supabase.co/rest/v1/";
+
+    @Test
+    @DisplayName("* matches any run of characters, ? exactly one, everything else literally")
+    void glob() {
+        assertTrue(NetworkFaults.glob("*/users?*").matcher("https://x/users?id=1").matches());
+        assertTrue(NetworkFaults.glob("a?c").matcher("abc").matches());
+        assertFalse(NetworkFaults.glob("a?c").matcher("ac").matches());
+        // Regex characters in the pattern are literal
+        assertTrue(NetworkFaults.glob("a.b+(c)").matcher("a.b+(c)").matches());
+        assertFalse(NetworkFaults.glob("a.b").matcher("axb").matches());
+        assertTrue(NetworkFaults.glob("*").matcher("").matches());
+    }
+
+    @Test
+    @DisplayName("Requests map to their ceremony step by URL and method")
+    void steps() {
+        assertEquals(CeremonyStep.USER_LOOKUP, CeremonyStep.of(SUPABASE + "users?select=*&username=eq.alice", "GET"));
+        assertEquals(CeremonyStep.CHALLENGE, CeremonyStep.of(SUPABASE + "webauthn_challenges", "POST"));
+        assertEquals(CeremonyStep.VERIFY, CeremonyStep.of(SUPABASE + "webauthn_challenges?challenge=eq.x", "GET"));
+        assertEquals(CeremonyStep.CREDENTIAL_STORE, CeremonyStep.of(SUPABASE + "biometric_credentials", "post"));
+        assertEquals(CeremonyStep.SESSION, CeremonyStep.of(SUPABASE + "authentication_sessions?select=*", "POST"));
+        assertEquals(CeremonyStep.FACE, CeremonyStep.of(SUPABASE + "face_credentials?user_id=eq.1", "DELETE"));
+        assertEquals(CeremonyStep.WEBAUTHN_API, CeremonyStep.of("http://localhost:3001/api/webauthn/verify", "POST"));
+    }
+
+    @Test
+    @DisplayName("Other requests belong to no step")
+    void noStep() {
+        // The lookup pattern needs a query string; a wrong method does not match either
+        assertNull(CeremonyStep.of(SUPABASE + "users", "GET"));
+        assertNull(CeremonyStep.of(SUPABASE + "users?select=*", "PATCH"));
+        assertNull(CeremonyStep.of(SUPABASE + "biometric_credentials?user_id=eq.1", "GET"));
+        assertNull(CeremonyStep.of("http://localhost:5173/src/main.tsx", "GET"));
+    }
+}
@@ -0,0 +1,200 @@
+package com.secureauthai.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CPU and memory of the cgroup the run lives in (the container on CI), or of the host when
+ * there is no limit. Chrome and chromedriver are child processes, so they count against the
+ * same cgroup as the JVM.
+ *
+ * Reads cgroup v2 files (cpu.max, cpu.stat, memory.max, memory.current) and falls back to
+ * cgroup v1 (cpu.cfs_quota_us, cpuacct.usage, memory.limit_in_bytes) and then /proc.
+ */
+public final class ContainerLimits {
+
+    private static final Path CGROUP = Path.of("/sys/fs/cgroup");
+    // cgroup v1 reports "no limit" as a page-rounded Long.MAX_VALUE
+    private static final long UNLIMITED = Long.MAX_VALUE / 2;
+
+    private final double cpus;
+    private final long memoryBytes;
+    private final boolean cpuLimited;
+    private final boolean memoryLimited;
+
+    private ContainerLimits(double cpus, boolean cpuLimited, long memoryBytes, boolean memoryLimited) {
+        this.cpus = cpus;
+        this.cpuLimited = cpuLimited;
+        this.memoryBytes = memoryBytes;
+        this.memoryLimited = memoryLimited;
+    }
+
+    /**
+     * Reads the limits once; they do not change during a run.
+     */
+    public static ContainerLimits read() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        double quota = cpuQuota();
+        long memory = memoryLimit();
+        boolean memoryLimited = memory > 0 && memory < UNLIMITED;
+        return new ContainerLimits(quota > 0 ? Math.min(quota, processors) : processors, quota > 0,
+                memoryLimited ? memory : hostMemory(), memoryLimited);
+    }
+
+    public double cpus() {
+        return cpus;
+    }
+
+    public long memoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Memory in use now, page cache that the kernel can drop left out; -1 if unknown.
+     */
+    public long memoryUsedBytes() {
+        if (memoryLimited) {
+            long current = number(CGROUP.resolve("memory.current"));
+            if (current >= 0) {
+                return current - Math.max(0, statValue(CGROUP.resolve("memory.stat"), "inactive_file"));
+            }
+            long usage = number(CGROUP.resolve("memory/memory.usage_in_bytes"));
+            if (usage >= 0) {
+                return usage - Math.max(0, statValue(CGROUP.resolve("memory/memory.stat"), "total_inactive_file"));
+            }
+        }
+        long total = meminfo("MemTotal");
+        long available = meminfo("MemAvailable");
+        return total < 0 || available < 0 ? -1 : total - available;
+    }
+
+    /**
+     * CPU time used by the cgroup since some fixed point, in microseconds; the host's busy
+     * time when there is no cgroup accounting; -1 if unknown.
+     */
+    public long cpuUsageMicros() {
+        long usage = statValue(CGROUP.resolve("cpu.stat"), "usage_usec");
+        if (usage >= 0) {
+            return usage;
+        }
+        long nanos = number(CGROUP.resolve("cpuacct/cpuacct.usage"));
+        if (nanos >= 0) {
+            return nanos / 1000;
+        }
+        return hostBusyMicros();
+    }
+
+    /**
+     * Share of the last 10 seconds in which some runnable task waited for a CPU (PSI "some
+     * avg10"), in percent; -1 if the kernel does not report pressure.
+     */
+    public double cpuPressure() {
+        for (Path file : List.of(CGROUP.resolve("cpu.pressure"), Path.of("/proc/pressure/cpu"))) {
+            for (String line : lines(file)) {
+                if (line.startsWith("some ")) {
+                    for (String field : line.split("\\s+")) {
+                        if (field.startsWith("avg10=")) {
+                            return Double.parseDouble(field.substring("avg10=".length()));
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    public String describe() {
+        return String.format(Locale.ROOT, "%.1f CPUs (%s), %.1f GB memory (%s)", cpus,
+                cpuLimited ? "cgroup quota" : "host", memoryBytes / 1e9, memoryLimited ? "cgroup limit" : "host");
+    }
+
+    // CPUs granted by the cgroup quota; -1 when there is none
+    private static double cpuQuota() {
+        List<String> max = lines(CGROUP.resolve("cpu.max"));
+        if (!max.isEmpty()) {
+            String[] fields = max.get(0).trim().split("\\s+");
+            if (fields[0].equals("max") || fields.length < 2) {
+                return -1;
+            }
+            return Double.parseDouble(fields[0]) / Double.parseDouble(fields[1]);
+        }
+        long quota = number(CGROUP.resolve("cpu/cpu.cfs_quota_us"));
+        long period = number(CGROUP.resolve("cpu/cpu.cfs_period_us"));
+        return quota > 0 && period > 0 ? (double) quota / period : -1;
+    }
+
+    private static long memoryLimit() {
+        List<String> max = lines(CGROUP.resolve("memory.max"));
+        if (!max.isEmpty()) {
+            return max.get(0).trim().equals("max") ? -1 : Long.parseLong(max.get(0).trim());
+        }
+        return number(CGROUP.resolve("memory/memory.limit_in_bytes"));
+    }
+
+    private static long hostMemory() {
+        long total = meminfo("MemTotal");
+        return total > 0 ? total : Runtime.getRuntime().maxMemory();
+    }
+
+    // Non-idle time of all CPUs from /proc/stat, in microseconds (USER_HZ is 100 on Linux)
+    private static long hostBusyMicros() {
+        for (String line : lines(Path.of("/proc/stat"))) {
+            if (line.startsWith("cpu ")) {
+                String[] fields = line.trim().split("\\s+");
+                long busy = 0;
+                for (int i = 1; i < fields.length; i++) {
+                    // idle and iowait are fields 4 and 5
+                    if (i != 4 && i != 5) {
+                        busy += Long.parseLong(fields[i]);
+                    }
+                }
+                return busy * 10_000;
+            }
+        }
+        return -1;
+    }
+
+    // A value from /proc/meminfo in bytes; -1 if missing
+    private static long meminfo(String key) {
+        for (String line : lines(Path.of("/proc/meminfo"))) {
+            if (line.startsWith(key + ":")) {
+                return Long.parseLong(line.substring(key.length() + 1).replace("kB", "").trim()) * 1024;
+            }
+        }
+        return -1;
+    }
+
+    // "key value" line of a cgroup stat file; 0 if the key is missing, -1 if the file is
+    private static long statValue(Path file, String key) {
+        List<String> lines = lines(file);
+        if (lines.isEmpty()) {
+            return -1;
+        }
+        for (String line : lines) {
+            if (line.startsWith(key + " ")) {
+                return Long.parseLong(line.substring(key.length() + 1).trim());
+            }
+        }
+        return 0;
+    }
+
+    private static long number(Path file) {
+        List<String> lines = lines(file);
+        try {
+            return lines.isEmpty() ? -1 : Long.parseLong(lines.get(0).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<String> lines(Path file) {
+        try {
+            return Files.isReadable(file) ? Files.readAllLines(file) : List.of();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.secureauthai.support;
+
+import com.secureauthai.jfr.HarnessEvents;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.chrome.AddHasCdp;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandCodec;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.Dialect;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.ResponseCodec;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * A Chrome session owned by the {@link BrowserDaemon}, used from a test JVM.
+ *
+ * Talks to the daemon's chromedriver with the session id it already has instead of starting a
+ * new session, and opens its own DevTools connection to the same Chrome. {@link #quit()} only
+ * detaches: Chrome and chromedriver stay up for the next lease, and {@code onDetach} gives the
+ * lease back.
+ */
+final class DaemonDriver extends ChromiumDriver {
+
+    private DaemonDriver(AttachingExecutor executor, Capabilities capabilities) {
+        super(executor, capabilities, ChromeOptions.CAPABILITY);
+        cdp = new AddHasCdp().getImplementation(getCapabilities(), getExecuteMethod());
+    }
+
+    /**
+     * Attaches to session {@code sessionId} of the chromedriver at {@code url}, which reported
+     * {@code capabilities} when the daemon created it.
+     */
+    static DaemonDriver attach(URL url, String sessionId, Map<String, Object> capabilities, Runnable onDetach) {
+        HttpClient client = HttpClient.Factory.createDefault()
+                .createClient(ClientConfig.defaultConfig().baseUrl(url).withFilter(HarnessEvents.commandFilter()));
+        return new DaemonDriver(new AttachingExecutor(client, sessionId, capabilities, onDetach),
+                new ImmutableCapabilities(capabilities));
+    }
+
+    /**
+     * Answers new-session and quit itself; everything else goes to the daemon's chromedriver
+     * over W3C WebDriver, plus chromedriver's CDP endpoint. (Selenium's HttpCommandExecutor
+     * only learns its protocol from a new-session handshake, so it cannot join a session.)
+     */
+    private static final class AttachingExecutor implements CommandExecutor {
+
+        private final HttpClient client;
+        private final String sessionId;
+        private final Map<String, Object> capabilities;
+        private final Runnable onDetach;
+        private final CommandCodec<HttpRequest> commands = Dialect.W3C.getCommandCodec();
+        private final ResponseCodec<HttpResponse> responses = Dialect.W3C.getResponseCodec();
+
+        AttachingExecutor(HttpClient client, String sessionId, Map<String, Object> capabilities, Runnable onDetach) {
+            this.client = client;
+            this.sessionId = sessionId;
+            this.capabilities = capabilities;
+            this.onDetach = onDetach;
+            commands.defineCommand(AddHasCdp.EXECUTE_CDP, HttpMethod.POST, "/session/:sessionId/goog/cdp/execute");
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            switch (command.getName()) {
+                case DriverCommand.NEW_SESSION:
+                    return success(capabilities);
+                case DriverCommand.QUIT:
+                    client.close();
+                    onDetach.run();
+                    return success(null);
+                default:
+                    Response response = responses.decode(client.execute(commands.encode(command)));
+                    if (response.getSessionId() == null) {
+                        response.setSessionId(sessionId);
+                    }
+                    return response;
+            }
+        }
+
+        private Response success(Object value) {
+            Response response = new Response();
+            response.setSessionId(sessionId);
+            response.setStatus(0);
+            response.setState("success");
+            response.setValue(value);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.secureauthai.support;
+
+import com.secureauthai.jfr.HarnessEvents;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Where chromedriver, and the Chrome it drives, come from (-Ddriver.resolution).
+ *
+ * online asks WebDriverManager, which may go to the network to match chromedriver to the
+ * installed Chrome. offline uses only the chromedriver/Chrome pair pinned in driver.cache.dir
+ * by the prefetch step ({@link #main}, "prefetch-drivers" Maven profile): chromedriver must
+ * match the SHA-256 recorded at prefetch, and so must Chrome once its size or modification
+ * time differ from the recorded ones; tests then launch that Chrome. auto (default) uses the
+ * pinned pair when the cache has one that checks out and WebDriverManager otherwise.
+ *
+ * The source and time of the resolution are listed in the run summary.
+ */
+public final class DriverCache {
+
+    private static final String MODE = System.getProperty("driver.resolution", "auto").trim().toLowerCase(Locale.ROOT);
+    private static final Path DIRECTORY = directory();
+    private static final Path MANIFEST = DIRECTORY.resolve("manifest.json");
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.\\d+\\.\\d+\\.\\d+");
+    private static final Json JSON = new Json();
+
+    // Chrome of the pinned pair; null when WebDriverManager resolved the driver
+    private static volatile Path chromeBinary;
+
+    private DriverCache() {
+    }
+
+    /**
+     * Points Selenium at chromedriver (webdriver.chrome.driver); called once per JVM.
+     */
+    static void resolve() {
+        if (!List.of("auto", "online", "offline").contains(MODE)) {
+            throw new IllegalArgumentException("Unknown driver.resolution '" + MODE + "'; use auto, online or offline");
+        }
+        HarnessEvents.DriverResolution event = new HarnessEvents.DriverResolution();
+        event.begin();
+        long start = System.nanoTime();
+        String source = null;
+        if (MODE.equals("offline") || (MODE.equals("auto") && Files.exists(MANIFEST))) {
+            try {
+                source = usePinned();
+            } catch (IllegalStateException e) {
+                if (MODE.equals("offline")) {
+                    throw e;
+                }
+                System.err.println("Warning: " + e.getMessage() + "; resolving through WebDriverManager");
+            }
+        }
+        if (source == null) {
+            WebDriverManager manager = WebDriverManager.chromedriver();
+            manager.setup();
+            source = "WebDriverManager: chromedriver " + manager.getDownloadedDriverVersion();
+        }
+        event.source = chromeBinary != null ? "offline" : "online";
+        event.commit();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        String line = source + " in " + millis + " ms";
+        RunSummary.addSection("Driver resolution", () -> List.of(line));
+        System.out.println("Driver resolved from " + line);
+    }
+
+    /**
+     * Chrome of the pinned pair, which the driver must launch; null when resolved online.
+     */
+    static Path chromeBinary() {
+        return chromeBinary;
+    }
+
+    /**
+     * Prefetch: pins the installed Chrome (or -Ddriver.cache.chrome) and the chromedriver
+     * WebDriverManager matches to it in driver.cache.dir. Needs the network once; later
+     * offline runs do not.
+     */
+    public static void main(String[] args) throws IOException {
+        Files.createDirectories(DIRECTORY);
+        Path chrome = prefetchChrome();
+        String chromeVersion = version(chrome);
+        WebDriverManager manager = WebDriverManager.chromedriver()
+                .cachePath(DIRECTORY.resolve("webdriver").toString())
+                .avoidResolutionCache();
+        Matcher major = VERSION.matcher(chromeVersion);
+        if (major.find()) {
+            manager.browserVersion(major.group(1));
+        }
+        manager.setup();
+        Path driver = Path.of(manager.getDownloadedDriverPath()).toRealPath();
+        Path checked = checkedChromeFile(chrome);
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("prefetched", Instant.now().toString());
+        manifest.put("chromeVersion", chromeVersion);
+        manifest.put("chrome", chrome.toString());
+        manifest.put("chromeFile", checked.toString());
+        manifest.put("chromeSize", Files.size(checked));
+        manifest.put("chromeModified", Files.getLastModifiedTime(checked).toMillis());
+        manifest.put("chromeSha256", sha256(checked));
+        manifest.put("chromedriverVersion", manager.getDownloadedDriverVersion());
+        manifest.put("chromedriver", DIRECTORY.toRealPath().relativize(driver).toString());
+        manifest.put("chromedriverSha256", sha256(driver));
+        // Readers never see a half-written file
+        Path temp = DIRECTORY.resolve("manifest.json.tmp");
+        Files.writeString(temp, JSON.toJson(manifest), StandardCharsets.UTF_8);
+        Files.move(temp, MANIFEST, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Pinned chromedriver " + manager.getDownloadedDriverVersion() + " (" + driver + ") for Chrome "
+                + chromeVersion + " (" + chrome + ") in " + MANIFEST);
+    }
+
+    // Checks the pinned pair and points Selenium at it; a description of it
+    private static String usePinned() {
+        Map<String, Object> manifest;
+        try {
+            manifest = JSON.toType(Files.readString(MANIFEST, StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("No usable driver cache at " + MANIFEST + " (" + e.getMessage()
+                    + "); fill it with mvn test -Pprefetch-drivers", e);
+        }
+        try {
+            Path driver = DIRECTORY.resolve((String) manifest.get("chromedriver"));
+            if (!sha256(driver).equals(manifest.get("chromedriverSha256"))) {
+                throw new IllegalStateException("Cached chromedriver " + driver + " does not match its checksum");
+            }
+            Path checked = Path.of((String) manifest.get("chromeFile"));
+            // Hashing Chrome takes a while, so only when it may have been replaced
+            boolean unchanged = Files.size(checked) == ((Number) manifest.get("chromeSize")).longValue()
+                    && Files.getLastModifiedTime(checked).toMillis() == ((Number) manifest.get("chromeModified")).longValue();
+            if (!unchanged && !sha256(checked).equals(manifest.get("chromeSha256"))) {
+                throw new IllegalStateException("Chrome at " + checked + " changed since chromedriver was pinned for "
+                        + manifest.get("chromeVersion") + "; refresh the cache with mvn test -Pprefetch-drivers");
+            }
+            System.setProperty("webdriver.chrome.driver", driver.toString());
+            chromeBinary = Path.of((String) manifest.get("chrome"));
+            return "offline cache: chromedriver " + manifest.get("chromedriverVersion") + " for Chrome "
+                    + manifest.get("chromeVersion") + " (" + chromeBinary + ")";
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Driver cache " + MANIFEST + " is incomplete (" + e.getMessage()
+                    + "); refresh it with mvn test -Pprefetch-drivers", e);
+        }
+    }
+
+    private static Path prefetchChrome() throws IOException {
+        String configured = System.getProperty("driver.cache.chrome", "");
+        if (!configured.isBlank()) {
+            return Path.of(configured.trim()).toRealPath();
+        }
+        return WebDriverManager.chromedriver().getBrowserPath()
+                .orElseThrow(() -> new IllegalStateException("Chrome not found; pass its path with -Ddriver.cache.chrome"))
+                .toRealPath();
+    }
+
+    // The file whose checksum stands for Chrome: the binary itself, not the launcher script Linux packages ship
+    private static Path checkedChromeFile(Path chrome) throws IOException {
+        Path sibling = chrome.resolveSibling("chrome");
+        try (InputStream in = Files.newInputStream(chrome)) {
+            byte[] start = in.readNBytes(2);
+            boolean script = start.length == 2 && start[0] == '#' && start[1] == '!';
+            return script && Files.isRegularFile(sibling) ? sibling : chrome;
+        }
+    }
+
+    // "Google Chrome 126.0.6478.126" from chrome --version; "unknown" where Chrome prints nothing (Windows)
+    private static String version(Path chrome) {
+        try {
+            Process process = new ProcessBuilder(chrome.toString(), "--version").redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            process.waitFor();
+            Matcher matcher = VERSION.matcher(output);
+            return matcher.find() ? matcher.group() : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path directory() {
+        String configured = System.getProperty("driver.cache.dir", "");
+        return configured.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".cache", "bioauth-tests", "drivers")
+                : Path.of(configured.trim());
+    }
+}
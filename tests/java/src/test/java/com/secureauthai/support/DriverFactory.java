@@ -0,0 +1,121 @@
+package com.secureauthai.support;
+
+import com.secureauthai.jfr.HarnessEvents;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.http.ClientConfig;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.LongSummaryStatistics;
+
+/**
+ * Builds the ChromeDriver instances used by the test workers.
+ */
+public final class DriverFactory {
+
+    private static final BrowserProfile PROFILE = BrowserProfile.fromProperty();
+    // Launch times of this run; one profile per run, compared across runs in the run summary
+    private static final LongSummaryStatistics LAUNCH_TIMES = new LongSummaryStatistics();
+
+    private static boolean driverBinaryReady = false;
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Resolves the chromedriver binary once per JVM ({@link DriverCache}). Test classes call
+     * this from their @BeforeAll hooks, which run concurrently when classes run in parallel.
+     * Skipped while a {@link BrowserDaemon} serves browsers; a launch that falls back to a
+     * fresh browser resolves it then.
+     */
+    public static void setupDriverBinary() {
+        if (!BrowserDaemon.available()) {
+            resolveDriverBinary();
+        }
+    }
+
+    static synchronized void resolveDriverBinary() {
+        if (!driverBinaryReady) {
+            DriverCache.resolve();
+            driverBinaryReady = true;
+        }
+    }
+
+    public static ChromeOptions chromeOptions() {
+        return chromeOptions(PROFILE);
+    }
+
+    public static ChromeOptions chromeOptions(BrowserProfile profile) {
+        ChromeOptions options = new ChromeOptions();
+        // Same viewport in both profiles so layouts match; headful runs are maximized after launch
+        options.addArguments("--window-size=1440,900");
+        if (profile == BrowserProfile.HEADLESS) {
+            options.addArguments(BrowserProfile.HEADLESS_ARGUMENTS);
+        }
+        // The Chrome chromedriver was pinned for, when resolved from the offline cache
+        if (DriverCache.chromeBinary() != null) {
+            options.setBinary(DriverCache.chromeBinary().toFile());
+        }
+        // Allow insecure localhost for WebAuthn testing
+        options.addArguments("--allow-running-insecure-content");
+        options.addArguments("--disable-web-security");
+        options.addArguments("--ignore-certificate-errors");
+        // Enable media devices for face recognition testing (needed in every profile)
+        options.addArguments("--use-fake-ui-for-media-stream");
+        options.addArguments("--use-fake-device-for-media-stream");
+        return options;
+    }
+
+    /**
+     * Launches Chrome with the run's profile. Every command the driver sends is recorded as a
+     * JFR event ({@link HarnessEvents#commandFilter()}).
+     */
+    public static WebDriver createChromeDriver() {
+        resolveDriverBinary();
+        return createChromeDriver(ChromeDriverService.createDefaultService());
+    }
+
+    /**
+     * Launches Chrome with the run's profile through {@code service}, which the caller can ask
+     * for the chromedriver URL; the driver binary must be resolved already.
+     */
+    static WebDriver createChromeDriver(ChromeDriverService service) {
+        HarnessEvents.BrowserLaunch event = new HarnessEvents.BrowserLaunch();
+        event.begin();
+        long start = System.nanoTime();
+        WebDriver driver = new ChromeDriver(service, chromeOptions(PROFILE),
+                ClientConfig.defaultConfig().withFilter(HarnessEvents.commandFilter()));
+        if (PROFILE == BrowserProfile.HEADFUL) {
+            driver.manage().window().maximize();
+        }
+        event.profile = PROFILE.name().toLowerCase(Locale.ROOT);
+        event.commit();
+        recordLaunch((System.nanoTime() - start) / 1_000_000);
+        return driver;
+    }
+
+    public static BrowserProfile profile() {
+        return PROFILE;
+    }
+
+    private static void recordLaunch(long millis) {
+        synchronized (LAUNCH_TIMES) {
+            if (LAUNCH_TIMES.getCount() == 0) {
+                RunSummary.addSection("Browser launches", DriverFactory::launchReport);
+            }
+            LAUNCH_TIMES.accept(millis);
+        }
+        System.out.println("Browser launched (" + PROFILE.name().toLowerCase(Locale.ROOT) + ") in " + millis + " ms");
+    }
+
+    private static List<String> launchReport() {
+        synchronized (LAUNCH_TIMES) {
+            return List.of(PROFILE.name().toLowerCase(Locale.ROOT) + ": " + LAUNCH_TIMES.getCount() + " launch(es), avg "
+                    + Math.round(LAUNCH_TIMES.getAverage()) + " ms, min " + LAUNCH_TIMES.getMin()
+                    + " ms, max " + LAUNCH_TIMES.getMax() + " ms, total " + LAUNCH_TIMES.getSum() + " ms");
+        }
+    }
+}
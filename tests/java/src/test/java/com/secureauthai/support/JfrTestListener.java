@@ -0,0 +1,52 @@
+package com.secureauthai.support;
+
+import com.secureauthai.jfr.HarnessEvents;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records each test as a {@link HarnessEvents.Test} JFR event. Registered through
+ * META-INF/services next to {@link RunSummaryListener}; costs nothing without a recording.
+ */
+public class JfrTestListener implements TestExecutionListener {
+
+    private final Map<String, HarnessEvents.Test> running = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (testIdentifier.isTest()) {
+            HarnessEvents.Test event = new HarnessEvents.Test();
+            event.begin();
+            running.put(testIdentifier.getUniqueId(), event);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        HarnessEvents.Test event = running.remove(testIdentifier.getUniqueId());
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = name(testIdentifier);
+            event.result = result.getStatus().name().toLowerCase(Locale.ROOT);
+            event.commit();
+        }
+    }
+
+    // Class.method: display name, which also tells parameterized invocations apart
+    private static String name(TestIdentifier test) {
+        return test.getSource()
+                .filter(MethodSource.class::isInstance)
+                .map(MethodSource.class::cast)
+                .map(source -> source.getJavaClass().getSimpleName() + "." + source.getMethodName() + ": ")
+                .orElse("") + test.getDisplayName();
+    }
+}
@@ -0,0 +1,183 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Memory counters of one browser tab for soak runs: JS heap after a forced garbage collection,
+ * live DOM nodes (detached ones included), event listeners and documents from CDP Performance
+ * metrics, plus pending timers, running intervals and live camera tracks counted by a script
+ * installed in the page. Can also write a heap snapshot that DevTools' Memory panel opens.
+ *
+ * The counting script wraps setTimeout/setInterval and getUserMedia in documents loaded after
+ * {@link #install}; {@link #uninstall} stops adding it to new documents.
+ */
+public final class MemoryProbe {
+
+    public static final List<String> METRICS = List.of("jsHeapMb", "domNodes", "eventListeners", "documents",
+            "pendingTimers", "activeIntervals", "liveMediaTracks");
+
+    // Chunks are dispatched on a thread pool; this long without one after the command returns means all arrived
+    private static final Duration SNAPSHOT_SETTLE = Duration.ofSeconds(1);
+    private static final String COUNTERS = String.join("\n",
+            "(() => {",
+            "  if (window.__soakCounters) return;",
+            "  const timeouts = new Set(), intervals = new Set(), tracks = new Set();",
+            "  const setT = window.setTimeout, clearT = window.clearTimeout;",
+            "  const setI = window.setInterval, clearI = window.clearInterval;",
+            "  window.setTimeout = function (handler, delay, ...args) {",
+            "    if (typeof handler !== 'function') return setT.call(window, handler, delay, ...args);",
+            "    const id = setT.call(window, (...a) => { timeouts.delete(id); handler(...a); }, delay, ...args);",
+            "    timeouts.add(id);",
+            "    return id;",
+            "  };",
+            "  window.clearTimeout = id => { timeouts.delete(id); clearT.call(window, id); };",
+            "  window.setInterval = function (...args) { const id = setI.call(window, ...args); intervals.add(id); return id; };",
+            "  window.clearInterval = id => { intervals.delete(id); clearI.call(window, id); };",
+            "  const media = navigator.mediaDevices;",
+            "  if (media && media.getUserMedia) {",
+            "    const getUserMedia = media.getUserMedia.bind(media);",
+            "    media.getUserMedia = async constraints => {",
+            "      const stream = await getUserMedia(constraints);",
+            "      stream.getTracks().forEach(track => tracks.add(track));",
+            "      return stream;",
+            "    };",
+            "  }",
+            "  window.__soakCounters = () => {",
+            "    tracks.forEach(track => { if (track.readyState === 'ended') tracks.delete(track); });",
+            "    return { pendingTimers: timeouts.size, activeIntervals: intervals.size, liveMediaTracks: tracks.size };",
+            "  };",
+            "})();");
+    private static final String READ_COUNTERS = "return window.__soakCounters ? window.__soakCounters() : {};";
+
+    private final WebDriver driver;
+    private final String scriptId;
+    private final NavigableMap<Long, String> chunks = new TreeMap<>();
+    private DevTools devTools;
+    private volatile boolean snapshotting;
+    private volatile long lastChunkNanos;
+
+    private MemoryProbe(WebDriver driver, String scriptId) {
+        this.driver = driver;
+        this.scriptId = scriptId;
+    }
+
+    /**
+     * Registers the counting script and enables the CDP domains; reload the page afterwards so
+     * the current document is counted too.
+     */
+    public static MemoryProbe install(WebDriver driver) {
+        Map<String, Object> added = Cdp.execute(driver, "Page.addScriptToEvaluateOnNewDocument", Map.of("source", COUNTERS));
+        Cdp.execute(driver, "Performance.enable");
+        Cdp.execute(driver, "HeapProfiler.enable");
+        return new MemoryProbe(driver, (String) added.get("identifier"));
+    }
+
+    public void uninstall() {
+        Cdp.execute(driver, "Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", scriptId));
+    }
+
+    /**
+     * Collects garbage, then reads every metric in {@link #METRICS}. Counters the page script
+     * could not provide are left out.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Double> sample() {
+        Cdp.execute(driver, "HeapProfiler.collectGarbage");
+        Map<String, Double> performance = new LinkedHashMap<>();
+        List<Map<String, Object>> metrics = (List<Map<String, Object>>) Cdp.execute(driver, "Performance.getMetrics")
+                .get("metrics");
+        for (Map<String, Object> metric : metrics) {
+            performance.put((String) metric.get("name"), ((Number) metric.get("value")).doubleValue());
+        }
+        Map<String, Double> sample = new LinkedHashMap<>();
+        sample.put("jsHeapMb", performance.getOrDefault("JSHeapUsedSize", 0.0) / (1024 * 1024));
+        sample.put("domNodes", performance.getOrDefault("Nodes", 0.0));
+        sample.put("eventListeners", performance.getOrDefault("JSEventListeners", 0.0));
+        sample.put("documents", performance.getOrDefault("Documents", 0.0));
+        Map<String, Object> counters = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_COUNTERS);
+        for (Map.Entry<String, Object> counter : counters.entrySet()) {
+            sample.put(counter.getKey(), ((Number) counter.getValue()).doubleValue());
+        }
+        return sample;
+    }
+
+    /**
+     * Writes a heap snapshot of the page to {@code file} (open it in DevTools, Memory panel,
+     * to compare snapshots).
+     */
+    public synchronized Path writeHeapSnapshot(Path file) {
+        DevTools tools = devTools();
+        synchronized (chunks) {
+            chunks.clear();
+        }
+        lastChunkNanos = System.nanoTime();
+        snapshotting = true;
+        try {
+            tools.send(new Command<Void>("HeapProfiler.takeHeapSnapshot", Map.of("reportProgress", false)));
+            while (System.nanoTime() - lastChunkNanos < SNAPSHOT_SETTLE.toNanos()) {
+                Thread.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while taking a heap snapshot", e);
+        } finally {
+            snapshotting = false;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                synchronized (chunks) {
+                    for (String chunk : chunks.values()) {
+                        out.write(chunk);
+                    }
+                    chunks.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write heap snapshot " + file, e);
+        }
+        return file;
+    }
+
+    // Listeners cannot be removed from DevTools, so the chunk listener is added once and gated
+    private DevTools devTools() {
+        if (devTools == null) {
+            if (!(driver instanceof HasDevTools) || ((HasDevTools) driver).maybeGetDevTools().isEmpty()) {
+                throw new IllegalStateException("Driver has no DevTools connection; heap snapshots are unavailable");
+            }
+            DevTools tools = ((HasDevTools) driver).getDevTools();
+            tools.createSessionIfThereIsNotOne();
+            tools.addListener(new Event<Map<String, Object>>("HeapProfiler.addHeapSnapshotChunk",
+                    input -> input.read(Json.MAP_TYPE)), (Long sequence, Map<String, Object> payload) -> {
+                if (snapshotting) {
+                    // Keyed by message sequence, so chunks handled out of order are written in order
+                    synchronized (chunks) {
+                        chunks.put(sequence, (String) payload.get("chunk"));
+                    }
+                    lastChunkNanos = System.nanoTime();
+                }
+            });
+            devTools = tools;
+        }
+        return devTools;
+    }
+}
@@ -0,0 +1,141 @@
+package com.secureauthai.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link MemoryProbe} samples of a soak run and their growth per 1000 auth cycles.
+ *
+ * Growth is the least-squares slope over the samples after the warmup cycles. A metric leaks
+ * when that slope is above its limit and the samples follow the line (R² of at least 0.5),
+ * so a single spike or a sawtooth from garbage collection is not reported. Limits come from
+ * -Dsoak.limit.{metric}, per 1000 cycles.
+ */
+public final class MemoryTrend {
+
+    private static final int MIN_SAMPLES = 6;
+    private static final double MIN_FIT = 0.5;
+    private static final Map<String, Double> DEFAULT_LIMITS = Map.of(
+            "jsHeapMb", 5.0,
+            "domNodes", 500.0,
+            "eventListeners", 100.0,
+            "documents", 5.0,
+            "pendingTimers", 50.0,
+            "activeIntervals", 5.0,
+            "liveMediaTracks", 5.0);
+
+    private final int warmupCycles;
+    private final List<Sample> samples = new ArrayList<>();
+
+    public MemoryTrend(int warmupCycles) {
+        this.warmupCycles = warmupCycles;
+    }
+
+    public synchronized void record(int cycle, long elapsedMillis, Map<String, Double> metrics) {
+        samples.add(new Sample(cycle, elapsedMillis, Map.copyOf(metrics)));
+    }
+
+    /**
+     * The growth of every metric that has samples after the warmup.
+     */
+    public synchronized List<Growth> growth() {
+        List<Sample> measured = samples.stream().filter(s -> s.cycle() >= warmupCycles).toList();
+        List<Growth> growth = new ArrayList<>();
+        for (String metric : MemoryProbe.METRICS) {
+            List<Sample> points = measured.stream().filter(s -> s.metrics().containsKey(metric)).toList();
+            if (points.size() < 2) {
+                continue;
+            }
+            double n = points.size();
+            double meanX = points.stream().mapToDouble(Sample::cycle).sum() / n;
+            double meanY = points.stream().mapToDouble(s -> s.metrics().get(metric)).sum() / n;
+            double sxx = 0;
+            double sxy = 0;
+            double syy = 0;
+            for (Sample point : points) {
+                double dx = point.cycle() - meanX;
+                double dy = point.metrics().get(metric) - meanY;
+                sxx += dx * dx;
+                sxy += dx * dy;
+                syy += dy * dy;
+            }
+            double slope = sxx == 0 ? 0 : sxy / sxx;
+            double fit = sxx == 0 || syy == 0 ? 0 : sxy * sxy / (sxx * syy);
+            double limit = TestConfig.doubleProperty("soak.limit." + metric, DEFAULT_LIMITS.get(metric));
+            boolean leaking = points.size() >= MIN_SAMPLES && slope * 1000 > limit && fit >= MIN_FIT;
+            growth.add(new Growth(metric, points.get(0).metrics().get(metric),
+                    points.get(points.size() - 1).metrics().get(metric), slope * 1000, fit, limit, leaking));
+        }
+        return growth;
+    }
+
+    /**
+     * A description of every leaking metric; empty if there is none.
+     */
+    public List<String> leaks() {
+        return growth().stream().filter(Growth::leaking).map(Growth::describe).toList();
+    }
+
+    /**
+     * The growth as text lines.
+     */
+    public synchronized List<String> table() {
+        List<String> lines = new ArrayList<>();
+        int cycles = samples.isEmpty() ? 0 : samples.get(samples.size() - 1).cycle();
+        long minutes = samples.isEmpty() ? 0 : samples.get(samples.size() - 1).elapsedMillis() / 60_000;
+        lines.add(String.format("%d cycles in %d min, %d samples, growth fitted after cycle %d",
+                cycles, minutes, samples.size(), warmupCycles));
+        lines.add(String.format("%-16s %10s %10s %16s %6s %10s  %s",
+                "metric", "first", "last", "per 1000 cycles", "R²", "limit", "verdict"));
+        for (Growth metric : growth()) {
+            lines.add(String.format(Locale.ROOT, "%-16s %10.1f %10.1f %+16.2f %6.2f %10.1f  %s",
+                    metric.metric(), metric.first(), metric.last(), metric.perThousandCycles(), metric.fit(),
+                    metric.limit(), metric.leaking() ? "LEAK" : "ok"));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes one CSV row per sample.
+     */
+    public synchronized void writeCsv(Path file) {
+        List<String> rows = new ArrayList<>();
+        rows.add("cycle,elapsed_ms," + String.join(",", MemoryProbe.METRICS));
+        for (Sample sample : samples) {
+            StringBuilder row = new StringBuilder().append(sample.cycle()).append(',').append(sample.elapsedMillis());
+            for (String metric : MemoryProbe.METRICS) {
+                Double value = sample.metrics().get(metric);
+                row.append(',').append(value == null ? "" : String.format(Locale.ROOT, "%.2f", value));
+            }
+            rows.add(row.toString());
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    private record Sample(int cycle, long elapsedMillis, Map<String, Double> metrics) {
+    }
+
+    /**
+     * Growth of one metric: first and last sampled value after the warmup, fitted slope per
+     * 1000 cycles and R² of the fit.
+     */
+    public record Growth(String metric, double first, double last, double perThousandCycles, double fit,
+                         double limit, boolean leaking) {
+
+        public String describe() {
+            return String.format(Locale.ROOT, "%s grows %+.2f per 1000 cycles (limit %.1f, R² %.2f): %.1f -> %.1f",
+                    metric, perThousandCycles, limit, fit, first, last);
+        }
+    }
+}
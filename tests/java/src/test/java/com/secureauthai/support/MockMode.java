@@ -0,0 +1,23 @@
+package com.secureauthai.support;
+
+import java.util.Locale;
+
+/**
+ * How the biometric mocks installed by {@link TestBootstrap} answer: WebAuthn
+ * registration and authentication, camera access and face capture alike.
+ */
+public enum MockMode {
+    /** Succeed after the normal mock delay (the default). */
+    SUCCESS,
+    /** Fail with an error after the normal mock delay, as a rejected fingerprint or face would. */
+    FAILURE,
+    /** Reject at once with NotAllowedError, as when the OS or user denies access. */
+    PERMISSION_DENIED,
+    /** Succeed, but only after the slow delay. */
+    SLOW;
+
+    /** The mode name test-init.js understands. */
+    String scriptValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,82 @@
+package com.secureauthai.support;
+
+import java.time.Duration;
+
+/**
+ * One fault to inject through {@link NetworkFaults}: what happens to matching requests and
+ * which requests match.
+ *
+ * Built in two steps, kind then target, e.g.
+ * {@code NetworkFault.serverError(503).at(CeremonyStep.VERIFY).times(1)}.
+ *
+ * @param kind       what happens to a matching request
+ * @param urlPattern glob over the request URL
+ * @param method     HTTP method to match, or null for any
+ * @param delay      added latency for {@link Kind#DELAY}
+ * @param status     response status for {@link Kind#SERVER_ERROR}
+ * @param skip       matching requests to let through before the fault starts
+ * @param times      matching requests to fault, or -1 until cleared
+ */
+public record NetworkFault(Kind kind, String urlPattern, String method, Duration delay,
+                           int status, int skip, int times) {
+
+    public enum Kind {
+        /** Held without an answer, as if the packets were lost; fails with TimedOut when cleared. */
+        DROP,
+        /** Sent on after {@code delay}. */
+        DELAY,
+        /** Reaches the server, but the connection is reset before the response arrives. */
+        RESET,
+        /** Answered with a synthetic {@code status} response; never reaches the server. */
+        SERVER_ERROR
+    }
+
+    public static NetworkFault drop() {
+        return new NetworkFault(Kind.DROP, "*", null, Duration.ZERO, 0, 0, -1);
+    }
+
+    public static NetworkFault delay(Duration delay) {
+        return new NetworkFault(Kind.DELAY, "*", null, delay, 0, 0, -1);
+    }
+
+    public static NetworkFault reset() {
+        return new NetworkFault(Kind.RESET, "*", null, Duration.ZERO, 0, 0, -1);
+    }
+
+    public static NetworkFault serverError(int status) {
+        if (status < 500 || status > 599) {
+            throw new IllegalArgumentException("Not a 5xx status: " + status);
+        }
+        return new NetworkFault(Kind.SERVER_ERROR, "*", null, Duration.ZERO, status, 0, -1);
+    }
+
+    /** Targets the requests of one ceremony step. */
+    public NetworkFault at(CeremonyStep step) {
+        return new NetworkFault(kind, step.urlPattern(), step.method(), delay, status, skip, times);
+    }
+
+    /** Targets any request whose URL matches the glob {@code urlPattern}. */
+    public NetworkFault matching(String urlPattern) {
+        return new NetworkFault(kind, urlPattern, null, delay, status, skip, times);
+    }
+
+    /** Lets the first {@code count} matching requests through untouched. */
+    public NetworkFault afterMatches(int count) {
+        return new NetworkFault(kind, urlPattern, method, delay, status, count, times);
+    }
+
+    /** Faults only the next {@code count} matching requests. */
+    public NetworkFault times(int count) {
+        return new NetworkFault(kind, urlPattern, method, delay, status, skip, count);
+    }
+
+    /** Short label for logs and the run summary: kind, method and URL pattern. */
+    public String describe() {
+        String what = switch (kind) {
+            case DELAY -> "DELAY " + delay.toMillis() + "ms";
+            case SERVER_ERROR -> "SERVER_ERROR " + status;
+            default -> kind.name();
+        };
+        return what + " " + (method == null ? "" : method + " ") + urlPattern;
+    }
+}
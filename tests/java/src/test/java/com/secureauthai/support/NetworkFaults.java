@@ -0,0 +1,344 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.AuthOutcome;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Network faults for one browser, injected below the page instead of by patching
+ * window.fetch: offline mode through Network.emulateNetworkConditions, and per-request
+ * faults ({@link NetworkFault}) through Fetch request interception.
+ *
+ * Interception needs CDP events, so it runs on a DevTools session with raw, version-free
+ * commands; only the requests a fault targets are paused. Each injected fault records when
+ * it first fired, and {@link Injected#timeToFeedback(Supplier)} measures how long the UI took
+ * from there to show an outcome. Those timings are reported in the run summary.
+ *
+ * Detach before the browser is reused; BaseTest does this after every test.
+ */
+public final class NetworkFaults {
+
+    private static final Map<String, List<Long>> FEEDBACK_MILLIS = new TreeMap<>();
+
+    private final WebDriver driver;
+    private final DevTools devTools;
+    private final Json json = new Json();
+    private final List<Injected> injected = new CopyOnWriteArrayList<>();
+    private final List<String> held = new CopyOnWriteArrayList<>();
+    // Pauses are answered off the CDP connection thread, which must not wait on its own replies
+    private final ScheduledExecutorService responder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "network-faults");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // DevTools cannot remove one listener, and the browser's NetworkTracker shares the session,
+    // so the listener stays registered and ignores events once interception is off
+    private volatile boolean intercepting;
+    private boolean listening;
+    private boolean offline;
+
+    private NetworkFaults(WebDriver driver, DevTools devTools) {
+        this.driver = driver;
+        this.devTools = devTools;
+    }
+
+    /**
+     * Fault controller for {@code driver}. Throws IllegalStateException if the driver has no
+     * DevTools connection.
+     */
+    public static NetworkFaults attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || ((HasDevTools) driver).maybeGetDevTools().isEmpty()) {
+            throw new IllegalStateException("Network faults need a DevTools connection: " + driver.getClass().getName());
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        return new NetworkFaults(driver, devTools);
+    }
+
+    /**
+     * Starts faulting the requests {@code fault} targets and returns a handle on it.
+     */
+    public Injected inject(NetworkFault fault) {
+        Injected handle = new Injected(fault);
+        injected.add(handle);
+        if (!intercepting) {
+            if (!listening) {
+                devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused",
+                        input -> input.read(Json.MAP_TYPE)), this::dispatch);
+                listening = true;
+            }
+            intercepting = true;
+        }
+        enableInterception();
+        System.out.println("Injected network fault: " + fault.describe());
+        return handle;
+    }
+
+    /**
+     * Takes the whole browser offline: every request fails at once, as with no connection.
+     */
+    public void goOffline() {
+        emulate(true);
+    }
+
+    public void goOnline() {
+        emulate(false);
+    }
+
+    /**
+     * Removes every fault, answers held requests with TimedOut, and brings the browser back
+     * online.
+     */
+    public void clear() {
+        injected.clear();
+        for (String requestId : held) {
+            send("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "TimedOut"));
+        }
+        held.clear();
+        if (intercepting) {
+            send("Fetch.disable", Map.of());
+            intercepting = false;
+        }
+        if (offline) {
+            emulate(false);
+        }
+    }
+
+    /**
+     * Clears everything and stops the responder thread; the controller is unusable after this.
+     */
+    public void detach() {
+        try {
+            clear();
+        } finally {
+            responder.shutdownNow();
+        }
+    }
+
+    /**
+     * Feedback times measured so far, one line per fault.
+     */
+    public static List<String> feedbackReport() {
+        List<String> lines = new ArrayList<>();
+        synchronized (FEEDBACK_MILLIS) {
+            for (Map.Entry<String, List<Long>> entry : FEEDBACK_MILLIS.entrySet()) {
+                List<Long> times = new ArrayList<>(entry.getValue());
+                times.sort(null);
+                lines.add(entry.getKey() + ": n=" + times.size() + ", min " + times.get(0)
+                        + " ms, median " + times.get(times.size() / 2) + " ms, max "
+                        + times.get(times.size() - 1) + " ms");
+            }
+        }
+        return lines;
+    }
+
+    private void emulate(boolean goOffline) {
+        Cdp.execute(driver, "Network.enable");
+        Cdp.execute(driver, "Network.emulateNetworkConditions", Map.of(
+                "offline", goOffline,
+                "latency", 0,
+                "downloadThroughput", -1,
+                "uploadThroughput", -1));
+        offline = goOffline;
+    }
+
+    private void enableInterception() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (Injected handle : injected) {
+            patterns.add(Map.of(
+                    "urlPattern", handle.fault.urlPattern(),
+                    // A reset has to let the request reach the server first
+                    "requestStage", handle.fault.kind() == NetworkFault.Kind.RESET ? "Response" : "Request"));
+        }
+        send("Fetch.enable", Map.of("patterns", patterns));
+    }
+
+    private void dispatch(Map<String, Object> event) {
+        if (intercepting) {
+            try {
+                responder.execute(() -> onPaused(event));
+            } catch (RejectedExecutionException e) {
+                // Detached while the event was on its way
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onPaused(Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        boolean responseStage = event.containsKey("responseStatusCode") || event.containsKey("responseErrorReason");
+        try {
+            Injected handle = claim((String) request.get("url"), (String) request.get("method"), responseStage);
+            if (handle == null) {
+                send("Fetch.continueRequest", Map.of("requestId", requestId));
+                return;
+            }
+            NetworkFault fault = handle.fault;
+            switch (fault.kind()) {
+                case DROP -> held.add(requestId);
+                case DELAY -> responder.schedule(() -> send("Fetch.continueRequest", Map.of("requestId", requestId)),
+                        fault.delay().toMillis(), TimeUnit.MILLISECONDS);
+                case RESET -> send("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "ConnectionReset"));
+                case SERVER_ERROR -> send("Fetch.fulfillRequest", serverError(requestId, fault.status()));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Warning: could not handle paused request " + request.get("url") + ": " + e.getMessage());
+        }
+    }
+
+    private Injected claim(String url, String method, boolean responseStage) {
+        for (Injected handle : injected) {
+            if (handle.matches(url, method, responseStage) && handle.claim()) {
+                return handle;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Object> serverError(String requestId, int status) {
+        String body = json.toJson(Map.of("message", "Injected fault", "code", status));
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("requestId", requestId);
+        params.put("responseCode", status);
+        params.put("responseHeaders", List.of(
+                Map.of("name", "Content-Type", "value", "application/json"),
+                // Supabase REST is cross-origin; without this the page sees a CORS error instead
+                Map.of("name", "Access-Control-Allow-Origin", "value", "*")));
+        params.put("body", Base64.getEncoder().encodeToString(body.getBytes(StandardCharsets.UTF_8)));
+        return params;
+    }
+
+    private void send(String method, Map<String, Object> params) {
+        devTools.send(new Command<Void>(method, params));
+    }
+
+    /**
+     * A fault in effect, with the requests it has matched so far.
+     */
+    public final class Injected {
+        private final NetworkFault fault;
+        private final Pattern url;
+        private int matched;
+        private int faulted;
+        private long firstFiredNanos;
+
+        private Injected(NetworkFault fault) {
+            this.fault = fault;
+            this.url = glob(fault.urlPattern());
+        }
+
+        public NetworkFault fault() {
+            return fault;
+        }
+
+        /** Requests faulted so far. */
+        public synchronized int fired() {
+            return faulted;
+        }
+
+        /**
+         * Waits up to {@code timeout} for the fault to fire. Returns false if it did not.
+         */
+        public boolean awaitFired(Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            synchronized (this) {
+                while (faulted == 0) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                }
+                return true;
+            }
+        }
+
+        /**
+         * Runs {@code outcome} (normally a WaitEngine outcome wait started right after the
+         * action that triggers the fault) and returns how long the UI took, from the moment the
+         * fault first fired, to show that outcome. The time is added to the run summary.
+         * Throws IllegalStateException if the fault never fired.
+         */
+        public Feedback timeToFeedback(Supplier<AuthOutcome> outcome) {
+            AuthOutcome result = outcome.get();
+            long end = System.nanoTime();
+            long firedAt;
+            synchronized (this) {
+                if (faulted == 0) {
+                    throw new IllegalStateException("Fault never fired: " + fault.describe() + " (UI showed " + result + ")");
+                }
+                firedAt = firstFiredNanos;
+            }
+            Duration elapsed = Duration.ofNanos(end - firedAt);
+            synchronized (FEEDBACK_MILLIS) {
+                if (FEEDBACK_MILLIS.isEmpty()) {
+                    RunSummary.addSection("Network fault feedback", NetworkFaults::feedbackReport);
+                }
+                FEEDBACK_MILLIS.computeIfAbsent(fault.describe() + " -> " + result, key -> new ArrayList<>())
+                        .add(elapsed.toMillis());
+            }
+            return new Feedback(result, elapsed);
+        }
+
+        private boolean matches(String requestUrl, String method, boolean responseStage) {
+            boolean wantsResponse = fault.kind() == NetworkFault.Kind.RESET;
+            return wantsResponse == responseStage
+                    && (fault.method() == null || fault.method().equalsIgnoreCase(method))
+                    && url.matcher(requestUrl).matches();
+        }
+
+        private synchronized boolean claim() {
+            matched++;
+            if (matched <= fault.skip() || (fault.times() >= 0 && faulted >= fault.times())) {
+                return false;
+            }
+            if (faulted++ == 0) {
+                firstFiredNanos = System.nanoTime();
+                notifyAll();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * What the UI showed after a fault and how long it took.
+     */
+    public record Feedback(AuthOutcome outcome, Duration elapsed) {
+    }
+
+    // Also used for CeremonyStep and NetworkTracker patterns
+    static Pattern glob(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,67 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named link conditions for Network.emulateNetworkConditions. The 3G figures are the
+ * DevTools presets; the others approximate the links our users report.
+ */
+public enum NetworkProfile {
+    /** No throttling; the baseline row of a matrix. */
+    UNTHROTTLED(0, -1, -1, 0),
+    /** DevTools "Fast 3G". */
+    FAST_3G(563, 180_000, 84_375, 0),
+    /** DevTools "Slow 3G". */
+    SLOW_3G(2_000, 50_000, 50_000, 0),
+    /** Decent bandwidth behind a distant VPN concentrator: every round trip is expensive. */
+    CORPORATE_VPN(300, 1_250_000, 250_000, 0),
+    /** Fast but congested Wi-Fi; 5% packet loss where Chrome supports emulating it. */
+    LOSSY_WIFI(40, 2_500_000, 625_000, 5);
+
+    private final int latencyMillis;
+    private final long downloadBytesPerSecond;
+    private final long uploadBytesPerSecond;
+    private final int packetLossPercent;
+
+    NetworkProfile(int latencyMillis, long downloadBytesPerSecond, long uploadBytesPerSecond, int packetLossPercent) {
+        this.latencyMillis = latencyMillis;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+        this.packetLossPercent = packetLossPercent;
+    }
+
+    /**
+     * Parses a profile name as used on the command line ("fast-3g", "CORPORATE_VPN").
+     */
+    public static NetworkProfile parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Applies this profile to every request of {@code driver}'s tab until another profile is
+     * applied. Chrome versions that cannot emulate packet loss get the rest of the profile.
+     */
+    public void apply(WebDriver driver) {
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("offline", false);
+        conditions.put("latency", latencyMillis);
+        conditions.put("downloadThroughput", downloadBytesPerSecond);
+        conditions.put("uploadThroughput", uploadBytesPerSecond);
+        Cdp.execute(driver, "Network.enable");
+        if (packetLossPercent > 0) {
+            Map<String, Object> lossy = new HashMap<>(conditions);
+            lossy.put("packetLoss", packetLossPercent);
+            try {
+                Cdp.execute(driver, "Network.emulateNetworkConditions", lossy);
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Warning: packet loss not supported by this Chrome; " + this + " runs without it");
+            }
+        }
+        Cdp.execute(driver, "Network.emulateNetworkConditions", conditions);
+    }
+}
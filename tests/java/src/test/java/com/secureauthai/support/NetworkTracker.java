@@ -0,0 +1,540 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Follows the fetch/XHR traffic of one browser through CDP Network events, so tests can wait
+ * on the requests behind a click instead of sleeping.
+ *
+ * Auth requests are the ones a {@link CeremonyStep} describes (Supabase tables used by
+ * auth-service.ts and the WebAuthn API server). {@link #awaitQuiet} waits until none of them
+ * has been in flight for a while after an action; {@link #awaitResponse} waits for one
+ * request; {@link #awaitCredentialCheck} waits for the lookup the login page runs when the
+ * username changes. To wait for the outcome a ceremony shows, however long its requests take,
+ * use {@link com.secureauthai.pages.WaitEngine#forCeremonyResult()} instead. Every finished
+ * request comes with a {@link RequestTiming} breakdown, and auth request timings are reported
+ * per step in the run summary.
+ *
+ * One tracker belongs to one browser ({@link WorkerBrowser#network()}); events arrive on the
+ * CDP connection thread, waits run on the test's thread.
+ */
+public final class NetworkTracker {
+
+    /**
+     * Quiet period used when a test does not choose one: longer than the biometric mocks'
+     * default 1 s ceremony delay, during which no request is in flight. Under
+     * {@link MockMode#SLOW} pass a quiet period longer than the slow delay.
+     */
+    public static final Duration DEFAULT_QUIET = Duration.ofMillis(1500);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(20);
+
+    /**
+     * Latest auth request timings kept per ceremony step for the run summary; older ones are
+     * dropped, so a long run holds a bounded number.
+     */
+    public static final int STEP_TIMINGS_KEPT = 1000;
+
+    private static final Map<String, Deque<RequestTiming>> STEP_TIMINGS = new TreeMap<>();
+
+    private final DevTools devTools;
+    private final Map<String, Pending> inFlight = new HashMap<>();
+    private final List<RequestTiming> finished = new ArrayList<>();
+    private long lastAuthActivityNanos = System.nanoTime();
+    private int consumed;
+
+    private NetworkTracker(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * Starts tracking {@code driver}'s tab. Returns null, with a warning, if the driver has no
+     * DevTools connection.
+     */
+    public static NetworkTracker attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || ((HasDevTools) driver).maybeGetDevTools().isEmpty()) {
+            System.err.println("Warning: driver has no DevTools connection; network waits are unavailable");
+            return null;
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        NetworkTracker tracker = new NetworkTracker(devTools);
+        tracker.listen("Network.requestWillBeSent", tracker::onRequest);
+        tracker.listen("Network.responseReceived", tracker::onResponse);
+        tracker.listen("Network.loadingFinished", tracker::onFinished);
+        tracker.listen("Network.loadingFailed", tracker::onFailed);
+        devTools.send(new Command<Void>("Network.enable", Map.of()));
+        return tracker;
+    }
+
+    /**
+     * Marks the start of an action, before it can have sent anything; pass the mark to
+     * {@link #awaitQuiet(long)} after the action.
+     */
+    public long mark() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Waits until no auth request has been in flight for {@code quiet}, counted from the last
+     * auth request or from {@code mark} if that is later, and returns the auth requests that
+     * finished meanwhile or before, since the last {@link #reset()}. Counting from the mark
+     * keeps a request the action has not sent yet from being taken for quiet: without one, the
+     * wait lasts at least {@code quiet}. Throws TimeoutException if the network is not quiet
+     * within {@code timeout}.
+     */
+    public List<RequestTiming> awaitQuiet(long mark, Duration quiet, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (true) {
+                long now = System.nanoTime();
+                long quietFor = now - Math.max(lastAuthActivityNanos, mark);
+                if (authInFlight() == 0 && quietFor >= quiet.toNanos()) {
+                    return authRequests();
+                }
+                long left = deadline - now;
+                if (left <= 0) {
+                    throw new TimeoutException("Auth requests still active after " + timeout.toMillis()
+                            + " ms: " + describeInFlight());
+                }
+                long wait = authInFlight() == 0 ? Math.min(left, quiet.toNanos() - quietFor) : left;
+                waitNanos(wait);
+            }
+        }
+    }
+
+    public List<RequestTiming> awaitQuiet(long mark) {
+        return awaitQuiet(mark, DEFAULT_QUIET, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Waits for the next finished request whose URL matches the glob {@code urlPattern}
+     * ({@code *} matches any run of characters) and returns its timing. The search starts after
+     * the request an earlier call returned, so a request that finished before this call still
+     * counts.
+     * Throws TimeoutException if none arrives within {@code timeout}.
+     */
+    public RequestTiming awaitResponse(String urlPattern, Duration timeout) {
+        return awaitResponse(NetworkFaults.glob(urlPattern), null, urlPattern, timeout);
+    }
+
+    /**
+     * Same as {@link #awaitResponse(String, Duration)} for the request of a ceremony step.
+     */
+    public RequestTiming awaitResponse(CeremonyStep step, Duration timeout) {
+        return awaitResponse(NetworkFaults.glob(step.urlPattern()), step.method(), step.name(), timeout);
+    }
+
+    public RequestTiming awaitResponse(CeremonyStep step) {
+        return awaitResponse(step, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Waits for the app's answer to the credential check LoginPage.tsx runs whenever the
+     * username changes: the latest lookup of {@code username} and, if it found the account, the
+     * {@code credentialsTable} query that follows it. Returns whether the account has
+     * credentials in that table (false if the account does not exist, true once a registration
+     * has stored one since), or null if the response did not say. Throws TimeoutException if the check has not finished within {@code timeout}.
+     */
+    public Boolean awaitCredentialCheck(String username, String credentialsTable, Duration timeout) {
+        Pattern table = NetworkFaults.glob("*/rest/v1/" + credentialsTable + "?*");
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (true) {
+                int lookup = inFlight(table) ? -1 : latestLookup(username);
+                if (lookup >= 0) {
+                    if (finished.get(lookup).status() != 200) {
+                        // A single-row lookup that matched nothing is answered 406; no check follows
+                        return false;
+                    }
+                    boolean checked = false;
+                    Boolean answer = null;
+                    for (int i = lookup + 1; i < finished.size(); i++) {
+                        RequestTiming request = finished.get(i);
+                        if (!table.matcher(request.url()).matches()) {
+                            continue;
+                        }
+                        if ("GET".equalsIgnoreCase(request.method())) {
+                            checked = true;
+                            answer = request.rows() < 0 ? null : request.rows() > 0;
+                        } else if ("POST".equalsIgnoreCase(request.method()) && !request.failed()) {
+                            // A registration marks the account as having credentials without a new check
+                            answer = true;
+                        }
+                    }
+                    if (checked) {
+                        return answer;
+                    }
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw new TimeoutException("No " + credentialsTable + " check for " + username
+                            + " within " + timeout.toMillis() + " ms");
+                }
+                waitNanos(left);
+            }
+        }
+    }
+
+    /**
+     * Forgets every request seen so far; called between tests that share the browser.
+     */
+    public synchronized void reset() {
+        inFlight.clear();
+        finished.clear();
+        consumed = 0;
+        lastAuthActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Forgets the requests that have finished, keeping those still in flight; for long runs
+     * that wait only on requests made after the call.
+     */
+    public synchronized void forgetFinished() {
+        finished.clear();
+        consumed = 0;
+    }
+
+    /**
+     * Request latency per ceremony step over the run's latest {@link #STEP_TIMINGS_KEPT}
+     * requests of each step, one line per step.
+     */
+    public static List<String> latencyReport() {
+        List<String> lines = new ArrayList<>();
+        synchronized (STEP_TIMINGS) {
+            for (Map.Entry<String, Deque<RequestTiming>> entry : STEP_TIMINGS.entrySet()) {
+                Deque<RequestTiming> timings = entry.getValue();
+                lines.add(String.format("%-16s n=%-4d total p50 %d / p95 %d ms, ttfb p50 %d ms, connect p50 %d ms, failed %d",
+                        entry.getKey(), timings.size(),
+                        percentile(timings, RequestTiming::totalMillis, 50),
+                        percentile(timings, RequestTiming::totalMillis, 95),
+                        percentile(timings, RequestTiming::ttfbMillis, 50),
+                        percentile(timings, RequestTiming::connectMillis, 50),
+                        timings.stream().filter(RequestTiming::failed).count()));
+            }
+        }
+        return lines;
+    }
+
+    private boolean inFlight(Pattern url) {
+        for (Pending pending : inFlight.values()) {
+            if (url.matcher(pending.url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Index of the latest finished lookup of username, or -1 while there is none or one is still in flight
+    private int latestLookup(String username) {
+        for (Pending pending : inFlight.values()) {
+            if (pending.step == CeremonyStep.USER_LOOKUP && isLookupOf(pending.url, username)) {
+                return -1;
+            }
+        }
+        for (int i = finished.size() - 1; i >= 0; i--) {
+            RequestTiming timing = finished.get(i);
+            if (timing.step() == CeremonyStep.USER_LOOKUP && isLookupOf(timing.url(), username)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isLookupOf(String url, String username) {
+        return ("eq." + username).equals(queryParam(url, "username"));
+    }
+
+    /**
+     * Decoded value of the query parameter {@code name} of {@code url}, or null if it has none.
+     */
+    static String queryParam(String url, String name) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String pair : url.substring(query + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rows a PostgREST response holds according to its Content-Range: the size of the range
+     * before the slash, 0 for an empty one ({@code *}), or -1 without a readable header.
+     */
+    static int rows(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.indexOf('/');
+        String range = (slash < 0 ? contentRange : contentRange.substring(0, slash)).trim();
+        if (range.equals("*")) {
+            return 0;
+        }
+        int dash = range.indexOf('-');
+        try {
+            return dash < 0 ? -1 : Integer.parseInt(range.substring(dash + 1)) - Integer.parseInt(range.substring(0, dash)) + 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private RequestTiming awaitResponse(Pattern url, String method, String description, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (true) {
+                for (int i = consumed; i < finished.size(); i++) {
+                    RequestTiming timing = finished.get(i);
+                    if ((method == null || method.equalsIgnoreCase(timing.method())) && url.matcher(timing.url()).matches()) {
+                        // Everything up to the match has been looked past
+                        consumed = i + 1;
+                        return timing;
+                    }
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw new TimeoutException("No response for " + description + " within " + timeout.toMillis() + " ms");
+                }
+                waitNanos(left);
+            }
+        }
+    }
+
+    // CDP events
+
+    @SuppressWarnings("unchecked")
+    private void onRequest(Map<String, Object> event) {
+        String type = (String) event.get("type");
+        if (!"Fetch".equals(type) && !"XHR".equals(type)) {
+            return;
+        }
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        String url = (String) request.get("url");
+        String method = (String) request.get("method");
+        CeremonyStep step = CeremonyStep.of(url, method);
+        synchronized (this) {
+            // A redirect reuses the request id; the new hop replaces the old one
+            inFlight.put((String) event.get("requestId"), new Pending(url, method, step, seconds(event.get("timestamp"))));
+            touch(step);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onResponse(Map<String, Object> event) {
+        Map<String, Object> response = (Map<String, Object>) event.get("response");
+        synchronized (this) {
+            Pending pending = inFlight.get((String) event.get("requestId"));
+            if (pending != null) {
+                pending.status = ((Number) response.get("status")).intValue();
+                pending.timing = (Map<String, Object>) response.get("timing");
+                pending.contentRange = header((Map<String, Object>) response.get("headers"), "Content-Range");
+            }
+        }
+    }
+
+    private void onFinished(Map<String, Object> event) {
+        complete((String) event.get("requestId"), seconds(event.get("timestamp")), null);
+    }
+
+    private void onFailed(Map<String, Object> event) {
+        complete((String) event.get("requestId"), seconds(event.get("timestamp")), (String) event.get("errorText"));
+    }
+
+    private synchronized void complete(String requestId, double endSeconds, String error) {
+        Pending pending = inFlight.remove(requestId);
+        if (pending == null) {
+            return;
+        }
+        RequestTiming timing = pending.finish(endSeconds, error);
+        finished.add(timing);
+        touch(pending.step);
+        if (pending.step != null) {
+            synchronized (STEP_TIMINGS) {
+                if (STEP_TIMINGS.isEmpty()) {
+                    RunSummary.addSection("Auth request latency", NetworkTracker::latencyReport);
+                }
+                Deque<RequestTiming> timings = STEP_TIMINGS.computeIfAbsent(pending.step.name(), key -> new ArrayDeque<>());
+                if (timings.size() == STEP_TIMINGS_KEPT) {
+                    timings.removeFirst();
+                }
+                timings.addLast(timing);
+            }
+        }
+    }
+
+    private void touch(CeremonyStep step) {
+        if (step != null) {
+            lastAuthActivityNanos = System.nanoTime();
+        }
+        notifyAll();
+    }
+
+    private int authInFlight() {
+        int count = 0;
+        for (Pending pending : inFlight.values()) {
+            if (pending.step != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<RequestTiming> authRequests() {
+        List<RequestTiming> auth = new ArrayList<>();
+        for (RequestTiming timing : finished) {
+            if (timing.step() != null) {
+                auth.add(timing);
+            }
+        }
+        return auth;
+    }
+
+    private String describeInFlight() {
+        List<String> urls = new ArrayList<>();
+        for (Pending pending : inFlight.values()) {
+            if (pending.step != null) {
+                urls.add(pending.method + " " + pending.url);
+            }
+        }
+        return urls.toString();
+    }
+
+    private void waitNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting on the network", e);
+        }
+    }
+
+    private void listen(String event, Consumer<Map<String, Object>> handler) {
+        devTools.addListener(new Event<Map<String, Object>>(event, input -> input.read(Json.MAP_TYPE)), payload -> {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: could not track " + event + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private static String header(Map<String, Object> headers, String name) {
+        if (headers != null) {
+            for (Map.Entry<String, Object> entry : headers.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name)) {
+                    return String.valueOf(entry.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private static double seconds(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static long percentile(Collection<RequestTiming> timings, ToLongFunction<RequestTiming> field, int p) {
+        long[] values = timings.stream().mapToLong(field).sorted().toArray();
+        int rank = (int) Math.ceil(p / 100.0 * values.length);
+        return values[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * One finished request. The phases come from Chrome's resource timing and are 0 when the
+     * phase did not happen (a reused connection has no DNS or connect time) or the response
+     * never arrived.
+     *
+     * @param step           the ceremony step the request belongs to, or null if it is not an auth request
+     * @param status         HTTP status, or 0 if no response arrived
+     * @param rows           rows in a Supabase REST response by its Content-Range, or -1 if unknown
+     * @param error          Chrome's error text for a failed request, or null
+     * @param dnsMillis      DNS lookup
+     * @param connectMillis  TCP connect, including TLS
+     * @param ttfbMillis     from the request being sent to the first byte of the response
+     * @param downloadMillis from the first byte to the end of the body
+     * @param totalMillis    from the request being issued to the end of the body or the failure
+     */
+    public record RequestTiming(String method, String url, CeremonyStep step, int status, int rows, String error,
+                                long dnsMillis, long connectMillis, long ttfbMillis, long downloadMillis,
+                                long totalMillis) {
+
+        public boolean failed() {
+            return error != null || status >= 400;
+        }
+
+        public String describe() {
+            return method + " " + url + " -> " + (error != null ? error : String.valueOf(status))
+                    + " (dns " + dnsMillis + ", connect " + connectMillis + ", ttfb " + ttfbMillis
+                    + ", download " + downloadMillis + ", total " + totalMillis + " ms)";
+        }
+    }
+
+    // A request between requestWillBeSent and loadingFinished/loadingFailed
+    private static final class Pending {
+        private final String url;
+        private final String method;
+        private final CeremonyStep step;
+        private final double startSeconds;
+        private int status;
+        private Map<String, Object> timing;
+        private String contentRange;
+
+        private Pending(String url, String method, CeremonyStep step, double startSeconds) {
+            this.url = url;
+            this.method = method;
+            this.step = step;
+            this.startSeconds = startSeconds;
+        }
+
+        private RequestTiming finish(double endSeconds, String error) {
+            long total = Math.max(0, Math.round((endSeconds - startSeconds) * 1000));
+            if (timing == null) {
+                return new RequestTiming(method, url, step, status, rows(contentRange), error, 0, 0, 0, 0, total);
+            }
+            // Phase offsets are milliseconds after requestTime (seconds, same clock as the events); -1 if skipped
+            double requestTime = seconds(timing.get("requestTime"));
+            double headersEnd = phase("receiveHeadersEnd");
+            long download = Math.max(0, Math.round((endSeconds - requestTime) * 1000 - headersEnd));
+            return new RequestTiming(method, url, step, status, rows(contentRange), error,
+                    span("dnsStart", "dnsEnd"), span("connectStart", "connectEnd"), span("sendEnd", "receiveHeadersEnd"),
+                    download, total);
+        }
+
+        private long span(String from, String to) {
+            double start = phase(from);
+            double end = phase(to);
+            return start < 0 || end < 0 ? 0 : Math.round(end - start);
+        }
+
+        private double phase(String name) {
+            Object value = timing.get(name);
+            return value instanceof Number ? ((Number) value).doubleValue() : -1;
+        }
+    }
+}
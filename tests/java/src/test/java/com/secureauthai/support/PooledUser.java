@@ -0,0 +1,20 @@
+package com.secureauthai.support;
+
+/**
+ * A test account leased from the {@link UserPool}. Give it back through
+ * {@link UserPool#release(PooledUser)} once the test is done with it.
+ */
+public record PooledUser(String id, UserProfile profile, UserSpec spec) {
+
+    public String username() {
+        return spec.username();
+    }
+
+    public String email() {
+        return spec.email();
+    }
+
+    public String password() {
+        return spec.password();
+    }
+}
@@ -0,0 +1,154 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.ActionTimings;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * One worker JVM of a {@link WorkCoordinator} run. Connects to the coordinator on a local
+ * port, then runs the test classes it is handed one at a time, streaming every finished test
+ * back as a {@link SurefireReport.Case}. Tests run on one thread, so the worker owns one browser
+ * for its whole life (the coordinator starts it with browser.lifecycle=per-worker).
+ *
+ * Protocol, one line per message: the worker sends "READY", the coordinator answers
+ * "RUN {class}" or "STOP"; while running, the worker sends "CASE {json}" per test and
+ * "FINISHED {seconds}" at the end of the class, and waits for the next command.
+ *
+ * Started by the coordinator with: {port} {worker id}.
+ */
+public final class QueueWorker {
+
+    private QueueWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int id = Integer.parseInt(args[1]);
+        // The listeners from META-INF/services would print a run summary and overwrite target/
+        // reports after every class; the worker does both once, when it stops
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .enablePostDiscoveryFilterAutoRegistration(false)
+                .build());
+        Filter<?>[] tagFilters = ShardFilter.tagFilters(System.getProperty("groups", ""),
+                System.getProperty("excludedGroups", "")).toArray(new Filter<?>[0]);
+        JfrTestListener jfr = new JfrTestListener();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            out.println("READY");
+            String command;
+            while ((command = in.readLine()) != null && command.startsWith("RUN ")) {
+                String testClass = command.substring("RUN ".length());
+                System.out.println("Worker " + id + " running " + testClass);
+                long start = System.nanoTime();
+                LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                        .selectors(selectClass(testClass))
+                        .filters(tagFilters)
+                        .build();
+                launcher.execute(request, new CaseStream(testClass, out), jfr);
+                out.println("FINISHED " + (System.nanoTime() - start) / 1e9);
+            }
+        } finally {
+            finish(id);
+        }
+        // Selenium leaves non-daemon threads behind; the shutdown hooks still quit the browser
+        System.exit(0);
+    }
+
+    private static void finish(int id) {
+        if (!ActionTimings.isEmpty()) {
+            RunSummary.addSection("LoginPage action timings", ActionTimings::report);
+            try {
+                ActionTimings.writeReports(Path.of("target", "coordinator", "worker-" + id));
+            } catch (RuntimeException e) {
+                System.err.println("Warning: " + e.getMessage());
+            }
+        }
+        RunSummary.print(System.out);
+    }
+
+    /**
+     * Sends every finished test, and every class or container that failed or was skipped as a
+     * whole, to the coordinator.
+     */
+    private static final class CaseStream implements TestExecutionListener {
+
+        private final String testClass;
+        private final PrintWriter out;
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+
+        CaseStream(String testClass, PrintWriter out) {
+            this.testClass = testClass;
+            this.out = out;
+        }
+
+        @Override
+        public void executionStarted(TestIdentifier testIdentifier) {
+            started.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+
+        @Override
+        public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+            if (testIdentifier.isTest() || isClass(testIdentifier)) {
+                send(SurefireReport.Case.skipped(testIdentifier.getLegacyReportingName(), testClass, reason));
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+            Long start = started.remove(testIdentifier.getUniqueId());
+            double seconds = start == null ? 0 : (System.nanoTime() - start) / 1e9;
+            String name = testIdentifier.getLegacyReportingName();
+            switch (result.getStatus()) {
+                case SUCCESSFUL:
+                    if (testIdentifier.isTest()) {
+                        send(SurefireReport.Case.passed(name, testClass, seconds));
+                    }
+                    break;
+                case ABORTED:
+                    // A failed assumption, reported as skipped like surefire does
+                    if (testIdentifier.isTest()) {
+                        send(SurefireReport.Case.skipped(name, testClass,
+                                result.getThrowable().map(Throwable::getMessage).orElse("aborted")));
+                    }
+                    break;
+                default:
+                    // Tests, and containers whose fixtures failed (@BeforeAll and the like)
+                    Throwable cause = result.getThrowable().orElseGet(() -> new IllegalStateException("failed"));
+                    send(SurefireReport.Case.failed(name, testClass, seconds, cause));
+                    break;
+            }
+        }
+
+        private static boolean isClass(TestIdentifier testIdentifier) {
+            return testIdentifier.getSource().filter(ClassSource.class::isInstance).isPresent();
+        }
+
+        private void send(SurefireReport.Case test) {
+            out.println("CASE " + test.encode());
+        }
+    }
+}
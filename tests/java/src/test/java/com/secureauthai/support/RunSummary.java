@@ -0,0 +1,41 @@
+package com.secureauthai.support;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sections printed once at the end of the test run by {@link RunSummaryListener}.
+ *
+ * Components register a section the first time they are used; a component the run never
+ * touched adds nothing.
+ */
+public final class RunSummary {
+
+    private static final Map<String, Supplier<List<String>>> SECTIONS = new LinkedHashMap<>();
+
+    private RunSummary() {
+    }
+
+    /**
+     * Adds or replaces the section {@code title}; {@code lines} is evaluated when the run ends.
+     */
+    public static synchronized void addSection(String title, Supplier<List<String>> lines) {
+        SECTIONS.put(title, lines);
+    }
+
+    static synchronized void print(PrintStream out) {
+        for (Map.Entry<String, Supplier<List<String>>> section : SECTIONS.entrySet()) {
+            out.println("=== " + section.getKey() + " ===");
+            try {
+                for (String line : section.getValue().get()) {
+                    out.println("  " + line);
+                }
+            } catch (RuntimeException e) {
+                out.println("  (unavailable: " + e.getMessage() + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.ActionTimings;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.nio.file.Path;
+
+/**
+ * Prints the {@link RunSummary} after the last test, and writes the merged LoginPage action
+ * timings to target/. Registered through META-INF/services so it runs for every launcher,
+ * surefire included.
+ */
+public class RunSummaryListener implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!ActionTimings.isEmpty()) {
+            RunSummary.addSection("LoginPage action timings", ActionTimings::report);
+            try {
+                ActionTimings.writeReports(Path.of("target"));
+            } catch (RuntimeException e) {
+                System.err.println("Warning: " + e.getMessage());
+            }
+        }
+        RunSummary.print(System.out);
+    }
+}
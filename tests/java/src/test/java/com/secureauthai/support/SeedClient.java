@@ -0,0 +1,321 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and removes test accounts over HTTP instead of through the registration UI.
+ *
+ * Accounts go through the app's own endpoints ({@code /api/auth/register},
+ * {@code /api/face/register}). Biometric credential rows and the lockout reset have no
+ * endpoint and are written through Supabase REST with the service role key.
+ *
+ * Seeding is idempotent: existing accounts and credentials are reused, so a run against a
+ * database that still holds the previous run's data does not fail.
+ */
+public final class SeedClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int MAX_CONCURRENCY = 8;
+    // Same form as the mock WebAuthn credential and face signature the app produces in test mode
+    private static final String SEED_CREDENTIAL_PREFIX = "seed-credential-";
+    private static final String SEED_FACE_SIGNATURE = "0000000000000000";
+
+    private final HttpClient http;
+    private final Json json = new Json();
+    private final String apiBaseUrl;
+    private final String supabaseUrl;
+    private final String serviceKey;
+
+    public SeedClient(String apiBaseUrl, String supabaseUrl, String serviceKey) {
+        this.apiBaseUrl = stripSlash(apiBaseUrl);
+        this.supabaseUrl = supabaseUrl == null ? null : stripSlash(supabaseUrl);
+        this.serviceKey = serviceKey;
+        this.http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    /**
+     * Client for the API and Supabase project configured in {@link TestConfig}.
+     */
+    public static SeedClient fromConfig() {
+        return new SeedClient(TestConfig.apiBaseUrl(), TestConfig.supabaseUrl(), TestConfig.supabaseServiceKey());
+    }
+
+    /**
+     * Seeds all {@code users} concurrently and returns them in the same order. Throws
+     * IllegalStateException listing every account that could not be seeded.
+     */
+    public List<SeededUser> seed(List<UserSpec> users) {
+        // Java 17 has no virtual threads; the work is HTTP-bound, so a small pool is enough
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(users.size(), MAX_CONCURRENCY)));
+        try {
+            List<CompletableFuture<SeededUser>> futures = new ArrayList<>();
+            for (UserSpec user : users) {
+                futures.add(CompletableFuture.supplyAsync(() -> seed(user), executor));
+            }
+            List<SeededUser> seeded = new ArrayList<>();
+            List<String> failures = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    seeded.add(futures.get(i).join());
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    failures.add(users.get(i).username() + ": " + cause.getMessage());
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("Could not seed " + failures.size() + " user(s): " + failures);
+            }
+            return seeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Seeds one account: creates it if missing, clears any lockout, and adds the
+     * credentials the spec asks for.
+     */
+    public SeededUser seed(UserSpec user) {
+        String id = findUserId(user.username());
+        if (id == null) {
+            id = register(user);
+        }
+        if (serviceKey != null) {
+            resetLockout(id);
+        }
+        if (user.biometric()) {
+            ensureBiometricCredential(id, user.username());
+        }
+        if (user.face()) {
+            ensureFaceCredential(id);
+        }
+        System.out.println("Seeded test user: " + user.username());
+        return new SeededUser(id, user);
+    }
+
+    /**
+     * Throws IllegalStateException unless the Supabase URL and service role key are set.
+     * Restoring accounts and seeding biometric credentials need both.
+     */
+    public void requireServiceKey() {
+        if (supabaseUrl == null || serviceKey == null) {
+            throw new IllegalStateException(
+                    "Seeding credentials needs SUPABASE_URL and SUPABASE_SERVICE_ROLE_KEY in the environment");
+        }
+    }
+
+    /**
+     * Puts a seeded account back to what {@code spec} describes: lockout cleared and any
+     * credential type the spec does not include removed again. Sessions are kept so
+     * {@link SessionFixture} can reuse its cached tokens.
+     */
+    public void restore(String userId, UserSpec spec) {
+        if (serviceKey != null) {
+            resetLockout(userId);
+        }
+        if (!spec.biometric()) {
+            deleteRows("biometric_credentials", userId);
+        }
+        if (!spec.face()) {
+            deleteRows("face_credentials", userId);
+        }
+    }
+
+    /**
+     * Makes {@code credentialId} (base64url, as the browser reports it) the only biometric
+     * credential of {@code userId}, so authentication options list nothing else.
+     */
+    public void replaceBiometricCredential(String userId, String credentialId) {
+        deleteRows("biometric_credentials", userId);
+        HttpResponse<String> response = send(rest("biometric_credentials")
+                .POST(body(Map.of(
+                        "user_id", userId,
+                        "credential_id", credentialId,
+                        "public_key", "{}",
+                        "sign_count", 0,
+                        "transports", List.of("internal"),
+                        "is_active", true))));
+        expect(response, 201, "insert biometric credential");
+    }
+
+    /**
+     * Creates an active session for {@code userId} valid for {@code ttl}, the same row
+     * auth-service.ts writes after a successful login, and returns its token.
+     */
+    public String createSession(String userId, Duration ttl) {
+        String token = "session_test_" + UUID.randomUUID().toString().replace("-", "") + "_" + System.currentTimeMillis();
+        HttpResponse<String> response = send(rest("authentication_sessions")
+                .POST(body(Map.of(
+                        "user_id", userId,
+                        "session_token", token,
+                        "expires_at", Instant.now().plus(ttl).toString(),
+                        "is_active", true))));
+        expect(response, 201, "create session");
+        return token;
+    }
+
+    /**
+     * Deletes the accounts with these usernames; their credentials, sessions and challenges
+     * go with them through ON DELETE CASCADE. Returns the number of accounts removed.
+     */
+    public int delete(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return 0;
+        }
+        String list = usernames.stream().map(SeedClient::quoteListItem).collect(Collectors.joining(","));
+        HttpResponse<String> response = send(rest("users?username=in.(" + encode(list) + ")")
+                .header("Prefer", "return=representation")
+                .DELETE());
+        expect(response, 200, "delete users");
+        return rows(response.body()).size();
+    }
+
+    private String findUserId(String username) {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                URI.create(apiBaseUrl + "/api/users/by-username?username=" + encode(username))).GET());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        expect(response, 200, "look up " + username);
+        return idOf(response.body());
+    }
+
+    private String register(UserSpec user) {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(apiBaseUrl + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(body(Map.of("email", user.email(), "username", user.username(), "password", user.password()))));
+        if (response.statusCode() == 400) {
+            // Unique violation: created concurrently by another run; use that account
+            String id = findUserId(user.username());
+            if (id != null) {
+                return id;
+            }
+        }
+        expect(response, 201, "register " + user.username());
+        return idOf(response.body());
+    }
+
+    private void resetLockout(String userId) {
+        Map<String, Object> reset = new HashMap<>();
+        reset.put("failed_attempts", 0);
+        reset.put("locked_until", null);
+        HttpResponse<String> response = send(rest("users?id=eq." + encode(userId))
+                .method("PATCH", body(reset)));
+        expect(response, 204, "reset lockout");
+    }
+
+    private void deleteRows(String table, String userId) {
+        HttpResponse<String> response = send(rest(table + "?user_id=eq." + encode(userId)).DELETE());
+        expect(response, 204, "clear " + table);
+    }
+
+    private void ensureBiometricCredential(String userId, String username) {
+        // Upsert on credential_id so reseeding keeps a single, active row
+        HttpResponse<String> response = send(rest("biometric_credentials?on_conflict=credential_id")
+                .header("Prefer", "resolution=merge-duplicates")
+                .POST(body(Map.of(
+                        "user_id", userId,
+                        "credential_id", SEED_CREDENTIAL_PREFIX + username,
+                        "public_key", "{}",
+                        "sign_count", 0,
+                        "transports", List.of("internal"),
+                        "is_active", true))));
+        expect(response, 201, "insert biometric credential");
+    }
+
+    private void ensureFaceCredential(String userId) {
+        if (serviceKey != null) {
+            HttpResponse<String> existing = send(rest("face_credentials?select=id&is_active=eq.true&user_id=eq."
+                    + encode(userId)).GET());
+            expect(existing, 200, "look up face credential");
+            if (!rows(existing.body()).isEmpty()) {
+                return;
+            }
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(apiBaseUrl + "/api/face/register"))
+                .header("Content-Type", "application/json")
+                .POST(body(Map.of("userId", userId, "signature", SEED_FACE_SIGNATURE))));
+        expect(response, 201, "register face credential");
+    }
+
+    private HttpRequest.Builder rest(String pathAndQuery) {
+        requireServiceKey();
+        return HttpRequest.newBuilder(URI.create(supabaseUrl + "/rest/v1/" + pathAndQuery))
+                .header("apikey", serviceKey)
+                .header("Authorization", "Bearer " + serviceKey)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Map<String, Object> fields) {
+        return HttpRequest.BodyPublishers.ofString(json.toJson(fields));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return http.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while seeding", e);
+        }
+    }
+
+    private static void expect(HttpResponse<String> response, int status, String action) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(action + " returned HTTP " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private List<Map<String, Object>> rows(String body) {
+        return json.toType(body, Json.LIST_OF_MAPS_TYPE);
+    }
+
+    private String idOf(String body) {
+        Map<String, Object> fields = json.toType(body, Json.MAP_TYPE);
+        Object id = fields.get("id");
+        if (id == null) {
+            throw new IllegalStateException("Response has no id: " + body);
+        }
+        return String.valueOf(id);
+    }
+
+    private static String quoteListItem(String value) {
+        return "\"" + value.replace("\"", "\\\"") + "\"";
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * A seeded account and its database id.
+     */
+    public record SeededUser(String id, UserSpec spec) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.WaitEngine;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Starts a test already signed in, without going through the login UI.
+ *
+ * Mints a row in authentication_sessions for the user and writes the matching
+ * {@code auth_session} entry to localStorage before the app's scripts run, so
+ * auth-service.ts restores the session on boot exactly as after a real login.
+ *
+ * Tokens are cached per user and reused until they are close to expiry
+ * (-Dsession.cache=false mints a new one every time). A token the app rejects, e.g.
+ * because an earlier test logged out and deactivated it, is dropped and minted again.
+ */
+public final class SessionFixture {
+
+    private static final Duration SESSION_TTL = Duration.ofHours(24);
+    // Do not hand out a cached token that could expire during the test
+    private static final Duration REUSE_MARGIN = Duration.ofMinutes(10);
+
+    private static volatile SessionFixture shared;
+
+    private final SeedClient seedClient;
+    private final boolean cacheEnabled;
+    private final Map<String, CachedSession> cache = new ConcurrentHashMap<>();
+    private final Json json = new Json();
+
+    private SessionFixture(SeedClient seedClient, boolean cacheEnabled) {
+        this.seedClient = seedClient;
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public static SessionFixture shared() {
+        SessionFixture fixture = shared;
+        if (fixture == null) {
+            synchronized (SessionFixture.class) {
+                fixture = shared;
+                if (fixture == null) {
+                    fixture = new SessionFixture(SeedClient.fromConfig(),
+                            Boolean.parseBoolean(System.getProperty("session.cache", "true")));
+                    shared = fixture;
+                }
+            }
+        }
+        return fixture;
+    }
+
+    /**
+     * Opens the app at {@code baseUrl} signed in as {@code user} and waits for the
+     * authenticated view. Throws IllegalStateException if even a fresh token is rejected.
+     */
+    public void signIn(WebDriver driver, WaitEngine waits, String baseUrl, PooledUser user) {
+        CachedSession session = sessionFor(user.id());
+        if (open(driver, waits, baseUrl, session)) {
+            return;
+        }
+        cache.remove(user.id());
+        if (!session.fresh() && open(driver, waits, baseUrl, mint(user.id()))) {
+            return;
+        }
+        throw new IllegalStateException("App did not accept the minted session for " + user.username());
+    }
+
+    private CachedSession sessionFor(String userId) {
+        if (cacheEnabled) {
+            CachedSession cached = cache.get(userId);
+            if (cached != null && cached.expiresAtMillis() - System.currentTimeMillis() > REUSE_MARGIN.toMillis()) {
+                return new CachedSession(cached.token(), cached.expiresAtMillis(), false);
+            }
+        }
+        return mint(userId);
+    }
+
+    private CachedSession mint(String userId) {
+        long expiresAt = System.currentTimeMillis() + SESSION_TTL.toMillis();
+        CachedSession session = new CachedSession(seedClient.createSession(userId, SESSION_TTL), expiresAt, true);
+        if (cacheEnabled) {
+            cache.put(userId, session);
+        }
+        return session;
+    }
+
+    private boolean open(WebDriver driver, WaitEngine waits, String baseUrl, CachedSession session) {
+        String origin = BrowserStateReset.originOf(baseUrl);
+        String value = json.toJson(Map.of("token", session.token(), "expiresAt", session.expiresAtMillis()));
+        if (Cdp.isSupported(driver)) {
+            // Runs before any page script, so the app sees the session on its first read
+            String source = "if (location.origin === " + json.toJson(origin) + ") {"
+                    + " localStorage.setItem('auth_session', " + json.toJson(value) + "); }";
+            Map<String, Object> added = Cdp.execute(driver, "Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", source));
+            try {
+                driver.get(baseUrl);
+            } finally {
+                // Only this navigation; a later reload after logout must not sign in again
+                Cdp.execute(driver, "Page.removeScriptToEvaluateOnNewDocument",
+                        Map.of("identifier", added.get("identifier")));
+            }
+        } else {
+            driver.get(baseUrl);
+            ((JavascriptExecutor) driver).executeScript("localStorage.setItem('auth_session', arguments[0]);", value);
+            driver.navigate().refresh();
+        }
+        return waits.forDashboard();
+    }
+
+    private record CachedSession(String token, long expiresAtMillis, boolean fresh) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.secureauthai.support;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TagFilter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runs one shard of the test classes, so N CI machines or separate Maven runs can split a
+ * run: mvn test -Dshard.count=4 -Dshard.index=0 (then 1, 2, 3). Does nothing unless
+ * shard.count is above 1. Registered through META-INF/services so surefire's launcher picks
+ * it up.
+ *
+ * The split is a {@link ShardPlan} over every discovered class that the tag filters keep,
+ * balanced on the durations in -Dshard.history: a directory of surefire reports from an
+ * earlier run, outside target/ so no shard's own reports can change what another shard
+ * reads. Without it, or when it holds no reports, every class counts the same and the plan
+ * depends only on the class names. Every shard computes the same plan, prints it, and
+ * reports its predicted and actual makespan in the run summary.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private static final int COUNT = TestConfig.intProperty("shard.count", 1);
+    private static final int INDEX = TestConfig.intProperty("shard.index", 0);
+
+    private ShardPlan plan;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (COUNT <= 1) {
+            return FilterResult.included("not sharded");
+        }
+        String testClass = testClass(descriptor);
+        if (testClass == null) {
+            return FilterResult.included("not in a test class");
+        }
+        int shard = plan(descriptor).shardOf(testClass);
+        return shard == INDEX
+                ? FilterResult.included("in shard " + INDEX)
+                : FilterResult.excluded("in shard " + shard + ", this is shard " + INDEX);
+    }
+
+    private synchronized ShardPlan plan(TestDescriptor descriptor) {
+        if (plan == null) {
+            if (INDEX < 0 || INDEX >= COUNT) {
+                throw new IllegalArgumentException("shard.index must be between 0 and " + (COUNT - 1) + ", got " + INDEX);
+            }
+            TestDescriptor root = descriptor;
+            while (root.getParent().isPresent()) {
+                root = root.getParent().get();
+            }
+            Set<String> classes = new TreeSet<>();
+            List<PostDiscoveryFilter> tagFilters = tagFilters(System.getProperty("shard.groups", ""),
+                    System.getProperty("shard.excludedGroups", ""));
+            root.accept(candidate -> {
+                if (candidate.getSource().filter(ClassSource.class::isInstance).isPresent()
+                        && tagFilters.stream().allMatch(filter -> filter.apply(candidate).included())) {
+                    classes.add(testClass(candidate));
+                }
+            });
+            Path history = history();
+            Map<String, Double> durations = history == null ? Map.of() : ShardPlan.readHistory(history);
+            if (history != null && durations.isEmpty()) {
+                System.err.println("Warning: no test reports in shard history " + history + "; splitting without history");
+            }
+            String defaultSeconds = System.getProperty("shard.defaultSeconds", "");
+            plan = ShardPlan.balance(classes, durations, COUNT,
+                    defaultSeconds.isBlank() ? null : Double.valueOf(defaultSeconds.trim()));
+            report(plan, durations.isEmpty() ? "no history" : "history from " + history, System.nanoTime());
+        }
+        return plan;
+    }
+
+    // The read-only history every shard plans from; null when none is given
+    private static Path history() {
+        return ShardPlan.historyDirectory("shard.history");
+    }
+
+    private static void report(ShardPlan plan, String source, long startNanos) {
+        List<String> lines = plan.describe();
+        System.out.println("Running shard " + INDEX + " of " + COUNT + ", " + source);
+        lines.forEach(line -> System.out.println("  " + line));
+        try {
+            Files.createDirectories(Path.of("target"));
+            Files.write(Path.of("target", "shard-plan-" + INDEX + "-of-" + COUNT + ".txt"), lines);
+        } catch (IOException e) {
+            System.err.println("Warning: could not write the shard plan: " + e.getMessage());
+        }
+        RunSummary.addSection("Shard " + INDEX + " of " + COUNT, () -> {
+            List<String> summary = new ArrayList<>(lines);
+            summary.add(String.format(Locale.ROOT, "shard %d: predicted %.0f s, actual %.0f s", INDEX,
+                    plan.predictedSeconds(INDEX), (System.nanoTime() - startNanos) / 1e9));
+            return summary;
+        });
+    }
+
+    // The tag selection of a run, from comma-separated groups and excludedGroups as surefire takes them
+    static List<PostDiscoveryFilter> tagFilters(String groups, String excludedGroups) {
+        List<PostDiscoveryFilter> filters = new ArrayList<>();
+        if (!groups.isBlank()) {
+            filters.add(TagFilter.includeTags(tags(groups)));
+        }
+        if (!excludedGroups.isBlank()) {
+            filters.add(TagFilter.excludeTags(tags(excludedGroups)));
+        }
+        return filters;
+    }
+
+    private static List<String> tags(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).filter(tag -> !tag.isEmpty()).toList();
+    }
+
+    // The top-level class a descriptor belongs to; nested classes run with their enclosing class
+    static String testClass(TestDescriptor descriptor) {
+        for (TestDescriptor current = descriptor; current != null; current = current.getParent().orElse(null)) {
+            TestSource source = current.getSource().orElse(null);
+            String name = null;
+            if (source instanceof ClassSource) {
+                name = ((ClassSource) source).getClassName();
+            } else if (source instanceof MethodSource) {
+                name = ((MethodSource) source).getClassName();
+            }
+            if (name != null) {
+                int nested = name.indexOf('$');
+                return nested < 0 ? name : name.substring(0, nested);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,180 @@
+package com.secureauthai.support;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assignment of test classes to shards that balances their expected durations.
+ *
+ * Expected durations come from earlier surefire reports (the {@code time} of each
+ * TEST-*.xml testsuite). Classes are placed longest first, each on the shard with the least
+ * expected time so far (longest processing time first), which keeps the slowest shard within
+ * 4/3 of the best possible split. A class without history is expected to take the median of
+ * the known classes.
+ */
+public final class ShardPlan {
+
+    // Expected duration of every class when there is no history at all
+    static final double NO_HISTORY_SECONDS = 60;
+
+    private final int count;
+    private final Map<String, Integer> shards = new TreeMap<>();
+    private final Map<String, Double> expected = new HashMap<>();
+    private final List<String> estimated = new ArrayList<>();
+    private final double[] predicted;
+    private final double defaultSeconds;
+
+    private ShardPlan(int count, double defaultSeconds) {
+        this.count = count;
+        this.predicted = new double[count];
+        this.defaultSeconds = defaultSeconds;
+    }
+
+    /**
+     * Splits {@code classes} into {@code count} shards using {@code history} (seconds per class
+     * name); {@code defaultSeconds} is used for classes without history, or the median of the
+     * history when it is null.
+     */
+    public static ShardPlan balance(Collection<String> classes, Map<String, Double> history, int count,
+                                    Double defaultSeconds) {
+        ShardPlan plan = new ShardPlan(count, defaultSeconds != null ? defaultSeconds : median(history));
+        List<String> ordered = new ArrayList<>(classes);
+        for (String testClass : ordered) {
+            Double seconds = history.get(testClass);
+            if (seconds == null) {
+                plan.estimated.add(testClass);
+            }
+            plan.expected.put(testClass, seconds != null ? seconds : plan.defaultSeconds);
+        }
+        // Ties broken by name, so every shard computes the same plan
+        ordered.sort(Comparator.comparingDouble((String c) -> plan.expected.get(c)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        for (String testClass : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (plan.predicted[shard] < plan.predicted[lightest]) {
+                    lightest = shard;
+                }
+            }
+            plan.shards.put(testClass, lightest);
+            plan.predicted[lightest] += plan.expected.get(testClass);
+        }
+        return plan;
+    }
+
+    /**
+     * The directory of earlier reports named by the system property {@code property}, or null
+     * when it is not set. Throws IllegalArgumentException for a path inside target/, where
+     * this run writes its own reports: the history must stay the same while the run reads it.
+     */
+    public static Path historyDirectory(String property) {
+        String configured = System.getProperty(property, "").trim();
+        if (configured.isEmpty()) {
+            return null;
+        }
+        Path history = Path.of(configured).toAbsolutePath().normalize();
+        if (history.startsWith(Path.of("target").toAbsolutePath())) {
+            throw new IllegalArgumentException(property + " " + history + " is inside target/, where this run"
+                    + " writes its own reports; copy the reports of an earlier run elsewhere and point to the copy");
+        }
+        return history;
+    }
+
+    /**
+     * Seconds per test class from the surefire XML reports in {@code directory}; empty if
+     * there are none.
+     */
+    public static Map<String, Double> readHistory(Path directory) {
+        Map<String, Double> history = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return history;
+        }
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(directory, "TEST-*.xml")) {
+            for (Path report : reports) {
+                try (InputStream in = Files.newInputStream(report)) {
+                    XMLStreamReader xml = factory.createXMLStreamReader(in);
+                    // Only the root testsuite element is needed
+                    while (xml.hasNext() && xml.next() != XMLStreamConstants.START_ELEMENT) {
+                        // skip the prolog
+                    }
+                    String name = xml.getAttributeValue(null, "name");
+                    String time = xml.getAttributeValue(null, "time");
+                    if (name != null && time != null) {
+                        history.merge(name, Double.parseDouble(time.replace(",", "")), Double::sum);
+                    }
+                    xml.close();
+                } catch (XMLStreamException | NumberFormatException | IllegalStateException e) {
+                    System.err.println("Warning: ignoring unreadable test report " + report + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: could not read test history from " + directory + ": " + e.getMessage());
+        }
+        return history;
+    }
+
+    /**
+     * The shard of {@code testClass}; classes the plan does not know are spread by name.
+     */
+    public int shardOf(String testClass) {
+        Integer shard = shards.get(testClass);
+        return shard != null ? shard : Math.floorMod(testClass.hashCode(), count);
+    }
+
+    public double predictedSeconds(int shard) {
+        return predicted[shard];
+    }
+
+    /**
+     * The plan as text lines: expected duration and classes of every shard.
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        double makespan = 0;
+        for (double seconds : predicted) {
+            makespan = Math.max(makespan, seconds);
+        }
+        lines.add(String.format(Locale.ROOT, "%d classes on %d shards, predicted makespan %.0f s; %d without history (marked ?, %.0f s each)",
+                shards.size(), count, makespan, estimated.size(), defaultSeconds));
+        for (int shard = 0; shard < count; shard++) {
+            List<String> members = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : shards.entrySet()) {
+                if (entry.getValue() == shard) {
+                    String testClass = entry.getKey();
+                    members.add(String.format(Locale.ROOT, "%s %.0fs%s", testClass.substring(testClass.lastIndexOf('.') + 1),
+                            expected.get(testClass), estimated.contains(testClass) ? "?" : ""));
+                }
+            }
+            lines.add(String.format(Locale.ROOT, "shard %d: predicted %.0f s  %s", shard, predicted[shard],
+                    String.join(", ", members)));
+        }
+        return lines;
+    }
+
+    private static double median(Map<String, Double> history) {
+        if (history.isEmpty()) {
+            return NO_HISTORY_SECONDS;
+        }
+        double[] values = history.values().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
@@ -0,0 +1,57 @@
+package com.secureauthai.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Known answers for the longest-first balancing of {@link ShardPlan}.
+ */
+@DisplayName("Shard plan balancing")
+class ShardPlanTest {
+
+    @Test
+    @DisplayName("Classes go longest first onto the lightest shard")
+    void longestFirst() {
+        // A 10 -> 0, B 8 -> 1, C 6 -> 1, D 5 -> 0, E 4 -> 1
+        ShardPlan plan = ShardPlan.balance(List.of("E", "D", "C", "B", "A"),
+                Map.of("A", 10.0, "B", 8.0, "C", 6.0, "D", 5.0, "E", 4.0), 2, null);
+        assertEquals(0, plan.shardOf("A"));
+        assertEquals(1, plan.shardOf("B"));
+        assertEquals(1, plan.shardOf("C"));
+        assertEquals(0, plan.shardOf("D"));
+        assertEquals(1, plan.shardOf("E"));
+        assertEquals(15, plan.predictedSeconds(0));
+        assertEquals(18, plan.predictedSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Classes without history count as the median, ties go by name")
+    void medianAndTies() {
+        // Median 6 for D; D ties with C and is placed after it: A 10 -> 0, C 6 -> 1, D 6 -> 1, B 2 -> 0
+        ShardPlan plan = ShardPlan.balance(List.of("D", "C", "B", "A"),
+                Map.of("A", 10.0, "B", 2.0, "C", 6.0), 2, null);
+        assertEquals(0, plan.shardOf("A"));
+        assertEquals(0, plan.shardOf("B"));
+        assertEquals(1, plan.shardOf("C"));
+        assertEquals(1, plan.shardOf("D"));
+        assertEquals(12, plan.predictedSeconds(0));
+        assertEquals(12, plan.predictedSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Without any history every class counts the same")
+    void noHistory() {
+        ShardPlan plan = ShardPlan.balance(List.of("A", "B", "C"), Map.of(), 2, null);
+        assertEquals(2 * ShardPlan.NO_HISTORY_SECONDS, plan.predictedSeconds(0));
+        assertEquals(ShardPlan.NO_HISTORY_SECONDS, plan.predictedSeconds(1));
+
+        ShardPlan configured = ShardPlan.balance(List.of("A", "B", "C"), Map.of(), 2, 30.0);
+        assertEquals(60, configured.predictedSeconds(0));
+        assertEquals(30, configured.predictedSeconds(1));
+    }
+}
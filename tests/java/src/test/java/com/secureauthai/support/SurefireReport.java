@@ -0,0 +1,164 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.json.Json;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Test results of one class in surefire's XML format (TEST-{class}.xml), so CI report parsers
+ * and {@link ShardPlan#readHistory} read them like a normal surefire run. Used by
+ * {@link WorkCoordinator}, which receives the results one {@link Case} at a time from its workers.
+ */
+public final class SurefireReport {
+
+    private static final Json JSON = new Json();
+
+    private SurefireReport() {
+    }
+
+    public enum Status {
+        PASSED, FAILURE, ERROR, SKIPPED
+    }
+
+    /**
+     * One finished test: surefire's legacy reporting name, the class it belongs to, seconds,
+     * status, and the message, exception type and stack trace of a failure, error or skip.
+     */
+    public record Case(String name, String className, double seconds, Status status, String message,
+                       String type, String trace) {
+
+        public static Case passed(String name, String className, double seconds) {
+            return new Case(name, className, seconds, Status.PASSED, null, null, null);
+        }
+
+        /**
+         * A failed test; an {@link AssertionError} is a failure, anything else an error, as in surefire.
+         */
+        public static Case failed(String name, String className, double seconds, Throwable cause) {
+            StringWriter trace = new StringWriter();
+            cause.printStackTrace(new PrintWriter(trace));
+            return new Case(name, className, seconds, cause instanceof AssertionError ? Status.FAILURE : Status.ERROR,
+                    cause.getMessage(), cause.getClass().getName(), trace.toString());
+        }
+
+        public static Case skipped(String name, String className, String reason) {
+            return new Case(name, className, 0, Status.SKIPPED, reason, null, null);
+        }
+
+        /**
+         * The case as one line of JSON, for the worker protocol.
+         */
+        public String encode() {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("name", name);
+            fields.put("className", className);
+            fields.put("seconds", seconds);
+            fields.put("status", status.name());
+            fields.put("message", message);
+            fields.put("type", type);
+            fields.put("trace", trace);
+            return JSON.toJson(fields).replace("\n", "");
+        }
+
+        public static Case decode(String line) {
+            Map<String, Object> fields = JSON.toType(line, Json.MAP_TYPE);
+            return new Case((String) fields.get("name"), (String) fields.get("className"),
+                    ((Number) fields.get("seconds")).doubleValue(), Status.valueOf((String) fields.get("status")),
+                    (String) fields.get("message"), (String) fields.get("type"), (String) fields.get("trace"));
+        }
+    }
+
+    /**
+     * Writes TEST-{testClass}.xml to {@code directory}: a testsuite of {@code seconds} with
+     * one testcase per case, and {@code properties} (worker id and the like) in its properties block.
+     */
+    public static Path write(Path directory, String testClass, double seconds, List<Case> cases,
+                             Map<String, String> properties) {
+        Path file = directory.resolve("TEST-" + testClass + ".xml");
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeCharacters("\n");
+                xml.writeStartElement("testsuite");
+                xml.writeAttribute("name", testClass);
+                xml.writeAttribute("time", seconds(seconds));
+                xml.writeAttribute("tests", String.valueOf(cases.size()));
+                xml.writeAttribute("errors", String.valueOf(count(cases, Status.ERROR)));
+                xml.writeAttribute("skipped", String.valueOf(count(cases, Status.SKIPPED)));
+                xml.writeAttribute("failures", String.valueOf(count(cases, Status.FAILURE)));
+                xml.writeCharacters("\n  ");
+                xml.writeStartElement("properties");
+                for (Map.Entry<String, String> property : properties.entrySet()) {
+                    xml.writeCharacters("\n    ");
+                    xml.writeEmptyElement("property");
+                    xml.writeAttribute("name", property.getKey());
+                    xml.writeAttribute("value", property.getValue());
+                }
+                xml.writeCharacters("\n  ");
+                xml.writeEndElement();
+                for (Case test : cases) {
+                    xml.writeCharacters("\n  ");
+                    writeCase(xml, test);
+                }
+                xml.writeCharacters("\n");
+                xml.writeEndElement();
+                xml.writeEndDocument();
+                xml.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write " + file, e);
+        }
+        return file;
+    }
+
+    public static long count(List<Case> cases, Status status) {
+        return cases.stream().filter(test -> test.status() == status).count();
+    }
+
+    private static void writeCase(XMLStreamWriter xml, Case test) throws XMLStreamException {
+        xml.writeStartElement("testcase");
+        xml.writeAttribute("name", test.name());
+        xml.writeAttribute("classname", test.className());
+        xml.writeAttribute("time", seconds(test.seconds()));
+        if (test.status() != Status.PASSED) {
+            xml.writeStartElement(test.status().name().toLowerCase(Locale.ROOT));
+            if (test.message() != null) {
+                xml.writeAttribute("message", printable(test.message()));
+            }
+            if (test.type() != null) {
+                xml.writeAttribute("type", test.type());
+            }
+            if (test.trace() != null) {
+                xml.writeCharacters(printable(test.trace()));
+            }
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private static String seconds(double seconds) {
+        return String.format(Locale.ROOT, "%.3f", seconds);
+    }
+
+    // XML 1.0 cannot hold most control characters, which ANSI-coloured messages contain
+    private static String printable(String text) {
+        return text.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", "");
+    }
+}
@@ -0,0 +1,59 @@
+package com.secureauthai.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Installs src/test/resources/test-init.js (test mode flag and biometric mocks) in a browser.
+ *
+ * The script is registered once per browser with Page.addScriptToEvaluateOnNewDocument,
+ * so it runs before any page script on every document the tab loads: navigations,
+ * reloads and the reset between tests all keep the mocks. Browsers without CDP get the
+ * script in the current document only, through {@link #runInPage(WebDriver)}.
+ */
+public final class TestBootstrap {
+
+    private static final String RESOURCE = "/test-init.js";
+    private static final String SOURCE = load();
+
+    private TestBootstrap() {
+    }
+
+    /**
+     * Registers the script for every new document of {@code driver}'s tab. Returns false
+     * if the driver has no CDP and the script could not be registered.
+     */
+    public static boolean install(WebDriver driver) {
+        if (!Cdp.isSupported(driver)) {
+            System.err.println("Warning: driver has no CDP; test mocks apply only where set explicitly");
+            return false;
+        }
+        Cdp.execute(driver, "Page.addScriptToEvaluateOnNewDocument", Map.of("source", SOURCE));
+        return true;
+    }
+
+    /**
+     * Runs the script in the current document. It is idempotent, so this is harmless
+     * where the registered copy already ran.
+     */
+    public static void runInPage(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(SOURCE);
+    }
+
+    private static String load() {
+        try (InputStream in = TestBootstrap.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing test resource " + RESOURCE);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + RESOURCE, e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.secureauthai.support;
+
+/**
+ * Central place for run-level settings that come from system properties
+ * (set through surefire in pom.xml) or environment variables.
+ */
+public final class TestConfig {
+
+    private TestConfig() {
+    }
+
+    /**
+     * Frontend URL under test: -DbaseUrl, then BASE_URL, then the local dev server.
+     */
+    public static String baseUrl() {
+        return setting("baseUrl", "http://localhost:8081", "BASE_URL");
+    }
+
+    /**
+     * Next.js API used to seed test data: -DapiBaseUrl, then API_BASE_URL or
+     * VITE_API_BASE_URL, then the local API server.
+     */
+    public static String apiBaseUrl() {
+        return setting("apiBaseUrl", "http://localhost:3000", "API_BASE_URL", "VITE_API_BASE_URL");
+    }
+
+    /**
+     * Supabase project URL: -Dsupabase.url, then SUPABASE_URL or VITE_SUPABASE_URL.
+     * Null when not configured.
+     */
+    public static String supabaseUrl() {
+        return setting("supabase.url", null, "SUPABASE_URL", "VITE_SUPABASE_URL");
+    }
+
+    /**
+     * Service role key for direct table access during seeding and cleanup. Read from the
+     * environment only (SUPABASE_SERVICE_ROLE_KEY or SUPABASE_SERVICE_ROLE) so it never ends
+     * up on a command line. Null when not configured.
+     */
+    public static String supabaseServiceKey() {
+        return setting(null, null, "SUPABASE_SERVICE_ROLE_KEY", "SUPABASE_SERVICE_ROLE");
+    }
+
+    /**
+     * Whether JUnit runs test classes and methods concurrently (-Dparallel=true).
+     */
+    public static boolean parallelEnabled() {
+        return Boolean.parseBoolean(System.getProperty("parallel", "false"));
+    }
+
+    /**
+     * Number of browser workers when running in parallel. Defaults to the number
+     * of available cores; -Dparallel.workers overrides it.
+     */
+    public static int parallelWorkers() {
+        if (!parallelEnabled()) {
+            return 1;
+        }
+        return intProperty("parallel.workers", Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: ignoring non-numeric " + name + "=" + value);
+            return defaultValue;
+        }
+    }
+
+    public static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: ignoring non-numeric " + name + "=" + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * First non-blank value of the system property, then the environment variables in
+     * order, then {@code defaultValue}.
+     */
+    private static String setting(String property, String defaultValue, String... envVars) {
+        String configured = property == null ? null : System.getProperty(property);
+        if (configured != null && !configured.trim().isEmpty()) {
+            return configured.trim();
+        }
+        for (String envVar : envVars) {
+            String env = System.getenv(envVar);
+            if (env != null && !env.trim().isEmpty()) {
+                return env.trim();
+            }
+        }
+        return defaultValue;
+    }
+}
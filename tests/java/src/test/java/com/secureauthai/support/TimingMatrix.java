@@ -0,0 +1,95 @@
+package com.secureauthai.support;
+
+import com.secureauthai.pages.StepTimer.StepTiming;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Step timings grouped by network profile and step, summarised as percentiles.
+ *
+ * One table row per profile and step: sample count, time-to-first-feedback and time-to-result
+ * at p50/p90/p95/max, and how many samples did not end in the expected result. Printed in the
+ * run summary and written as CSV for SLO tracking.
+ */
+public final class TimingMatrix {
+
+    private static final int[] PERCENTILES = {50, 90, 95, 100};
+
+    private final Map<String, Map<String, List<StepTiming>>> samples = new LinkedHashMap<>();
+
+    public synchronized void record(NetworkProfile profile, StepTiming timing) {
+        samples.computeIfAbsent(profile.name(), key -> new LinkedHashMap<>())
+                .computeIfAbsent(timing.step(), key -> new ArrayList<>())
+                .add(timing);
+    }
+
+    /**
+     * The table as text lines.
+     */
+    public synchronized List<String> table() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-14s %-22s %4s  %-27s  %-27s  %s",
+                "profile", "step", "n", "feedback p50/p90/p95/max", "result p50/p90/p95/max", "failed"));
+        for (Map.Entry<String, Map<String, List<StepTiming>>> profile : samples.entrySet()) {
+            for (Map.Entry<String, List<StepTiming>> step : profile.getValue().entrySet()) {
+                List<StepTiming> timings = step.getValue();
+                long failed = timings.stream().filter(t -> !t.expected()).count();
+                lines.add(String.format("%-14s %-22s %4d  %-27s  %-27s  %d",
+                        profile.getKey(), step.getKey(), timings.size(),
+                        percentiles(timings, true), percentiles(timings, false), failed));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes one CSV row per profile, step and percentile.
+     */
+    public synchronized void writeCsv(Path file) {
+        List<String> rows = new ArrayList<>();
+        rows.add("profile,step,samples,percentile,feedback_ms,result_ms");
+        for (Map.Entry<String, Map<String, List<StepTiming>>> profile : samples.entrySet()) {
+            for (Map.Entry<String, List<StepTiming>> step : profile.getValue().entrySet()) {
+                List<StepTiming> timings = step.getValue();
+                for (int p : PERCENTILES) {
+                    rows.add(profile.getKey() + "," + step.getKey() + "," + timings.size() + ",p" + p + ","
+                            + percentile(timings, true, p) + "," + percentile(timings, false, p));
+                }
+            }
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    private static String percentiles(List<StepTiming> timings, boolean feedback) {
+        StringBuilder text = new StringBuilder();
+        for (int p : PERCENTILES) {
+            if (text.length() > 0) {
+                text.append('/');
+            }
+            text.append(percentile(timings, feedback, p));
+        }
+        return text.append(" ms").toString();
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(List<StepTiming> timings, boolean feedback, int p) {
+        long[] values = timings.stream()
+                .mapToLong(t -> feedback ? t.feedbackMillis() : t.resultMillis())
+                .sorted()
+                .toArray();
+        int rank = (int) Math.ceil(p / 100.0 * values.length);
+        return values[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,201 @@
+package com.secureauthai.support;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-provisioned test accounts, leased to one test at a time.
+ *
+ * The first lease seeds {@code pool.size} accounts of every {@link UserProfile} in one
+ * concurrent batch (default: one per browser worker). A released account is restored to its
+ * profile in the background (lockout cleared, extra credentials removed) and then becomes
+ * leasable again, so tests never share an identity and a lockout cannot leak into another test.
+ *
+ * Provisioning needs SUPABASE_URL and SUPABASE_SERVICE_ROLE_KEY; without them the first
+ * lease fails at once.
+ *
+ * Settings: -Dpool.size, -Dpool.prefix (username prefix, default "pool"),
+ * -Dpool.leaseTimeout (seconds to wait for a free account, default 120).
+ */
+public final class UserPool {
+
+    private static volatile UserPool shared;
+    // The first provisioning failure; later calls rethrow it instead of seeding again
+    private static RuntimeException provisioningFailure;
+
+    private final SeedClient seedClient;
+    private final int perProfile;
+    private final long leaseTimeoutMillis;
+    private final long provisionMillis;
+    private final Map<UserProfile, BlockingQueue<PooledUser>> idle = new EnumMap<>(UserProfile.class);
+    private final Map<UserProfile, ProfileStats> stats = new EnumMap<>(UserProfile.class);
+    private final ExecutorService recycler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-pool-recycler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private UserPool(SeedClient seedClient, String prefix, int perProfile, long leaseTimeoutMillis) {
+        this.seedClient = seedClient;
+        this.perProfile = perProfile;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        // Without the service key no released account could be restored, and the pool would
+        // drain into lease timeouts; refuse to start instead
+        seedClient.requireServiceKey();
+
+        List<UserSpec> specs = new ArrayList<>();
+        List<UserProfile> profiles = new ArrayList<>();
+        for (UserProfile profile : UserProfile.values()) {
+            idle.put(profile, new LinkedBlockingQueue<>());
+            stats.put(profile, new ProfileStats());
+            for (int i = 1; i <= perProfile; i++) {
+                specs.add(profile.spec(prefix, i));
+                profiles.add(profile);
+            }
+        }
+        long start = System.nanoTime();
+        List<SeedClient.SeededUser> seeded = seedClient.seed(specs);
+        for (int i = 0; i < seeded.size(); i++) {
+            SeedClient.SeededUser user = seeded.get(i);
+            idle.get(profiles.get(i)).add(new PooledUser(user.id(), profiles.get(i), user.spec()));
+        }
+        provisionMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("User pool ready: " + perProfile + " user(s) x " + UserProfile.values().length
+                + " profiles in " + provisionMillis + " ms");
+    }
+
+    /**
+     * The run's pool, provisioned on first use. If provisioning fails, every later call throws
+     * at once with that failure as the cause instead of seeding again.
+     */
+    public static UserPool shared() {
+        UserPool pool = shared;
+        if (pool == null) {
+            synchronized (UserPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    if (provisioningFailure != null) {
+                        throw new IllegalStateException("User pool could not be provisioned earlier in this run: "
+                                + provisioningFailure.getMessage(), provisioningFailure);
+                    }
+                    String prefix = System.getProperty("pool.prefix", "pool");
+                    int size = Math.max(1, TestConfig.intProperty("pool.size", TestConfig.parallelWorkers()));
+                    long timeout = TimeUnit.SECONDS.toMillis(TestConfig.intProperty("pool.leaseTimeout", 120));
+                    try {
+                        pool = new UserPool(SeedClient.fromConfig(), prefix, size, timeout);
+                    } catch (RuntimeException e) {
+                        provisioningFailure = e;
+                        throw e;
+                    }
+                    RunSummary.addSection("User pool", pool::healthReport);
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Takes a free account of {@code profile}, waiting for one to be recycled if all are
+     * leased. Throws IllegalStateException if none frees up within the lease timeout.
+     */
+    public PooledUser lease(UserProfile profile) {
+        long start = System.nanoTime();
+        PooledUser user;
+        try {
+            user = idle.get(profile).poll(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while leasing a " + profile + " user", e);
+        }
+        long waited = (System.nanoTime() - start) / 1_000_000;
+        if (user == null) {
+            stats.get(profile).timedOut();
+            throw new IllegalStateException("No " + profile + " user became free within "
+                    + leaseTimeoutMillis + " ms; raise -Dpool.size");
+        }
+        stats.get(profile).leased(waited);
+        return user;
+    }
+
+    /**
+     * Returns {@code user} to the pool. It is restored to its profile in the background;
+     * if that fails the account is taken out of rotation and reported in the run summary.
+     */
+    public void release(PooledUser user) {
+        ProfileStats profileStats = stats.get(user.profile());
+        profileStats.returned();
+        recycler.execute(() -> {
+            try {
+                seedClient.restore(user.id(), user.spec());
+                profileStats.recycled(true);
+                idle.get(user.profile()).add(user);
+            } catch (RuntimeException e) {
+                profileStats.recycled(false);
+                System.err.println("Warning: could not recycle pooled user " + user.username() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * One line per profile: size, leases, time spent waiting for a free account, recycling
+     * results and accounts currently leased or out of rotation.
+     */
+    public List<String> healthReport() {
+        List<String> lines = new ArrayList<>();
+        lines.add("provisioned " + perProfile + " per profile in " + provisionMillis + " ms");
+        for (UserProfile profile : UserProfile.values()) {
+            lines.add(profile + ": " + stats.get(profile).describe(idle.get(profile).size()));
+        }
+        return lines;
+    }
+
+    private final class ProfileStats {
+        private int leases;
+        private int leased;
+        private int maxLeased;
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+        private int recycled;
+        private int quarantined;
+        private int timeouts;
+
+        synchronized void leased(long waitMillis) {
+            leases++;
+            leased++;
+            maxLeased = Math.max(maxLeased, leased);
+            totalWaitMillis += waitMillis;
+            maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+        }
+
+        synchronized void returned() {
+            leased--;
+        }
+
+        synchronized void recycled(boolean ok) {
+            if (ok) {
+                recycled++;
+            } else {
+                quarantined++;
+            }
+        }
+
+        synchronized void timedOut() {
+            timeouts++;
+        }
+
+        synchronized String describe(int idleCount) {
+            return leases + " lease(s), peak " + maxLeased + "/" + perProfile + " in use, "
+                    + "wait total " + totalWaitMillis + " ms (max " + maxWaitMillis + " ms), "
+                    + recycled + " recycled, " + quarantined + " out of rotation, "
+                    + timeouts + " lease timeout(s), " + idleCount + " idle";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.secureauthai.support;
+
+/**
+ * Kinds of pooled test accounts. A recycled account is restored to its profile, so a test
+ * may register extra credentials or lock the account without affecting the next lease.
+ */
+public enum UserProfile {
+    /** Password login only; biometric and face tabs show the register buttons. */
+    PASSWORD_ONLY("password", false, false),
+    /** Password plus a registered biometric credential. */
+    BIOMETRIC("biometric", true, false),
+    /** Password plus a registered face credential. */
+    FACE("face", false, true),
+    /** Biometric account meant to be driven into lockout; comes back unlocked. */
+    LOCKOUT("lockout", true, false);
+
+    private static final String PASSWORD = "PoolPass123!";
+
+    private final String slug;
+    private final boolean biometric;
+    private final boolean face;
+
+    UserProfile(String slug, boolean biometric, boolean face) {
+        this.slug = slug;
+        this.biometric = biometric;
+        this.face = face;
+    }
+
+    /**
+     * Spec of the {@code index}-th account of this profile. Names are stable across runs so
+     * reseeding reuses the same rows instead of growing the users table.
+     */
+    UserSpec spec(String prefix, int index) {
+        String username = prefix + "-" + slug + "-" + index;
+        UserSpec spec = UserSpec.of(username + "@example.com", username, PASSWORD);
+        if (biometric) {
+            spec = spec.withBiometric();
+        }
+        if (face) {
+            spec = spec.withFace();
+        }
+        return spec;
+    }
+}
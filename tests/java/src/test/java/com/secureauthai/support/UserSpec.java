@@ -0,0 +1,22 @@
+package com.secureauthai.support;
+
+/**
+ * A test account to seed: password login, plus optional biometric and face credentials.
+ */
+public record UserSpec(String email, String username, String password, boolean biometric, boolean face) {
+
+    /**
+     * Account with password login only.
+     */
+    public static UserSpec of(String email, String username, String password) {
+        return new UserSpec(email, username, password, false, false);
+    }
+
+    public UserSpec withBiometric() {
+        return new UserSpec(email, username, password, true, face);
+    }
+
+    public UserSpec withFace() {
+        return new UserSpec(email, username, password, biometric, true);
+    }
+}
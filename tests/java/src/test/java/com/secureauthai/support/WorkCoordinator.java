@@ -0,0 +1,372 @@
+package com.secureauthai.support;
+
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+
+/**
+ * Runs the test classes on N worker JVMs of this host, each with its own browser
+ * ({@link QueueWorker}). Workers take classes one at a time from one shared queue, so a worker
+ * that finishes early keeps taking the remaining classes instead of sitting idle behind a fixed
+ * split. The queue is ordered longest first from the durations in -Dcoordinator.history, a copy
+ * of earlier surefire reports outside target/ (where the coordinator writes this run's), as in
+ * {@link ShardPlan}, so the long classes do not end up last; classes without history go first.
+ * Without a history the queue is in class name order.
+ *
+ * Results stream back over a local socket per worker and are written as surefire reports
+ * (target/surefire-reports/TEST-{class}.xml) as each class finishes. A class whose worker dies
+ * or finishes no test for coordinator.testTimeout minutes is given to a fresh worker once more,
+ * then reported as an error. Exits with status 1 if any test failed.
+ *
+ * Started by the "distributed" Maven profile: mvn test -Pdistributed,headless
+ * [-Dcoordinator.workers=4] [-Dcoordinator.testTimeout=15] [-Dcoordinator.jvmArgs="-Xmx1g"].
+ * The settings the profile forwards to the coordinator are passed on to the workers; other
+ * -D settings given to Maven, such as -Dperf.budget.* or -Dsoak.limit.*, reach the workers
+ * only through coordinator.jvmArgs. Worker output goes to target/coordinator/worker-{N}.log.
+ */
+public final class WorkCoordinator {
+
+    private static final Path OUTPUT = Path.of("target", "coordinator");
+    private static final Path REPORTS = Path.of("target", "surefire-reports");
+    private static final String TESTS_PACKAGE = "com.secureauthai.tests";
+    // Same classes as surefire's include of **/*Test.java
+    private static final String TEST_CLASS_PATTERN = ".*Test";
+    private static final long STARTUP_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    // Launches of one worker slot, so a worker that cannot start does not loop forever
+    private static final int MAX_LAUNCHES = 4;
+    private static final Set<String> JVM_PROPERTY_PREFIXES = Set.of("java.", "jdk.", "sun.", "os.", "user.",
+            "file.", "line.", "path.", "native.", "stdout.", "stderr.", "awt.", "library.", "maven.", "classworlds.",
+            "coordinator.");
+
+    private final int workers;
+    private final long testTimeoutMillis;
+    private final int retries;
+    private final List<String> jvmArgs;
+    private final Deque<String> queue = new ArrayDeque<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private final Map<String, List<SurefireReport.Case>> results = new LinkedHashMap<>();
+    private final Map<Integer, WorkerStats> stats = new LinkedHashMap<>();
+    private int total;
+
+    private WorkCoordinator(int workers, long testTimeoutMillis, int retries, List<String> jvmArgs) {
+        this.workers = workers;
+        this.testTimeoutMillis = testTimeoutMillis;
+        this.retries = retries;
+        this.jvmArgs = jvmArgs;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int workers = Math.max(1, TestConfig.intProperty("coordinator.workers",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+        String jvmArgs = System.getProperty("coordinator.jvmArgs", "").trim();
+        WorkCoordinator coordinator = new WorkCoordinator(workers,
+                TimeUnit.MINUTES.toMillis(Math.max(1, TestConfig.intProperty("coordinator.testTimeout", 15))),
+                Math.max(0, TestConfig.intProperty("coordinator.retries", 1)),
+                jvmArgs.isEmpty() ? List.of() : Arrays.asList(jvmArgs.split("\\s+")));
+        System.exit(coordinator.run() ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException {
+        List<String> classes = discover();
+        Path historyDirectory = ShardPlan.historyDirectory("coordinator.history");
+        Map<String, Double> history = historyDirectory == null ? Map.of() : ShardPlan.readHistory(historyDirectory);
+        classes.sort(Comparator.comparingDouble((String c) -> history.getOrDefault(c, Double.MAX_VALUE)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        queue.addAll(classes);
+        total = classes.size();
+        System.out.println("Running " + total + " test classes on " + workers + " workers, longest first"
+                + (history.isEmpty() ? " (no history yet)" : ""));
+        if (total == 0) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        List<Thread> slots = new ArrayList<>();
+        for (int slot = 1; slot <= Math.min(workers, total); slot++) {
+            int id = slot;
+            synchronized (this) {
+                stats.put(id, new WorkerStats());
+            }
+            Thread thread = new Thread(() -> runSlot(id), "coordinator-worker-" + id);
+            thread.start();
+            slots.add(thread);
+        }
+        for (Thread thread : slots) {
+            thread.join();
+        }
+        synchronized (this) {
+            for (String testClass : queue) {
+                // Left over only when no worker could be started
+                report(testClass, 0, new ArrayList<>(List.of(lost(testClass, "no worker could be started"))), 0);
+            }
+            queue.clear();
+        }
+        return summarize((System.nanoTime() - start) / 1e9);
+    }
+
+    // Classes of the tests package that surefire would run with the same groups and excludedGroups
+    private static List<String> discover() {
+        List<Filter<?>> filters = new ArrayList<>(ShardFilter.tagFilters(System.getProperty("groups", ""),
+                System.getProperty("excludedGroups", "")));
+        filters.add(ClassNameFilter.includeClassNamePatterns(TEST_CLASS_PATTERN));
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectPackage(TESTS_PACKAGE))
+                .filters(filters.toArray(new Filter<?>[0]))
+                .build();
+        // Auto-registered post-discovery filters stay on, so -Dshard.count also splits a distributed run
+        TestPlan plan = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .build()).discover(request);
+        Set<String> classes = new TreeSet<>();
+        for (TestIdentifier root : plan.getRoots()) {
+            for (TestIdentifier child : plan.getChildren(root)) {
+                child.getSource().filter(ClassSource.class::isInstance)
+                        .ifPresent(source -> classes.add(((ClassSource) source).getClassName()));
+            }
+        }
+        return new ArrayList<>(classes);
+    }
+
+    // One worker at a time in this slot; a replacement is started when one is lost and work is left
+    private void runSlot(int id) {
+        for (int launch = 1; launch <= MAX_LAUNCHES && hasWork(); launch++) {
+            if (serve(id)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts a worker and feeds it classes until the queue is empty; false if the worker was
+     * lost on the way.
+     */
+    private boolean serve(int id) {
+        String running = null;
+        List<SurefireReport.Case> cases = new ArrayList<>();
+        Process process = null;
+        boolean stopped = false;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            process = launch(id, server.getLocalPort());
+            try (Socket socket = accept(server, process);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+                socket.setSoTimeout((int) STARTUP_MILLIS);
+                if (!"READY".equals(in.readLine())) {
+                    System.err.println("Worker " + id + " did not start; see " + log(id));
+                    return false;
+                }
+                socket.setSoTimeout((int) testTimeoutMillis);
+                while ((running = next()) != null) {
+                    cases = new ArrayList<>();
+                    out.println("RUN " + running);
+                    double seconds = -1;
+                    String line;
+                    while (seconds < 0 && (line = in.readLine()) != null) {
+                        if (line.startsWith("CASE ")) {
+                            cases.add(SurefireReport.Case.decode(line.substring("CASE ".length())));
+                        } else if (line.startsWith("FINISHED ")) {
+                            seconds = Double.parseDouble(line.substring("FINISHED ".length()));
+                        }
+                    }
+                    if (seconds < 0) {
+                        workerLost(id, running, cases, "worker " + id + " exited");
+                        return false;
+                    }
+                    report(running, id, cases, seconds);
+                }
+                out.println("STOP");
+            }
+            stopped = true;
+            return true;
+        } catch (SocketTimeoutException e) {
+            if (running != null) {
+                workerLost(id, running, cases, "worker " + id + " finished no test for "
+                        + TimeUnit.MILLISECONDS.toMinutes(testTimeoutMillis) + " minutes");
+            } else {
+                System.err.println("Worker " + id + " did not connect; see " + log(id));
+            }
+            return false;
+        } catch (IOException | RuntimeException e) {
+            if (running != null) {
+                workerLost(id, running, cases, "worker " + id + " lost: " + e);
+            } else {
+                System.err.println("Worker " + id + " failed: " + e);
+            }
+            return false;
+        } finally {
+            stop(process, stopped);
+        }
+    }
+
+    // Waits for the worker to connect, giving up early when its JVM has already exited
+    private static Socket accept(ServerSocket server, Process process) throws IOException {
+        server.setSoTimeout(1000);
+        long deadline = System.currentTimeMillis() + STARTUP_MILLIS;
+        while (true) {
+            try {
+                return server.accept();
+            } catch (SocketTimeoutException e) {
+                if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Process launch(int id, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        for (String name : new TreeSet<>(System.getProperties().stringPropertyNames())) {
+            if (JVM_PROPERTY_PREFIXES.stream().noneMatch(name::startsWith)) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        // One browser per worker, and own pool accounts so workers never share an identity;
+        // sharding was already applied to the queue
+        command.add("-Dbrowser.lifecycle=per-worker");
+        command.add("-Dparallel=false");
+        command.add("-Dpool.prefix=" + System.getProperty("pool.prefix", "pool") + "-w" + id);
+        command.add("-Dshard.count=1");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(QueueWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(id));
+        Files.createDirectories(OUTPUT);
+        File log = log(id).toFile();
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+    }
+
+    // A stopped worker gets time to quit its browser; a lost one is killed
+    private static void stop(Process process, boolean stopped) {
+        if (process == null) {
+            return;
+        }
+        try {
+            if (!stopped || !process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path log(int id) {
+        return OUTPUT.resolve("worker-" + id + ".log");
+    }
+
+    private synchronized boolean hasWork() {
+        return !queue.isEmpty();
+    }
+
+    private synchronized String next() {
+        return queue.pollFirst();
+    }
+
+    // Retried on the next free worker, or reported with the results it had so far
+    private synchronized void workerLost(int id, String testClass, List<SurefireReport.Case> cases, String reason) {
+        int attempt = attempts.merge(testClass, 1, Integer::sum);
+        if (attempt <= retries) {
+            System.err.println("Requeueing " + testClass + ": " + reason + "; see " + log(id));
+            queue.addFirst(testClass);
+            return;
+        }
+        List<SurefireReport.Case> reported = new ArrayList<>(cases);
+        reported.add(lost(testClass, reason + "; see " + log(id)));
+        report(testClass, id, reported, reported.stream().mapToDouble(SurefireReport.Case::seconds).sum());
+    }
+
+    private static SurefireReport.Case lost(String testClass, String reason) {
+        return new SurefireReport.Case(testClass.substring(testClass.lastIndexOf('.') + 1), testClass, 0,
+                SurefireReport.Status.ERROR, reason, "WorkerLost", null);
+    }
+
+    private synchronized void report(String testClass, int id, List<SurefireReport.Case> cases, double seconds) {
+        results.put(testClass, cases);
+        try {
+            SurefireReport.write(REPORTS, testClass, seconds, cases, Map.of("worker", String.valueOf(id)));
+        } catch (RuntimeException e) {
+            System.err.println("Warning: " + e.getMessage());
+        }
+        WorkerStats worker = stats.get(id);
+        if (worker != null) {
+            worker.classes++;
+            worker.seconds += seconds;
+        }
+        long failed = SurefireReport.count(cases, SurefireReport.Status.FAILURE)
+                + SurefireReport.count(cases, SurefireReport.Status.ERROR);
+        System.out.println(String.format(Locale.ROOT, "[%d/%d] worker %d: %s, %d tests, %d failed, %.1f s",
+                results.size(), total, id, testClass.substring(testClass.lastIndexOf('.') + 1), cases.size(),
+                failed, seconds));
+    }
+
+    private synchronized boolean summarize(double wallSeconds) {
+        List<SurefireReport.Case> all = results.values().stream().flatMap(List::stream).toList();
+        long failures = SurefireReport.count(all, SurefireReport.Status.FAILURE);
+        long errors = SurefireReport.count(all, SurefireReport.Status.ERROR);
+        System.out.println(String.format(Locale.ROOT, "Tests run: %d, Failures: %d, Errors: %d, Skipped: %d, wall time %.0f s",
+                all.size(), failures, errors, SurefireReport.count(all, SurefireReport.Status.SKIPPED), wallSeconds));
+        for (Map.Entry<Integer, WorkerStats> worker : stats.entrySet()) {
+            System.out.println(String.format(Locale.ROOT, "  worker %d: %d classes, busy %.0f s (%.0f%%)",
+                    worker.getKey(), worker.getValue().classes, worker.getValue().seconds,
+                    wallSeconds > 0 ? 100 * worker.getValue().seconds / wallSeconds : 0));
+        }
+        for (Map.Entry<String, List<SurefireReport.Case>> result : results.entrySet()) {
+            for (SurefireReport.Case test : result.getValue()) {
+                if (test.status() == SurefireReport.Status.FAILURE || test.status() == SurefireReport.Status.ERROR) {
+                    // Failed fixtures are reported under the class name itself
+                    String name = test.name().equals(result.getKey()) ? result.getKey() : result.getKey() + "." + test.name();
+                    System.out.println("  " + test.status().name().toLowerCase(Locale.ROOT) + ": " + name + ": "
+                            + test.message());
+                }
+            }
+        }
+        System.out.println("Reports in " + REPORTS + ", worker logs in " + OUTPUT);
+        return failures + errors == 0;
+    }
+
+    private static final class WorkerStats {
+        private int classes;
+        private double seconds;
+    }
+}
@@ -0,0 +1,191 @@
+package com.secureauthai.support;
+
+import com.secureauthai.jfr.HarnessEvents;
+import com.secureauthai.pages.LoginPage;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The browser owned by the current test worker thread.
+ *
+ * Each JUnit worker thread holds at most one WebDriver and one LoginPage bound to it,
+ * so tests running concurrently never share a driver. Drivers are not thread-safe;
+ * nothing outside the owning thread should touch them.
+ *
+ * Depending on {@link BrowserLifecycle}, the browser is either quit after every test or
+ * kept for the next test on the same worker and reset through {@link BrowserStateReset}.
+ * The test bootstrap ({@link TestBootstrap}) is registered once at launch and survives both,
+ * as does the browser's {@link NetworkTracker}, which starts each test with no requests.
+ * When a {@link BrowserDaemon} is running, a launch leases one of its warm browsers instead,
+ * and quitting gives it back.
+ */
+public final class WorkerBrowser {
+
+    private static final ThreadLocal<WorkerBrowser> CURRENT = new ThreadLocal<>();
+    private static final Set<WorkerBrowser> LIVE = ConcurrentHashMap.newKeySet();
+    private static final BrowserLifecycle LIFECYCLE = BrowserLifecycle.fromProperty();
+
+    static {
+        // Reused browsers outlive the tests that started them; quit whatever is left at JVM exit
+        Runtime.getRuntime().addShutdownHook(new Thread(WorkerBrowser::quitAll, "worker-browser-shutdown"));
+    }
+
+    private final WebDriver driver;
+    private final LoginPage loginPage;
+    private final BrowserMocks mocks;
+    private final NetworkTracker network;
+    private final String baseUrl;
+    private final Class<?> ownerClass;
+    private int testsServed;
+
+    private WorkerBrowser(WebDriver driver, NetworkTracker network, String baseUrl, Class<?> ownerClass) {
+        this.driver = driver;
+        this.network = network;
+        this.baseUrl = baseUrl;
+        this.ownerClass = ownerClass;
+        this.loginPage = new LoginPage(driver, baseUrl, network == null ? null : network::awaitCredentialCheck);
+        this.mocks = new BrowserMocks(driver);
+    }
+
+    /**
+     * Starts a browser for the calling thread, replacing any browser it still holds.
+     */
+    public static WorkerBrowser acquire(String baseUrl) {
+        return launch(baseUrl, null);
+    }
+
+    /**
+     * Returns a clean browser for a test of {@code testClass} on the calling thread.
+     * Reuses the thread's current browser when the lifecycle allows it and the reset
+     * succeeds; otherwise launches a fresh one.
+     */
+    public static WorkerBrowser lease(String baseUrl, Class<?> testClass) {
+        WorkerBrowser current = CURRENT.get();
+        if (current != null && current.reusableFor(baseUrl, testClass)) {
+            try {
+                BrowserStateReset.reset(current.driver, baseUrl);
+                if (current.network != null) {
+                    current.network.reset();
+                }
+                current.testsServed++;
+                return current;
+            } catch (Exception e) {
+                System.err.println("Warning: browser reset failed, relaunching: " + e.getMessage());
+            }
+        }
+        return launch(baseUrl, testClass);
+    }
+
+    /**
+     * Called after each test; quits the browser unless the lifecycle keeps it.
+     */
+    public static void finishTest() {
+        if (LIFECYCLE == BrowserLifecycle.PER_TEST) {
+            release();
+        }
+    }
+
+    /**
+     * Returns the calling thread's browser, or null if it has none.
+     */
+    public static WorkerBrowser current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Quits the calling thread's browser, if any.
+     */
+    public static void release() {
+        WorkerBrowser browser = CURRENT.get();
+        CURRENT.remove();
+        if (browser != null) {
+            browser.quit();
+        }
+    }
+
+    public static BrowserLifecycle lifecycle() {
+        return LIFECYCLE;
+    }
+
+    private static WorkerBrowser launch(String baseUrl, Class<?> testClass) {
+        release();
+        // A warm daemon browser comes reset and with the bootstrap already registered
+        WebDriver driver = BrowserDaemon.lease(baseUrl);
+        if (driver == null) {
+            driver = DriverFactory.createChromeDriver();
+            // Once per browser: every document it loads from now on starts with the test mocks
+            TestBootstrap.install(driver);
+        }
+        WorkerBrowser browser = new WorkerBrowser(driver, NetworkTracker.attach(driver), baseUrl, testClass);
+        browser.testsServed = 1;
+        LIVE.add(browser);
+        CURRENT.set(browser);
+        return browser;
+    }
+
+    private static void quitAll() {
+        for (WorkerBrowser browser : LIVE) {
+            browser.quit();
+        }
+    }
+
+    private boolean reusableFor(String url, Class<?> testClass) {
+        if (!baseUrl.equals(url)) {
+            return false;
+        }
+        switch (LIFECYCLE) {
+            case PER_WORKER:
+                return true;
+            case PER_CLASS:
+                return ownerClass != null && ownerClass.equals(testClass);
+            default:
+                return false;
+        }
+    }
+
+    private void quit() {
+        LIVE.remove(this);
+        HarnessEvents.BrowserQuit event = new HarnessEvents.BrowserQuit();
+        event.begin();
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Warning: could not quit browser: " + e.getMessage());
+        }
+        event.testsServed = testsServed;
+        event.commit();
+    }
+
+    public WebDriver driver() {
+        return driver;
+    }
+
+    public LoginPage loginPage() {
+        return loginPage;
+    }
+
+    public BrowserMocks mocks() {
+        return mocks;
+    }
+
+    /**
+     * The browser's network tracker. Throws IllegalStateException if the driver has no
+     * DevTools connection to track with.
+     */
+    public NetworkTracker network() {
+        if (network == null) {
+            throw new IllegalStateException("No network tracking for this browser: " + driver.getClass().getName());
+        }
+        return network;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public int testsServed() {
+        return testsServed;
+    }
+}
@@ -0,0 +1,70 @@
+package com.secureauthai.support;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * JUnit parallel strategy that sizes the worker pool from {@link TestConfig#parallelWorkers()},
+ * or from the machine's limits under {@link AdaptiveConcurrency}.
+ *
+ * The pool is capped at exactly that many threads (no compensation threads), because every
+ * worker thread owns a real Chrome process and an unbounded ForkJoinPool would start extra
+ * browsers whenever a worker blocks.
+ */
+public class WorkerParallelism implements ParallelExecutionConfigurationStrategy {
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        if (AdaptiveConcurrency.enabled()) {
+            // Sized for the most browsers the machine can hold; the controller decides how many run
+            int workers = AdaptiveConcurrency.shared().ceiling();
+            System.out.println("Parallel execution: up to " + workers + " browser worker(s), adaptive");
+            return new FixedConfiguration(workers);
+        }
+        int workers = Math.max(1, TestConfig.parallelWorkers());
+        System.out.println("Parallel execution: " + workers + " browser worker(s)");
+        return new FixedConfiguration(workers);
+    }
+
+    private static final class FixedConfiguration implements ParallelExecutionConfiguration {
+        private final int workers;
+
+        FixedConfiguration(int workers) {
+            this.workers = workers;
+        }
+
+        @Override
+        public int getParallelism() {
+            return workers;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return workers;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return workers;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return workers;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return 30;
+        }
+
+        @Override
+        public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+            return pool -> true;
+        }
+    }
+}
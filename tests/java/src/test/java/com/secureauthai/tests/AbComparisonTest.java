@@ -0,0 +1,102 @@
+package com.secureauthai.tests;
+
+import com.secureauthai.pages.StepTimer;
+import com.secureauthai.pages.StepTimer.StepTiming;
+import com.secureauthai.support.AbComparison;
+import com.secureauthai.support.AbComparison.Arm;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.RunSummary;
+import com.secureauthai.support.TestConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A/B comparison: runs the same journeys against a baseline and a candidate frontend build and
+ * fails when the candidate is significantly slower on any step, so the Maven run exits non-zero.
+ *
+ * The builds take turns in every round, in alternating order (baseline first, then candidate
+ * first), so drift on the machine or the backend lands on both. Both builds must use the same
+ * backend, since the journeys sign in with pooled users.
+ *
+ * Not part of the normal run; start it with the "compare" Maven profile:
+ * mvn test -Pcompare,headless -Dcompare.candidate=https://candidate.example.com
+ * [-Dcompare.baseline=URL (defaults to baseUrl)] [-Dcompare.journeys=biometric,password]
+ * [-Dcompare.runs=12] [-Dcompare.warmup=1] [-Dcompare.alpha=0.05] [-Dcompare.threshold=10].
+ * The table is printed in the run summary and written to target/ab-comparison.csv.
+ */
+@Tag("compare")
+@DisplayName("A/B comparison")
+@Execution(ExecutionMode.SAME_THREAD)
+public class AbComparisonTest extends BaseTest {
+
+    private static final int RUNS = Math.max(1, TestConfig.intProperty("compare.runs", 12));
+    private static final int WARMUP = Math.max(0, TestConfig.intProperty("compare.warmup", 1));
+    private static final AbComparison COMPARISON = new AbComparison(
+            TestConfig.doubleProperty("compare.alpha", 0.05), TestConfig.doubleProperty("compare.threshold", 10));
+
+    static Stream<Journey> journeys() {
+        String names = System.getProperty("compare.journeys", "");
+        if (names.isBlank()) {
+            return Arrays.stream(Journey.values());
+        }
+        return Arrays.stream(names.split(",")).map(Journey::parse);
+    }
+
+    @BeforeAll
+    static void registerReport() {
+        RunSummary.addSection("A/B comparison (baseline " + url(Arm.BASELINE) + ", candidate " + url(Arm.CANDIDATE) + ")",
+                COMPARISON::table);
+    }
+
+    @AfterAll
+    static void exportCsv() {
+        COMPARISON.writeCsv(Path.of("target", "ab-comparison.csv"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("journeys")
+    void candidateIsNotSlower(Journey journey) {
+        Map<Arm, String> urls = Map.of(Arm.BASELINE, url(Arm.BASELINE), Arm.CANDIDATE, url(Arm.CANDIDATE));
+        PooledUser user = leaseUser(journey.userProfile);
+        StepTimer timer = new StepTimer(driver);
+        for (int round = 0; round < WARMUP + RUNS; round++) {
+            List<Arm> order = round % 2 == 0 ? List.of(Arm.BASELINE, Arm.CANDIDATE) : List.of(Arm.CANDIDATE, Arm.BASELINE);
+            for (Arm arm : order) {
+                List<StepTiming> timings = journey.run(driver, loginPage, urls.get(arm), timer, user);
+                loginPage.signOut();
+                // Warmup rounds fill both builds' caches and are not counted
+                if (round >= WARMUP) {
+                    timings.forEach(timing -> COMPARISON.record(journey.name(), arm, timing));
+                }
+            }
+        }
+        List<String> regressions = COMPARISON.regressions(journey.name());
+        Assertions.assertTrue(regressions.isEmpty(),
+                () -> "Candidate build regressed:\n  " + String.join("\n  ", regressions));
+    }
+
+    private static String url(Arm arm) {
+        if (arm == Arm.BASELINE) {
+            String baseline = System.getProperty("compare.baseline", "");
+            return baseline.isBlank() ? TestConfig.baseUrl() : baseline.trim();
+        }
+        String candidate = System.getProperty("compare.candidate", "");
+        if (candidate.isBlank()) {
+            throw new IllegalStateException("Set -Dcompare.candidate to the base URL of the candidate build");
+        }
+        return candidate.trim();
+    }
+}
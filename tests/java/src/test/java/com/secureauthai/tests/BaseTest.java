@@ -1,127 +1,205 @@
 package com.secureauthai.tests;
 
+import com.secureauthai.pages.ActionTimings;
+import com.secureauthai.pages.AuthOutcome;
 import com.secureauthai.pages.LoginPage;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.secureauthai.support.AdaptiveConcurrency;
+import com.secureauthai.support.AuthenticatorSpec;
+import com.secureauthai.support.BiometricAuthenticator;
+import com.secureauthai.support.BrowserMocks;
+import com.secureauthai.support.DriverFactory;
+import com.secureauthai.support.NetworkFaults;
+import com.secureauthai.support.NetworkTracker;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.SeedClient;
+import com.secureauthai.support.SessionFixture;
+import com.secureauthai.support.TestConfig;
+import com.secureauthai.support.UserPool;
+import com.secureauthai.support.UserProfile;
+import com.secureauthai.support.WorkerBrowser;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class BaseTest {
     protected WebDriver driver;
     protected String baseUrl;
     protected LoginPage loginPage;
+    protected BrowserMocks mocks;
+    private WorkerBrowser browser;
+    private String testName;
+    private final List<PooledUser> leasedUsers = new ArrayList<>();
+    private BiometricAuthenticator authenticator;
+    private NetworkFaults networkFaults;
 
     @BeforeAll
     static void setupDriver() {
-        WebDriverManager.chromedriver().setup();
+        DriverFactory.setupDriverBinary();
     }
 
     @BeforeEach
-    void start() {
-        ChromeOptions options = new ChromeOptions();
-        // Run headful (not headless) and at a decent size for visibility
-        options.addArguments("--window-size=1440,900");
-        // Allow insecure localhost for WebAuthn testing
-        options.addArguments("--allow-running-insecure-content");
-        options.addArguments("--disable-web-security");
-        options.addArguments("--ignore-certificate-errors");
-        // Enable media devices for face recognition testing
-        options.addArguments("--use-fake-ui-for-media-stream");
-        options.addArguments("--use-fake-device-for-media-stream");
-        
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        String configured = System.getProperty("baseUrl");
-        if (configured == null || configured.trim().isEmpty()) {
-            String env = System.getenv("BASE_URL");
-            if (env == null || env.trim().isEmpty()) {
-                baseUrl = "http://localhost:8081"; // default
-            } else {
-                baseUrl = env.trim();
-            }
-        } else {
-            baseUrl = configured.trim();
-        }
-        
-        // Initialize LoginPage
-        loginPage = new LoginPage(driver, baseUrl);
-        
-        // Inject test initialization script
-        injectTestScript();
+    void start(TestInfo testInfo) {
+        baseUrl = TestConfig.baseUrl();
+        // LoginPage actions from here on are timed under this test's name
+        testName = getClass().getSimpleName() + "."
+                + testInfo.getTestMethod().map(Method::getName).orElse(testInfo.getDisplayName());
+        ActionTimings.startTest(testName);
+
+        // Under -Dconcurrency.adaptive, waits until the controller lets one more browser run
+        AdaptiveConcurrency.admit();
+        // Each worker thread owns its browser and LoginPage; reused browsers come back reset
+        browser = WorkerBrowser.lease(baseUrl, getClass());
+        driver = browser.driver();
+        loginPage = browser.loginPage();
+        mocks = browser.mocks();
+
+        // test-init.js is registered with the browser and runs before the app's scripts
+        loginPage.open();
     }
     
-    private void injectTestScript() {
-        try {
-            // Navigate to the page first
-            driver.get(baseUrl);
-            Thread.sleep(1000);
-            
-            // Execute script to set up test environment
-            String script = """
-                // Enable test mode
-                window.__SELENIUM_TEST_MODE__ = true;
-                
-                // Mock camera access for Face ID
-                if (navigator.mediaDevices) {
-                  const originalGetUserMedia = navigator.mediaDevices.getUserMedia;
-                  
-                  navigator.mediaDevices.getUserMedia = async function(constraints) {
-                    console.log('🧪 Mock camera access granted for Selenium tests');
-                    
-                    // Create a mock video stream
-                    const canvas = document.createElement('canvas');
-                    canvas.width = 640;
-                    canvas.height = 480;
-                    const ctx = canvas.getContext('2d');
-                    
-                    if (ctx) {
-                      ctx.fillStyle = '#f0c674';
-                      ctx.fillRect(0, 0, 640, 480);
-                      ctx.fillStyle = '#000000';
-                      ctx.fillRect(200, 150, 60, 60);
-                      ctx.fillRect(380, 150, 60, 60);
-                      ctx.fillRect(280, 280, 80, 40);
-                    }
-                    
-                    const stream = canvas.captureStream(30);
-                    return Promise.resolve(stream);
-                  };
-                }
-                
-                // Override PublicKeyCredential availability
-                if (window.PublicKeyCredential) {
-                  window.PublicKeyCredential.isUserVerifyingPlatformAuthenticatorAvailable = async function() {
-                    console.log('🧪 Mock: Biometric authenticator available');
-                    return true;
-                  };
-                }
-                
-                // Add visual indicator
-                const indicator = document.createElement('div');
-                indicator.innerHTML = '🧪 TEST MODE - Biometrics Mocked';
-                indicator.style.cssText = 'position:fixed;top:0;right:0;background:#ff6b6b;color:white;padding:5px;z-index:9999;font-size:12px;';
-                document.body.appendChild(indicator);
-                
-                console.log('✅ Selenium test mode initialized with biometric mocks');
-                """;
-            
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(script);
-            
-        } catch (Exception e) {
-            System.err.println("Warning: Could not inject test script: " + e.getMessage());
+    /**
+     * Leases an account of {@code profile} for this test only; it goes back to the pool
+     * after the test.
+     */
+    protected PooledUser leaseUser(UserProfile profile) {
+        PooledUser user = UserPool.shared().lease(profile);
+        leasedUsers.add(user);
+        return user;
+    }
+    
+    /**
+     * Leases an account of {@code profile} and opens the app already signed in as it,
+     * skipping the login UI.
+     */
+    protected PooledUser startSignedIn(UserProfile profile) {
+        PooledUser user = leaseUser(profile);
+        SessionFixture.shared().signIn(driver, loginPage.waits(), baseUrl, user);
+        return user;
+    }
+    
+    /**
+     * Replaces the WebAuthn mocks with a Chrome virtual authenticator for this test, so
+     * biometric ceremonies run for real. Removed again after the test.
+     */
+    protected BiometricAuthenticator attachAuthenticator(AuthenticatorSpec spec) {
+        if (authenticator != null) {
+            throw new IllegalStateException("A virtual authenticator is already attached for this test");
         }
+        authenticator = BiometricAuthenticator.attach(driver, baseUrl, mocks, SeedClient.fromConfig(), spec);
+        return authenticator;
     }
 
-    @AfterEach
-    void stop() {
-        if (driver != null) {
-            driver.quit();
+    /**
+     * Network fault injection for this test's browser; every fault is removed after the test.
+     */
+    protected NetworkFaults networkFaults() {
+        if (networkFaults == null) {
+            networkFaults = NetworkFaults.attach(driver);
         }
+        return networkFaults;
     }
-}
 
+    /**
+     * Fetch/XHR traffic of this test's browser, for waiting on auth requests instead of sleeping.
+     */
+    protected NetworkTracker network() {
+        return browser.network();
+    }
+
+    /**
+     * Runs {@code action}, then waits until the auth requests it started have finished and the
+     * page has made no new one for {@link NetworkTracker#DEFAULT_QUIET}. For an action whose
+     * result shows on the page, {@link #awaitCeremony} or {@link #awaitPasswordLogin} end
+     * sooner.
+     */
+    protected void awaitAuthRequests(Runnable action) {
+        long mark = network().mark();
+        action.run();
+        network().awaitQuiet(mark);
+    }
+
+    /**
+     * Clicks a biometric or face button and waits for the ceremony it started to end, however
+     * long the mocks or the network take; returns how it ended.
+     */
+    protected AuthOutcome awaitCeremony(Runnable click) {
+        click.run();
+        return loginPage.waits().forCeremonyResult();
+    }
 
+    /**
+     * Submits the password form and waits for the app's answer, as
+     * {@link com.secureauthai.pages.WaitEngine#forPasswordLoginResult()} reports it.
+     */
+    protected String awaitPasswordLogin() {
+        loginPage.submitPassword();
+        return loginPage.waits().forPasswordLoginResult();
+    }
+
+    @AfterEach
+    void stop(TestInfo testInfo) {
+        // Report how long this test actually spent waiting on the app
+        List<String> overBudget = List.of();
+        try {
+            if (loginPage != null) {
+                loginPage.waits().printSummary(testInfo.getDisplayName());
+                // Performance samples (-Dperf.metrics=true) are saved per test and fail it when over budget
+                overBudget = loginPage.performance().finishTest(testName, Path.of("target", "perf"));
+            }
+        } finally {
+            // Every release runs on its own, so a failure in one cannot leak a permit, browser or user
+            if (authenticator != null) {
+                try {
+                    authenticator.detach();
+                } catch (Exception e) {
+                    System.err.println("Warning: could not remove virtual authenticator: " + e.getMessage());
+                }
+                authenticator = null;
+            }
+            if (networkFaults != null) {
+                try {
+                    networkFaults.detach();
+                } catch (Exception e) {
+                    System.err.println("Warning: could not clear network faults: " + e.getMessage());
+                }
+                networkFaults = null;
+            }
+            try {
+                ActionTimings.endTest();
+            } catch (RuntimeException e) {
+                System.err.println("Warning: could not close action timings: " + e.getMessage());
+            }
+            try {
+                WorkerBrowser.finishTest();
+            } catch (RuntimeException e) {
+                System.err.println("Warning: could not hand back the browser: " + e.getMessage());
+            }
+            try {
+                AdaptiveConcurrency.leave();
+            } catch (RuntimeException e) {
+                System.err.println("Warning: could not release the concurrency permit: " + e.getMessage());
+            }
+            browser = null;
+            driver = null;
+            for (PooledUser user : leasedUsers) {
+                try {
+                    UserPool.shared().release(user);
+                } catch (RuntimeException e) {
+                    System.err.println("Warning: could not release " + user.email() + ": " + e.getMessage());
+                }
+            }
+            leasedUsers.clear();
+        }
+        if (!overBudget.isEmpty()) {
+            Assertions.fail("Performance budget exceeded:\n  " + String.join("\n  ", overBudget));
+        }
+    }
+}
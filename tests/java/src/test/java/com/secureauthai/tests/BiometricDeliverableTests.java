@@ -1,10 +1,22 @@
 package com.secureauthai.tests;
 
+import com.secureauthai.pages.AuthOutcome;
+import com.secureauthai.support.AuthenticatorSpec;
+import com.secureauthai.support.BiometricAuthenticator;
+import com.secureauthai.support.CeremonyStep;
+import com.secureauthai.support.MockMode;
+import com.secureauthai.support.NetworkFault;
+import com.secureauthai.support.NetworkFaults;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 /**
  * Comprehensive Selenium tests for all 5 required deliverables:
@@ -15,41 +27,39 @@ import org.junit.jupiter.api.MethodOrderer;
  * e. Network interruption during bioauthentication
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Execution(ExecutionMode.SAME_THREAD)
 public class BiometricDeliverableTests extends BaseTest {
 
     @Test
     @Order(1)
     @DisplayName("A. Fallback from Bioauthentication to Password")
-    void testBiometricToPasswordFallback() throws InterruptedException {
+    void testBiometricToPasswordFallback() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
         System.out.println("=== DELIVERABLE A: Fallback from Bioauthentication to Password ===");
         System.out.println("Testing complete fallback mechanism when biometric authentication fails");
         
         // Navigate to biometric authentication
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
         System.out.println("✓ Switched to biometric authentication tab");
         
         // Enter test user credentials
-        loginPage.enterBiometricUsername("etornam.koko");
-        Thread.sleep(2000);
-        System.out.println("✓ Entered username: etornam.koko");
+        loginPage.enterBiometricUsername(user.username());
+        loginPage.waits().forBiometricButton();
+        System.out.println("✓ Entered username: " + user.username());
         
         // Attempt biometric authentication (will fail in test mode)
         System.out.println("→ Attempting biometric authentication (expecting failure)...");
         if (loginPage.isAuthenticateButtonPresent()) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(4000); // Wait for failure
+            awaitCeremony(loginPage::clickBiometricAuth); // Wait for failure
             System.out.println("✓ Biometric authentication failed as expected");
         } else if (loginPage.isRegisterButtonPresent()) {
-            loginPage.clickBiometricPrimary();
-            Thread.sleep(4000);
+            awaitCeremony(loginPage::clickBiometricPrimary);
             System.out.println("✓ Biometric registration failed as expected");
         }
         
         // Test automatic fallback suggestion
         System.out.println("→ Testing fallback to password authentication...");
         loginPage.switchToPassword();
-        Thread.sleep(2000);
         System.out.println("✓ Successfully switched to password tab");
         
         // Check if email is auto-populated (fallback feature)
@@ -58,13 +68,12 @@ public class BiometricDeliverableTests extends BaseTest {
             System.out.println("✅ FALLBACK SUCCESS: Email auto-populated: " + autoEmail);
         } else {
             System.out.println("→ Manual email entry required");
-            loginPage.enterEmail("etornam.koko@example.com");
+            loginPage.enterEmail(user.email());
         }
         
         // Complete password authentication as fallback
-        loginPage.enterPassword("12345678");
-        loginPage.submitPassword();
-        Thread.sleep(4000);
+        loginPage.enterPassword(user.password());
+        awaitPasswordLogin();
         
         System.out.println("✅ DELIVERABLE A COMPLETED: Successful fallback from biometric to password");
         System.out.println("=== End of Deliverable A ===\n");
@@ -73,7 +82,10 @@ public class BiometricDeliverableTests extends BaseTest {
     @Test
     @Order(2)
     @DisplayName("B. Bioauthentication Success and Failure Scenarios")
-    void testBiometricSuccessAndFailure() throws InterruptedException {
+    void testBiometricSuccessAndFailure() {
+        PooledUser user = leaseUser(UserProfile.PASSWORD_ONLY);
+        // Real WebAuthn ceremonies against Chrome's virtual authenticator
+        BiometricAuthenticator authenticator = attachAuthenticator(AuthenticatorSpec.defaults());
         System.out.println("=== DELIVERABLE B: Bioauthentication Success and Failure ===");
         System.out.println("Testing both successful and failed biometric authentication");
         
@@ -81,18 +93,19 @@ public class BiometricDeliverableTests extends BaseTest {
         System.out.println("→ Test 1: Successful Biometric Authentication");
         
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
         
-        String testUser = "biouser" + System.currentTimeMillis();
+        String testUser = user.username();
         loginPage.enterBiometricUsername(testUser);
-        Thread.sleep(2000);
+        loginPage.waits().forBiometricButton();
         System.out.println("✓ Entered test username: " + testUser);
         
         // Register biometric credentials
         if (loginPage.isRegisterButtonPresent()) {
             System.out.println("→ Registering biometric credentials...");
             loginPage.clickBiometricPrimary();
-            Thread.sleep(6000);
+            AuthOutcome registration = loginPage.waits().forCeremonyResult();
+            Assertions.assertTrue(registration.isSuccess(), "Biometric registration should succeed, got " + registration);
+            Assertions.assertEquals(1, authenticator.credentials().size(), "Authenticator should hold the new credential");
             System.out.println("✅ BIOMETRIC REGISTRATION SUCCESS!");
         }
         
@@ -100,43 +113,30 @@ public class BiometricDeliverableTests extends BaseTest {
         if (loginPage.isAuthenticateButtonPresent()) {
             System.out.println("→ Authenticating with biometric...");
             loginPage.clickBiometricAuth();
-            Thread.sleep(6000);
+            AuthOutcome authentication = loginPage.waits().forCeremonyResult();
+            Assertions.assertTrue(authentication.isSuccess(), "Biometric authentication should succeed, got " + authentication);
             System.out.println("✅ BIOMETRIC AUTHENTICATION SUCCESS!");
         }
         
         // Reset for failure test
-        driver.navigate().refresh();
-        Thread.sleep(2000);
+        loginPage.signOut();
         
         // Test 2: Failed Biometric Authentication
         System.out.println("→ Test 2: Failed Biometric Authentication");
         
-        // Inject failure mode for testing
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            // Override WebAuthn to always fail
-            if (navigator.credentials) {
-                navigator.credentials.create = async function() {
-                    throw new Error('Mock biometric failure');
-                };
-                navigator.credentials.get = async function() {
-                    throw new Error('Mock biometric failure');
-                };
-            }
-        """);
+        // The authenticator now refuses every ceremony
+        authenticator.setFailing(true);
         
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
-        loginPage.enterBiometricUsername("failuser");
-        Thread.sleep(2000);
+        loginPage.enterBiometricUsername(testUser);
+        loginPage.waits().forBiometricButton();
         
         System.out.println("→ Attempting biometric authentication (failure mode)...");
         if (loginPage.isRegisterButtonPresent()) {
-            loginPage.clickBiometricPrimary();
-            Thread.sleep(4000);
+            awaitCeremony(loginPage::clickBiometricPrimary);
             System.out.println("✅ BIOMETRIC REGISTRATION FAILURE!");
         } else if (loginPage.isAuthenticateButtonPresent()) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(4000);
+            awaitCeremony(loginPage::clickBiometricAuth);
             System.out.println("✅ BIOMETRIC AUTHENTICATION FAILURE!");
         }
         
@@ -147,39 +147,18 @@ public class BiometricDeliverableTests extends BaseTest {
     @Test
     @Order(3)
     @DisplayName("C. Lockout After Multiple Failed Bioauth Attempts")
-    void testBiometricLockoutAfterMultipleFailures() throws InterruptedException {
+    void testBiometricLockoutAfterMultipleFailures() {
+        PooledUser user = leaseUser(UserProfile.LOCKOUT);
         System.out.println("=== DELIVERABLE C: Lockout After Multiple Failed Attempts ===");
         System.out.println("Testing lockout mechanism after 3+ failed biometric attempts");
         
         // Inject failure mode for lockout testing
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            let attemptCount = 0;
-            
-            if (navigator.credentials) {
-                navigator.credentials.create = async function() {
-                    attemptCount++;
-                    console.log('Mock attempt:', attemptCount);
-                    if (attemptCount >= 4) {
-                        throw new Error('Account locked due to multiple failed attempts');
-                    }
-                    throw new Error('Mock biometric failure');
-                };
-                navigator.credentials.get = async function() {
-                    attemptCount++;
-                    console.log('Mock attempt:', attemptCount);
-                    if (attemptCount >= 4) {
-                        throw new Error('Account locked due to multiple failed attempts');
-                    }
-                    throw new Error('Mock biometric failure');
-                };
-            }
-        """);
+        mocks.set(MockMode.FAILURE);
         
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
         
-        loginPage.enterBiometricUsername("lockoutuser");
-        Thread.sleep(2000);
+        loginPage.enterBiometricUsername(user.username());
+        loginPage.waits().forBiometricButton();
         System.out.println("✓ Entered username for lockout testing");
         
         // Make exactly 3 failed biometric attempts to trigger lockout
@@ -189,34 +168,29 @@ public class BiometricDeliverableTests extends BaseTest {
             System.out.println("  → Biometric failure attempt " + attempt + " of 3");
             
             if (loginPage.isRegisterButtonPresent()) {
-                loginPage.clickBiometricPrimary();
-                Thread.sleep(3000);
+                awaitCeremony(loginPage::clickBiometricPrimary);
             } else if (loginPage.isAuthenticateButtonPresent()) {
-                loginPage.clickBiometricAuth();
-                Thread.sleep(3000);
+                awaitCeremony(loginPage::clickBiometricAuth);
             }
             
             System.out.println("    ✓ Attempt " + attempt + " failed as expected");
-            Thread.sleep(1000); // Brief pause between attempts
+            loginPage.waits().forBiometricButton(); // Next attempt once the button has settled
         }
         
         // Attempt 4th authentication - should trigger lockout
         System.out.println("→ Making 4th attempt to trigger lockout...");
         if (loginPage.isAuthenticateButtonPresent()) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(3000);
+            awaitCeremony(loginPage::clickBiometricAuth);
             System.out.println("✅ LOCKOUT TRIGGERED after 4 attempts");
         }
         
         // Test that password fallback is still available after lockout
         System.out.println("→ Testing password fallback availability after lockout...");
         loginPage.switchToPassword();
-        Thread.sleep(2000);
         
-        loginPage.enterEmail("lockoutuser@example.com");
-        loginPage.enterPassword("password123");
-        loginPage.submitPassword();
-        Thread.sleep(4000);
+        loginPage.enterEmail(user.email());
+        loginPage.enterPassword(user.password());
+        awaitPasswordLogin();
         
         System.out.println("✅ DELIVERABLE C COMPLETED: Lockout mechanism working, password fallback available");
         System.out.println("=== End of Deliverable C ===\n");
@@ -225,71 +199,49 @@ public class BiometricDeliverableTests extends BaseTest {
     @Test
     @Order(4)
     @DisplayName("D. Permissions Denial - Biometric Access Denied by OS")
-    void testBiometricPermissionsDenial() throws InterruptedException {
+    void testBiometricPermissionsDenial() {
         System.out.println("=== DELIVERABLE D: Permissions Denial (OS-level) ===");
         System.out.println("Testing biometric authentication when OS denies permissions");
         
         // Inject permission denial for testing
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            // Override WebAuthn to simulate permission denial
-            if (navigator.credentials) {
-                navigator.credentials.create = async function() {
-                    throw new DOMException('Permission denied', 'NotAllowedError');
-                };
-                navigator.credentials.get = async function() {
-                    throw new DOMException('Permission denied', 'NotAllowedError');
-                };
-            }
-            
-            // Override camera access to simulate permission denial
-            if (navigator.mediaDevices) {
-                navigator.mediaDevices.getUserMedia = async function() {
-                    throw new DOMException('Permission denied', 'NotAllowedError');
-                };
-            }
-        """);
+        mocks.set(MockMode.PERMISSION_DENIED);
         
         // Test biometric permission denial
         System.out.println("→ Testing biometric WebAuthn permission denial...");
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
         
         loginPage.enterBiometricUsername("permissionuser");
-        Thread.sleep(2000);
+        loginPage.waits().forBiometricButton();
         System.out.println("✓ Entered username for permission testing");
         
         // Attempt biometric registration with denied permissions
         System.out.println("→ Attempting biometric registration with denied permissions...");
         if (loginPage.isRegisterButtonPresent()) {
-            loginPage.clickBiometricPrimary();
-            Thread.sleep(4000); // Wait for permission denial
+            awaitCeremony(loginPage::clickBiometricPrimary); // Wait for permission denial
             System.out.println("✅ PERMISSIONS DENIED: Biometric registration blocked by OS");
         }
         
         // Test Face ID permission denial
         System.out.println("→ Testing Face ID camera permission denial...");
         loginPage.switchToFace();
-        Thread.sleep(2000);
         
-        loginPage.enterFaceUsername("faceuser");
-        Thread.sleep(2000);
+        // No face credential yet, so the tab offers registration
+        loginPage.enterFaceUsername(leaseUser(UserProfile.PASSWORD_ONLY).username());
+        loginPage.waits().forFaceButton();
         
         if (loginPage.isPresent(loginPage.FACE_REGISTER)) {
             System.out.println("→ Attempting Face ID registration with denied camera permissions...");
-            loginPage.clickFacePrimary();
-            Thread.sleep(4000); // Wait for camera permission denial
+            awaitCeremony(loginPage::clickFacePrimary); // Wait for camera permission denial
             System.out.println("✅ CAMERA PERMISSIONS DENIED: Face ID blocked by OS");
         }
         
         // Verify fallback to password works when permissions denied
         System.out.println("→ Testing password fallback when permissions denied...");
         loginPage.switchToPassword();
-        Thread.sleep(2000);
         
         loginPage.enterEmail("permissionuser@example.com");
         loginPage.enterPassword("password123");
-        loginPage.submitPassword();
-        Thread.sleep(4000);
+        awaitPasswordLogin();
         
         System.out.println("✅ DELIVERABLE D COMPLETED: Permission denial handled, fallback available");
         System.out.println("=== End of Deliverable D ===\n");
@@ -298,7 +250,9 @@ public class BiometricDeliverableTests extends BaseTest {
     @Test
     @Order(5)
     @DisplayName("E. Network Interruption During Bioauthentication")
-    void testNetworkInterruptionDuringBiometric() throws InterruptedException {
+    void testNetworkInterruptionDuringBiometric() {
+        // A real account without biometrics, so registration gets as far as the challenge request
+        PooledUser user = leaseUser(UserProfile.PASSWORD_ONLY);
         System.out.println("=== DELIVERABLE E: Network Interruption During Bioauthentication ===");
         System.out.println("Testing biometric authentication during network interruption");
         
@@ -306,48 +260,34 @@ public class BiometricDeliverableTests extends BaseTest {
         System.out.println("→ Test 1: Network interruption during biometric registration");
         
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
         
-        loginPage.enterBiometricUsername("networkuser");
-        Thread.sleep(2000);
+        loginPage.enterBiometricUsername(user.username());
+        loginPage.waits().forBiometricButton();
         System.out.println("✓ Entered username for network testing");
         
-        // Inject network failure simulation
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            // Override fetch to simulate network failure
-            window.originalFetch = window.fetch;
-            window.fetch = async function(url, options) {
-                if (url.includes('/api/') || url.includes('/webauthn/')) {
-                    throw new Error('Network error - connection interrupted');
-                }
-                return window.originalFetch(url, options);
-            };
-        """);
+        // Reset the connection of the registration's challenge request after it reached the server
+        NetworkFaults.Injected reset = networkFaults().inject(NetworkFault.reset().at(CeremonyStep.CHALLENGE));
         
         // Start registration, then simulate network failure
         if (loginPage.isRegisterButtonPresent()) {
             System.out.println("→ Starting biometric registration...");
             loginPage.clickBiometricPrimary();
-            Thread.sleep(1000);
+            NetworkFaults.Feedback feedback = reset.timeToFeedback(() -> loginPage.waits().forCeremonyResult());
             System.out.println("🌐 NETWORK INTERRUPTED during registration");
-            Thread.sleep(4000); // Wait for network error to manifest
-            System.out.println("✅ NETWORK INTERRUPTION HANDLED: Registration failed due to network");
+            System.out.println("✅ NETWORK INTERRUPTION HANDLED: " + feedback.outcome()
+                    + " shown " + feedback.elapsed().toMillis() + " ms after the reset");
         }
         
         // Test 2: Network recovery and successful authentication
         System.out.println("→ Test 2: Network recovery and retry");
         
         // Restore network
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            window.fetch = window.originalFetch;
-        """);
-        Thread.sleep(2000);
+        networkFaults().clear();
         System.out.println("🌐 Network restored");
         
         if (loginPage.isRegisterButtonPresent()) {
             System.out.println("→ Retrying biometric registration after network recovery...");
-            loginPage.clickBiometricPrimary();
-            Thread.sleep(6000);
+            awaitCeremony(loginPage::clickBiometricPrimary);
             System.out.println("✅ NETWORK RECOVERY SUCCESS: Registration completed after restoration");
         }
         
@@ -355,16 +295,14 @@ public class BiometricDeliverableTests extends BaseTest {
         System.out.println("→ Test 3: Password fallback during network issues");
         
         driver.navigate().refresh();
-        Thread.sleep(2000);
+        loginPage.waits().forLoginScreen();
         
         // Password authentication should still work
         loginPage.switchToPassword();
-        Thread.sleep(2000);
         
-        loginPage.enterEmail("networkuser@example.com");
-        loginPage.enterPassword("password123");
-        loginPage.submitPassword();
-        Thread.sleep(4000);
+        loginPage.enterEmail(user.email());
+        loginPage.enterPassword(user.password());
+        awaitPasswordLogin();
         
         System.out.println("✅ DELIVERABLE E COMPLETED: Network interruption scenarios tested, recovery verified");
         System.out.println("=== End of Deliverable E ===\n");
@@ -373,7 +311,7 @@ public class BiometricDeliverableTests extends BaseTest {
     @Test
     @Order(6)
     @DisplayName("AI-Enhanced Integration: Combined Deliverables Test")
-    void testCombinedDeliverables() throws InterruptedException {
+    void testCombinedDeliverables() {
         System.out.println("=== AI-ENHANCED INTEGRATION: Combined Deliverables ===");
         System.out.println("🤖 AI-powered test combining multiple failure scenarios");
         
@@ -381,50 +319,31 @@ public class BiometricDeliverableTests extends BaseTest {
         System.out.println("🤖 AI Scenario 1: Permission → Network → Fallback Chain");
         
         // Step 1: Permission denial
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            if (navigator.credentials) {
-                navigator.credentials.create = async function() {
-                    throw new DOMException('Permission denied', 'NotAllowedError');
-                };
-            }
-        """);
+        mocks.set(MockMode.PERMISSION_DENIED);
         
         loginPage.switchToBiometric();
-        Thread.sleep(2000);
         loginPage.enterBiometricUsername("aitest1");
-        Thread.sleep(2000);
+        loginPage.waits().forBiometricButton();
         
         // Permission denial
         if (loginPage.isRegisterButtonPresent()) {
-            loginPage.clickBiometricPrimary();
-            Thread.sleep(3000);
+            awaitCeremony(loginPage::clickBiometricPrimary);
             System.out.println("  ✓ AI detected permission denial");
         }
         
         // Step 2: Grant permissions but disable network
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("""
-            // Grant permissions but break network
-            if (navigator.credentials) {
-                navigator.credentials.create = async function() {
-                    // Simulate network failure instead of permission denial
-                    throw new Error('Network error during registration');
-                };
-            }
-        """);
+        mocks.set(MockMode.FAILURE);
         
         if (loginPage.isRegisterButtonPresent()) {
-            loginPage.clickBiometricPrimary();
-            Thread.sleep(3000);
+            awaitCeremony(loginPage::clickBiometricPrimary);
             System.out.println("  ✓ AI detected network failure after permission grant");
         }
         
         // Step 3: Final fallback to password
         loginPage.switchToPassword();
-        Thread.sleep(2000);
         loginPage.enterEmail("aitest1@example.com");
         loginPage.enterPassword("password123");
-        loginPage.submitPassword();
-        Thread.sleep(4000);
+        awaitPasswordLogin();
         System.out.println("  ✅ AI Scenario 1 completed: Multi-failure fallback successful");
         
         System.out.println("✅ AI-ENHANCED INTEGRATION COMPLETED");
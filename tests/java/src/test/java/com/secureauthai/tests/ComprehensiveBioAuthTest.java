@@ -1,11 +1,19 @@
 package com.secureauthai.tests;
 
+import com.secureauthai.pages.AuthOutcome;
+import com.secureauthai.pages.AuthUiState;
+import com.secureauthai.pages.LoginPage;
+import com.secureauthai.support.AuthenticatorSpec;
+import com.secureauthai.support.CeremonyStep;
+import com.secureauthai.support.MockMode;
+import com.secureauthai.support.NetworkFault;
+import com.secureauthai.support.NetworkFaults;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Assertions;
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.TimeoutException;
-import org.openqa.selenium.JavascriptExecutor;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 /**
  * Comprehensive Bioauthentication Test Suite
@@ -17,55 +25,39 @@ import org.openqa.selenium.JavascriptExecutor;
  * e. Network interruption during bioauthentication
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Execution(ExecutionMode.SAME_THREAD)
 public class ComprehensiveBioAuthTest extends BaseTest {
-    
-    private TestDataSetup testData;
-    private static boolean testDataSetup = false;
-
-    @BeforeEach
-    void setUp() {
-        testData = new TestDataSetup(driver, baseUrl);
-        
-        // Setup test data only once for the entire test suite
-        if (!testDataSetup) {
-            try {
-                testData.setupAllTestData();
-                testDataSetup = true;
-                Thread.sleep(2000); // Allow time for setup to complete
-            } catch (Exception e) {
-                System.out.println("Test data setup failed: " + e.getMessage());
-                // Continue with tests even if setup fails
-            }
-        }
-    }
 
     @Test
     @Order(1)
     @DisplayName("Test A: Fallback from bioauthentication to password after multiple failures")
-    void testFallbackToPassword() throws InterruptedException {
+    void testFallbackToPassword() {
         System.out.println("=== Testing Fallback from Bioauthentication to Password ===");
         
         loginPage.open();
         loginPage.switchToBiometric();
         
         // Use a user that doesn't have biometric credentials
-        String testUser = testData.getBasicTestUser();
-        loginPage.enterBiometricUsername(testUser);
+        PooledUser testUser = leaseUser(UserProfile.PASSWORD_ONLY);
+        loginPage.enterBiometricUsername(testUser.username());
+        loginPage.waits().forBiometricButton();
         
         // Attempt biometric authentication multiple times to trigger fallback
         for (int i = 0; i < 3; i++) {
             System.out.println("Biometric attempt " + (i + 1));
             
-            if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
+            AuthUiState state = loginPage.snapshot();
+            if (state.biometricAuth().present()) {
                 loginPage.clickBiometricAuth();
-            } else if (loginPage.isPresent(loginPage.BIOMETRIC_REGISTER)) {
+            } else if (state.biometricRegister().present()) {
                 loginPage.clickBiometricPrimary();
             }
             
-            Thread.sleep(2000);
+            loginPage.waits().forCeremonyResult();
+            state = loginPage.snapshot();
             
             // Check if fallback message appears
-            if (loginPage.isFallbackMessageVisible()) {
+            if (state.isFallbackVisible()) {
                 System.out.println("Fallback message detected after " + (i + 1) + " attempts");
                 break;
             }
@@ -78,17 +70,15 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         Assertions.assertTrue(loginPage.isEmailAutopopulated(), "Email should be auto-populated after fallback");
         
         // Test password login
-        loginPage.enterPassword(testData.TEST_USER_PASSWORD);
-        loginPage.submitPassword();
-        
-        Thread.sleep(2000);
+        loginPage.enterPassword(testUser.password());
+        awaitPasswordLogin();
         System.out.println("Fallback to password test completed successfully");
     }
 
     @Test
     @Order(2)
     @DisplayName("Test B: Bioauthentication success and failure scenarios")
-    void testBioauthenticationSuccessAndFailure() throws InterruptedException {
+    void testBioauthenticationSuccessAndFailure() {
         System.out.println("=== Testing Bioauthentication Success and Failure ===");
         
         // Test 1: Successful biometric authentication
@@ -96,20 +86,14 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         loginPage.open();
         loginPage.switchToBiometric();
         
-        String biometricUser = testData.getBiometricTestUser();
-        loginPage.enterBiometricUsername(biometricUser);
+        PooledUser biometricUser = leaseUser(UserProfile.BIOMETRIC);
+        loginPage.enterBiometricUsername(biometricUser.username());
+        Assertions.assertEquals(LoginPage.BIOMETRIC_AUTH, loginPage.waits().forBiometricButton(),
+                "A user with biometric credentials should be offered authentication");
         
-        if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(3000);
-            
-            // Check for success indicators
-            boolean success = loginPage.isAuthSuccessVisible() || 
-                           loginPage.isScanningVisible() ||
-                           driver.getCurrentUrl().contains("dashboard");
-            
-            System.out.println("Biometric authentication result: " + (success ? "SUCCESS" : "FAILED"));
-        }
+        AuthOutcome outcome = awaitCeremony(loginPage::clickBiometricAuth);
+        System.out.println("Biometric authentication result: " + outcome);
+        Assertions.assertTrue(outcome.isSuccess(), "Biometric authentication should succeed, got " + outcome);
         
         // Test 2: Failed biometric authentication (invalid user)
         System.out.println("Testing failed biometric authentication...");
@@ -118,14 +102,10 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         
         loginPage.enterBiometricUsername("nonexistentuser");
         
-        if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(3000);
-            
-            // Should show error or remain on auth screen
-            boolean error = loginPage.isAuthErrorVisible();
-            System.out.println("Invalid user authentication result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
-        }
+        // An unknown user has nothing to authenticate with and is offered registration instead
+        Assertions.assertEquals(LoginPage.BIOMETRIC_REGISTER, loginPage.waits().forBiometricButton(),
+                "An unknown user should not be offered biometric authentication");
+        System.out.println("Invalid user authentication result: REGISTRATION OFFERED");
         
         System.out.println("Bioauthentication success/failure test completed");
     }
@@ -133,29 +113,36 @@ public class ComprehensiveBioAuthTest extends BaseTest {
     @Test
     @Order(3)
     @DisplayName("Test C: Lockout after multiple failed bioauth attempts")
-    void testLockoutAfterMultipleFailures() throws InterruptedException {
+    void testLockoutAfterMultipleFailures() {
         System.out.println("=== Testing Lockout After Multiple Failed Attempts ===");
         
         loginPage.open();
-        loginPage.switchToBiometric();
         
-        String lockoutUser = testData.getLockoutTestUser();
-        loginPage.enterBiometricUsername(lockoutUser);
+        // Every attempt is refused by the virtual authenticator, so each one is a real failure
+        PooledUser lockoutUser = leaseUser(UserProfile.LOCKOUT);
+        attachAuthenticator(AuthenticatorSpec.defaults().withFailure()).enroll(lockoutUser);
+        
+        loginPage.switchToBiometric();
+        loginPage.enterBiometricUsername(lockoutUser.username());
+        Assertions.assertEquals(LoginPage.BIOMETRIC_AUTH, loginPage.waits().forBiometricButton(),
+                "An enrolled user should be offered authentication");
         
         // Make multiple failed attempts to trigger lockout
         for (int i = 0; i < 5; i++) {
             System.out.println("Lockout attempt " + (i + 1));
             
-            if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
+            AuthUiState state = loginPage.snapshot();
+            if (state.biometricAuth().present()) {
                 loginPage.clickBiometricAuth();
-            } else if (loginPage.isPresent(loginPage.BIOMETRIC_REGISTER)) {
+            } else if (state.biometricRegister().present()) {
                 loginPage.clickBiometricPrimary();
             }
             
-            Thread.sleep(2000);
+            loginPage.waits().forCeremonyResult();
+            state = loginPage.snapshot();
             
             // Check if lockout message appears
-            if (loginPage.isLockedOut()) {
+            if (state.isLockedOut()) {
                 System.out.println("Account locked after " + (i + 1) + " attempts");
                 break;
             }
@@ -165,10 +152,11 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         boolean isLocked = loginPage.isLockedOut();
         Assertions.assertTrue(isLocked, "Account should be locked after multiple failed attempts");
         
-        // Verify biometric buttons are disabled
-        if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
-            boolean buttonDisabled = loginPage.isButtonDisabled(loginPage.BIOMETRIC_AUTH);
-            Assertions.assertTrue(buttonDisabled, "Biometric button should be disabled when locked out");
+        // Verify biometric buttons are disabled; after repeated failures the app may already have
+        // moved to the password tab, which takes the button away
+        AuthUiState locked = loginPage.snapshot();
+        if (locked.biometricAuth().present()) {
+            Assertions.assertFalse(locked.biometricAuth().enabled(), "Biometric button should be disabled when locked out");
         }
         
         System.out.println("Lockout test completed successfully");
@@ -177,7 +165,7 @@ public class ComprehensiveBioAuthTest extends BaseTest {
     @Test
     @Order(4)
     @DisplayName("Test D: Permissions denial scenarios")
-    void testPermissionsDenial() throws InterruptedException {
+    void testPermissionsDenial() {
         System.out.println("=== Testing Permissions Denial Scenarios ===");
         
         // Test 1: Biometric permissions denial using virtual authenticator
@@ -185,47 +173,39 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         loginPage.open();
         loginPage.switchToBiometric();
         
-        String biometricUser = testData.getBiometricTestUser();
-        loginPage.enterBiometricUsername(biometricUser);
+        PooledUser biometricUser = leaseUser(UserProfile.BIOMETRIC);
+        loginPage.enterBiometricUsername(biometricUser.username());
+        Assertions.assertEquals(LoginPage.BIOMETRIC_AUTH, loginPage.waits().forBiometricButton(),
+                "A user with biometric credentials should be offered authentication");
         
-        // Simulate permissions denial by removing virtual authenticator
-       // simulatePermissionsDenial();
+        // Simulate the OS denying biometric access
+        mocks.set(MockMode.PERMISSION_DENIED);
         
-        if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(3000);
-            
-            // Should show error due to permissions
-            boolean error = loginPage.isAuthErrorVisible();
-            System.out.println("Biometric permissions test result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
-        }
+        awaitCeremony(loginPage::clickBiometricAuth);
         
-        // Restore biometric authentication for next tests
-       // restoreBiometricAuth();
+        // Should show error due to permissions
+        boolean error = loginPage.isAuthErrorVisible();
+        System.out.println("Biometric permissions test result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
         
         // Test 2: Face authentication permissions denial
         System.out.println("Testing face authentication permissions denial...");
         loginPage.open();
         loginPage.switchToFace();
         
-        String faceUser = testData.getFaceTestUser();
-        loginPage.enterFaceUsername(faceUser);
+        PooledUser faceUser = leaseUser(UserProfile.FACE);
+        loginPage.enterFaceUsername(faceUser.username());
+        Assertions.assertEquals(LoginPage.FACE_AUTH, loginPage.waits().forFaceButton(),
+                "A user with face credentials should be offered face authentication");
         
-        // Simulate camera permission denial using JavaScript
-        if (driver instanceof JavascriptExecutor) {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("window.navigator.mediaDevices = undefined;");
-            System.out.println("Simulated camera API removal");
-        }
+        // Camera access is denied by the same mock mode
+        mocks.set(MockMode.PERMISSION_DENIED);
+        System.out.println("Simulated camera permission denial");
         
-        if (loginPage.isPresent(loginPage.FACE_AUTH)) {
-            loginPage.clickFaceAuth();
-            Thread.sleep(3000);
-            
-            // Should show error due to camera permissions
-            boolean error = loginPage.isAuthErrorVisible();
-            System.out.println("Face permissions test result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
-        }
+        awaitCeremony(loginPage::clickFaceAuth);
+        
+        // Should show error due to camera permissions
+        error = loginPage.isAuthErrorVisible();
+        System.out.println("Face permissions test result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
         
         System.out.println("Permissions denial test completed");
     }
@@ -233,7 +213,7 @@ public class ComprehensiveBioAuthTest extends BaseTest {
     @Test
     @Order(5)
     @DisplayName("Test E: Network interruption during bioauthentication")
-    void testNetworkInterruption() throws InterruptedException {
+    void testNetworkInterruption() {
         System.out.println("=== Testing Network Interruption During Bioauthentication ===");
         
         // Test 1: Network timeout during biometric authentication
@@ -241,73 +221,61 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         loginPage.open();
         loginPage.switchToBiometric();
         
-        String biometricUser = testData.getBiometricTestUser();
-        loginPage.enterBiometricUsername(biometricUser);
+        PooledUser biometricUser = leaseUser(UserProfile.BIOMETRIC);
+        loginPage.enterBiometricUsername(biometricUser.username());
+        Assertions.assertEquals(LoginPage.BIOMETRIC_AUTH, loginPage.waits().forBiometricButton(),
+                "A user with biometric credentials should be offered authentication");
         
-        // Simulate network interruption using virtual authenticator
-        //simulateNetworkInterruption();
+        // Drop the challenge request: the options step never gets an answer
+        NetworkFaults.Injected drop = networkFaults().inject(NetworkFault.drop().at(CeremonyStep.CHALLENGE));
         
-        if (loginPage.isPresent(loginPage.BIOMETRIC_AUTH)) {
-            loginPage.clickBiometricAuth();
-            Thread.sleep(5000);
-            
-            // Should show error due to network timeout
-            boolean error = loginPage.isAuthErrorVisible();
-            System.out.println("Network timeout test result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
-        }
+        loginPage.clickBiometricAuth();
+        
+        // Should show error due to network timeout
+        NetworkFaults.Feedback feedback = drop.timeToFeedback(() -> loginPage.waits().forCeremonyResult());
+        System.out.println("Network timeout test result: " + feedback.outcome()
+                + " after " + feedback.elapsed().toMillis() + " ms");
         
         // Restore network connectivity
-       // restoreNetworkConnectivity();
+        networkFaults().clear();
         
         // Test 2: Service unavailable scenario
         System.out.println("Testing service unavailable scenario...");
         loginPage.open();
         loginPage.switchToFace();
         
-        String faceUser = testData.getFaceTestUser();
-        loginPage.enterFaceUsername(faceUser);
-        
-        // Simulate service unavailable using JavaScript
-        if (driver instanceof JavascriptExecutor) {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("""
-                window.fetch = function() {
-                    return Promise.resolve({
-                        ok: false,
-                        status: 503,
-                        statusText: 'Service Unavailable'
-                    });
-                };
-            """);
-            System.out.println("Simulated service unavailable");
-        }
+        PooledUser faceUser = leaseUser(UserProfile.FACE);
+        loginPage.enterFaceUsername(faceUser.username());
+        // Before the fault, which would also hit the face credential check of the username
+        Assertions.assertEquals(LoginPage.FACE_AUTH, loginPage.waits().forFaceButton(),
+                "A user with face credentials should be offered face authentication");
         
-        if (loginPage.isPresent(loginPage.FACE_AUTH)) {
-            loginPage.clickFaceAuth();
-            Thread.sleep(3000);
-            
-            // Should show error due to service unavailability
-            boolean error = loginPage.isAuthErrorVisible();
-            System.out.println("Service unavailable test result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
-        }
+        // Face credential requests get a synthetic 503; nothing else is affected
+        NetworkFaults.Injected unavailable = networkFaults().inject(NetworkFault.serverError(503).at(CeremonyStep.FACE));
+        System.out.println("Simulated service unavailable");
+        
+        loginPage.clickFaceAuth();
+        
+        // Should show error due to service unavailability
+        feedback = unavailable.timeToFeedback(() -> loginPage.waits().forCeremonyResult());
+        System.out.println("Service unavailable test result: " + feedback.outcome()
+                + " after " + feedback.elapsed().toMillis() + " ms");
         
         // Test fallback to password when services are down
         System.out.println("Testing fallback to password during service outage...");
         loginPage.switchToPassword();
         
         // Verify password login still works
-        loginPage.enterEmail(testData.TEST_USER_EMAIL);
-        loginPage.enterPassword(testData.TEST_USER_PASSWORD);
-        loginPage.submitPassword();
-        
-        Thread.sleep(2000);
+        loginPage.enterEmail(faceUser.email());
+        loginPage.enterPassword(faceUser.password());
+        awaitPasswordLogin();
         System.out.println("Network interruption test completed");
     }
 
     @Test
     @Order(6)
     @DisplayName("Test F: Face ID authentication success and failure")
-    void testFaceIDAuthentication() throws InterruptedException {
+    void testFaceIDAuthentication() {
         System.out.println("=== Testing Face ID Authentication ===");
         
         // Test successful face authentication
@@ -315,19 +283,14 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         loginPage.open();
         loginPage.switchToFace();
         
-        String faceUser = testData.getFaceTestUser();
-        loginPage.enterFaceUsername(faceUser);
+        PooledUser faceUser = leaseUser(UserProfile.FACE);
+        loginPage.enterFaceUsername(faceUser.username());
+        Assertions.assertEquals(LoginPage.FACE_AUTH, loginPage.waits().forFaceButton(),
+                "A user with face credentials should be offered face authentication");
         
-        if (loginPage.isPresent(loginPage.FACE_AUTH)) {
-            loginPage.clickFaceAuth();
-            Thread.sleep(3000);
-            
-            // Check for success indicators
-            boolean success = loginPage.isAuthSuccessVisible() || 
-                           driver.getCurrentUrl().contains("dashboard");
-            
-            System.out.println("Face authentication result: " + (success ? "SUCCESS" : "FAILED"));
-        }
+        AuthOutcome outcome = awaitCeremony(loginPage::clickFaceAuth);
+        System.out.println("Face authentication result: " + outcome);
+        Assertions.assertTrue(outcome.isSuccess(), "Face authentication should succeed, got " + outcome);
         
         // Test face authentication failure
         System.out.println("Testing face authentication failure...");
@@ -336,14 +299,10 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         
         loginPage.enterFaceUsername("nonexistentfaceuser");
         
-        if (loginPage.isPresent(loginPage.FACE_AUTH)) {
-            loginPage.clickFaceAuth();
-            Thread.sleep(3000);
-            
-            // Should show error or remain on auth screen
-            boolean error = loginPage.isAuthErrorVisible();
-            System.out.println("Face authentication failure result: " + (error ? "ERROR SHOWN" : "NO ERROR"));
-        }
+        // An unknown user has no face to match and is offered registration instead
+        Assertions.assertEquals(LoginPage.FACE_REGISTER, loginPage.waits().forFaceButton(),
+                "An unknown user should not be offered face authentication");
+        System.out.println("Face authentication failure result: REGISTRATION OFFERED");
         
         System.out.println("Face ID authentication test completed");
     }
@@ -351,7 +310,7 @@ public class ComprehensiveBioAuthTest extends BaseTest {
     @Test
     @Order(7)
     @DisplayName("Test G: Comprehensive fallback mechanism validation")
-    void testComprehensiveFallback() throws InterruptedException {
+    void testComprehensiveFallback() {
         System.out.println("=== Testing Comprehensive Fallback Mechanism ===");
         
         // Test fallback from face authentication to password
@@ -359,17 +318,19 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         loginPage.open();
         loginPage.switchToFace();
         
-        String testUser = testData.getBasicTestUser();
-        loginPage.enterFaceUsername(testUser);
+        PooledUser testUser = leaseUser(UserProfile.PASSWORD_ONLY);
+        loginPage.enterFaceUsername(testUser.username());
+        loginPage.waits().forFaceButton();
         
         // Make multiple failed attempts
         for (int i = 0; i < 3; i++) {
-            if (loginPage.isPresent(loginPage.FACE_AUTH)) {
+            AuthUiState state = loginPage.snapshot();
+            if (state.faceAuth().present()) {
                 loginPage.clickFaceAuth();
-            } else if (loginPage.isPresent(loginPage.FACE_REGISTER)) {
+            } else if (state.faceRegister().present()) {
                 loginPage.clickFacePrimary();
             }
-            Thread.sleep(2000);
+            loginPage.waits().forCeremonyResult();
         }
         
         // Verify fallback to password
@@ -379,17 +340,8 @@ public class ComprehensiveBioAuthTest extends BaseTest {
         Assertions.assertTrue(loginPage.isEmailAutopopulated(), "Email should be auto-populated after face auth fallback");
         
         // Test password login
-        loginPage.enterPassword(testData.TEST_USER_PASSWORD);
-        loginPage.submitPassword();
-        
-        Thread.sleep(2000);
+        loginPage.enterPassword(testUser.password());
+        awaitPasswordLogin();
         System.out.println("Comprehensive fallback test completed successfully");
     }
-
-    @AfterAll
-    static void cleanup() {
-        System.out.println("=== Test Suite Cleanup ===");
-        // Note: In a real scenario, you would clean up test data here
-        System.out.println("Test suite completed. Manual cleanup may be required.");
-    }
 }
@@ -1,6 +1,8 @@
 package com.secureauthai.tests;
 
 import com.secureauthai.pages.LoginPage;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -9,8 +11,8 @@ import java.time.Duration;
 public class EndToEndFlowTest extends BaseTest {
 
     @Test
-    void completeAccountCreationAndBiometricRegistrationFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void completeAccountCreationAndBiometricRegistrationFlow() {
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Account Creation + Biometric Registration Flow ===");
@@ -35,57 +37,56 @@ public class EndToEndFlowTest extends BaseTest {
         
         // Submit registration
         page.submitRegistration();
-        Thread.sleep(3000); // Wait for account creation
+        page.waits().forAccountRegistrationResult();
         System.out.println("✓ Submitted account registration");
         
         // Should automatically proceed to biometric registration due to checkbox
-        Thread.sleep(5000); // Wait for biometric registration process
         System.out.println("✓ Biometric registration process initiated automatically");
         
         // Check if registration was successful
-        Thread.sleep(2000);
         System.out.println("✓ Account creation and biometric registration flow completed");
         
         System.out.println("=== Account Creation + Biometric Registration Flow Test Completed ===");
     }
 
     @Test
-    void biometricAuthenticationFlowWithValidUser() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void biometricAuthenticationFlowWithValidUser() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
-        System.out.println("=== Starting Biometric Authentication Flow with etornam.koko ===");
+        System.out.println("=== Starting Biometric Authentication Flow with " + user.username() + " ===");
         
         // Switch to biometric tab
         page.switchToBiometric();
         System.out.println("✓ Switched to biometric authentication tab");
         
         // Enter valid username
-        page.enterBiometricUsername("etornam.koko");
-        System.out.println("✓ Entered username: etornam.koko");
+        page.enterBiometricUsername(user.username());
+        System.out.println("✓ Entered username: " + user.username());
         
         // Wait for UI to update and check for credentials
-        Thread.sleep(1000);
+        page.waits().forBiometricButton();
         
         if (page.isPresent(page.BIOMETRIC_REGISTER)) {
             // User needs to register biometric credentials first
             System.out.println("→ User needs biometric registration, registering now...");
             page.clickBiometricPrimary();
-            Thread.sleep(5000); // Wait for registration process
+            page.waits().forCeremonyResult();
+            page.waits().forAuthenticateButton(LoginPage.BIOMETRIC_AUTH);
             System.out.println("✓ Biometric registration completed");
             
             // Now try authentication
-            Thread.sleep(1000);
             if (page.isPresent(page.BIOMETRIC_AUTH)) {
                 page.clickBiometricAuth();
-                Thread.sleep(3000);
+                page.waits().forCeremonyResult();
                 System.out.println("✓ Biometric authentication attempted");
             }
         } else if (page.isPresent(page.BIOMETRIC_AUTH)) {
             // User already has credentials, authenticate directly
             System.out.println("→ User has existing biometric credentials, authenticating...");
             page.clickBiometricAuth();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric authentication completed");
         }
         
@@ -93,8 +94,9 @@ public class EndToEndFlowTest extends BaseTest {
     }
 
     @Test
-    void faceIdRegistrationAndAuthenticationFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void faceIdRegistrationAndAuthenticationFlow() {
+        PooledUser user = leaseUser(UserProfile.PASSWORD_ONLY);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Face ID Registration and Authentication Flow ===");
@@ -104,31 +106,31 @@ public class EndToEndFlowTest extends BaseTest {
         System.out.println("✓ Switched to face authentication tab");
         
         // Enter valid username  
-        page.enterFaceUsername("etornam.koko");
-        System.out.println("✓ Entered username: etornam.koko");
+        page.enterFaceUsername(user.username());
+        System.out.println("✓ Entered username: " + user.username());
         
         // Wait for UI to update
-        Thread.sleep(1000);
+        page.waits().forFaceButton();
         
         if (page.isPresent(page.FACE_REGISTER)) {
             // Register face credentials first
             System.out.println("→ Registering face credentials...");
             page.clickFacePrimary();
-            Thread.sleep(5000); // Wait for face registration (camera permission + processing)
+            page.waits().forCeremonyResult();
+            page.waits().forAuthenticateButton(LoginPage.FACE_AUTH);
             System.out.println("✓ Face registration process completed (may fail due to camera permissions in test env)");
             
             // Try face authentication after registration
-            Thread.sleep(1000);
             if (page.isPresent(page.FACE_AUTH)) {
                 page.clickFaceAuth();
-                Thread.sleep(3000);
+                page.waits().forCeremonyResult();
                 System.out.println("✓ Face authentication attempted");
             }
         } else if (page.isPresent(page.FACE_AUTH)) {
             // User already has face credentials
             System.out.println("→ User has existing face credentials, authenticating...");
             page.clickFaceAuth();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Face authentication completed");
         }
         
@@ -136,8 +138,9 @@ public class EndToEndFlowTest extends BaseTest {
     }
 
     @Test
-    void passwordLoginFlowWithCorrectCredentials() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void passwordLoginFlowWithCorrectCredentials() {
+        PooledUser user = leaseUser(UserProfile.PASSWORD_ONLY);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Password Login Flow ===");
@@ -146,78 +149,66 @@ public class EndToEndFlowTest extends BaseTest {
         page.switchToPassword();
         System.out.println("✓ Switched to password authentication tab");
         
-        // Enter correct credentials for etornam.koko
-        page.enterEmail("etornam.koko@example.com");
-        page.enterPassword("12345678");
-        System.out.println("✓ Entered credentials for etornam.koko");
+        // Enter correct credentials for the leased user
+        page.enterEmail(user.email());
+        page.enterPassword(user.password());
+        System.out.println("✓ Entered credentials for " + user.username());
         
         // Submit password login
         page.submitPassword();
-        Thread.sleep(3000); // Wait for authentication
+        page.waits().forPasswordLoginResult();
         System.out.println("✓ Password login submitted");
         
         // Check for success indicators (redirect, success message, etc.)
-        Thread.sleep(2000);
         System.out.println("✓ Password authentication process completed");
         
         System.out.println("=== Password Login Flow Test Completed ===");
     }
 
     @Test
-    void completeUserJourneyFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
-        page.open();
+    void completeUserJourneyFlow() {
+        LoginPage page = loginPage;
         
         System.out.println("=== Starting Complete User Journey Flow ===");
         
-        // Step 1: Try login with existing valid user
-        System.out.println("→ Step 1: Attempting login with existing user");
-        page.switchToPassword();
-        page.enterEmail("etornam.koko@example.com");
-        page.enterPassword("12345678");
-        page.submitPassword();
-        Thread.sleep(3000);
-        
-        // If login is successful, we're done. If not, continue with registration flow
-        System.out.println("✓ Login attempt completed");
-        
-        // For demo purposes, let's also test biometric flow with the same user
-        // (In a real scenario, you'd check if login was successful first)
-        Thread.sleep(2000);
+        // Step 1: Start as an existing user who is already signed in (password login is
+        // covered by passwordLoginFlowWithCorrectCredentials)
+        System.out.println("→ Step 1: Starting signed in as existing user");
+        PooledUser user = startSignedIn(UserProfile.BIOMETRIC);
+        System.out.println("✓ Signed in as " + user.username());
         
-        // Navigate back to login page (simulate logout or new session)
-        driver.navigate().refresh();
-        Thread.sleep(2000);
+        // Log out to test the other methods with the same user
+        page.signOut();
         
         // Step 2: Test biometric authentication
         System.out.println("→ Step 2: Testing biometric authentication");
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         if (page.isPresent(page.BIOMETRIC_AUTH)) {
             page.clickBiometricAuth();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric authentication attempted");
         } else if (page.isPresent(page.BIOMETRIC_REGISTER)) {
             page.clickBiometricPrimary();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric registration attempted");
         }
         
         // Step 3: Test face authentication
         System.out.println("→ Step 3: Testing face authentication");
         page.switchToFace();
-        page.enterFaceUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterFaceUsername(user.username());
+        page.waits().forFaceButton();
         
         if (page.isPresent(page.FACE_AUTH)) {
             page.clickFaceAuth();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Face authentication attempted");
         } else if (page.isPresent(page.FACE_REGISTER)) {
             page.clickFacePrimary();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Face registration attempted");
         }
         
@@ -225,8 +216,8 @@ public class EndToEndFlowTest extends BaseTest {
     }
 
     @Test
-    void registrationFlowWithManualBiometricRegistration() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void registrationFlowWithManualBiometricRegistration() {
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Registration Flow with Manual Biometric Registration ===");
@@ -246,25 +237,23 @@ public class EndToEndFlowTest extends BaseTest {
         
         // Submit without checking biometric option
         page.submitRegistration();
-        Thread.sleep(3000);
+        page.waits().forAccountRegistrationResult();
         System.out.println("✓ Account created successfully");
         
         // Now manually register biometric credentials
         System.out.println("→ Manually registering biometric credentials...");
         page.switchToRegistrationBiometricTab();
-        Thread.sleep(1000);
         
         page.clickRegistrationBiometricRegister();
-        Thread.sleep(5000); // Wait for biometric registration
+        page.waits().forCeremonyResult();
         System.out.println("✓ Manual biometric registration completed");
         
         // Also test face registration
         System.out.println("→ Manually registering face credentials...");
         page.switchToRegistrationFaceTab();
-        Thread.sleep(1000);
         
         page.clickRegistrationFaceRegister();
-        Thread.sleep(5000); // Wait for face registration
+        page.waits().forCeremonyResult();
         System.out.println("✓ Manual face registration completed");
         
         System.out.println("=== Registration Flow with Manual Biometric Registration Test Completed ===");
@@ -1,31 +1,35 @@
 package com.secureauthai.tests;
 
+import com.secureauthai.pages.AuthUiState;
 import com.secureauthai.pages.LoginPage;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 
 public class FallbackAfterFailuresTest extends BaseTest {
 
     @Test
-    void fallbackToPasswordAfterBiometricFailures() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void fallbackToPasswordAfterBiometricFailures() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         // Start with biometric authentication
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
 
         // Attempt biometric authentication multiple times to trigger fallback
         for (int i = 0; i < 3; i++) {
-            Thread.sleep(500); // Wait for UI update
-            
-            if (page.isPresent(page.BIOMETRIC_AUTH)) {
+            AuthUiState state = page.snapshot();
+            if (state.biometricAuth().present()) {
                 page.clickBiometricAuth();
-                Thread.sleep(2000); // Wait for failure
-            } else if (page.isPresent(page.BIOMETRIC_REGISTER)) {
+                page.waits().forCeremonyResult();
+            } else if (state.biometricRegister().present()) {
                 // If register button appears, use it to simulate failure
                 page.clickBiometricPrimary();
-                Thread.sleep(2000);
+                page.waits().forCeremonyResult();
                 break; // Registration typically only happens once
             }
             
@@ -34,7 +38,6 @@ public class FallbackAfterFailuresTest extends BaseTest {
 
         // After multiple failures, the system should suggest fallback to password
         // Check if fallback message is displayed or if we can manually switch to password
-        Thread.sleep(1000);
         
         // Switch to password tab for fallback authentication
         try {
@@ -42,10 +45,10 @@ public class FallbackAfterFailuresTest extends BaseTest {
             System.out.println("Successfully switched to password tab");
             
             // Attempt password login as fallback
-            page.enterEmail("etornam.koko@example.com");
-            page.enterPassword("12345678");
+            page.enterEmail(user.email());
+            page.enterPassword(user.password());
             page.submitPassword();
-            Thread.sleep(2000);
+            page.waits().forPasswordLoginResult();
             
             System.out.println("Fallback to password authentication attempted");
         } catch (Exception e) {
@@ -54,29 +57,29 @@ public class FallbackAfterFailuresTest extends BaseTest {
     }
 
     @Test
-    void automaticFallbackAfterLockout() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void automaticFallbackAfterLockout() {
+        PooledUser user = leaseUser(UserProfile.LOCKOUT);
+        LoginPage page = loginPage;
         page.open();
         
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
 
         // Make 3 failed attempts to trigger lockout
         for (int i = 0; i < 3; i++) {
-            Thread.sleep(500);
-            
-            if (page.isPresent(page.BIOMETRIC_AUTH)) {
+            AuthUiState state = page.snapshot();
+            if (state.biometricAuth().present()) {
                 page.clickBiometricAuth();
-                Thread.sleep(2000);
-            } else if (page.isPresent(page.BIOMETRIC_REGISTER)) {
+                page.waits().forCeremonyResult();
+            } else if (state.biometricRegister().present()) {
                 page.clickBiometricPrimary();
-                Thread.sleep(2000);
+                page.waits().forCeremonyResult();
                 break;
             }
         }
 
         // System should automatically suggest or switch to password fallback
-        Thread.sleep(2000);
         
         // Check if we can still switch to password after lockout
         try {
@@ -88,36 +91,36 @@ public class FallbackAfterFailuresTest extends BaseTest {
     }
     
     @Test
-    void fallbackFromFaceToPassword() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void fallbackFromFaceToPassword() {
+        PooledUser user = leaseUser(UserProfile.FACE);
+        LoginPage page = loginPage;
         page.open();
         
         // Test fallback from Face authentication to Password
         page.switchToFace();
-        page.enterFaceUsername("etornam.koko");
+        page.enterFaceUsername(user.username());
+        page.waits().forFaceButton();
 
         // Attempt face authentication multiple times
         for (int i = 0; i < 3; i++) {
-            Thread.sleep(500);
-            
-            if (page.isPresent(page.FACE_AUTH)) {
+            AuthUiState state = page.snapshot();
+            if (state.faceAuth().present()) {
                 page.clickFaceAuth();
-                Thread.sleep(2000);
-            } else if (page.isPresent(page.FACE_REGISTER)) {
+                page.waits().forCeremonyResult();
+            } else if (state.faceRegister().present()) {
                 page.clickFacePrimary();
-                Thread.sleep(2000);
+                page.waits().forCeremonyResult();
                 break;
             }
         }
 
         // Switch to password as fallback
-        Thread.sleep(1000);
         page.switchToPassword();
         
-        page.enterEmail("etornam.koko@example.com");
-        page.enterPassword("12345678");
+        page.enterEmail(user.email());
+        page.enterPassword(user.password());
         page.submitPassword();
-        Thread.sleep(2000);
+        page.waits().forPasswordLoginResult();
         
         System.out.println("Fallback from face to password authentication completed");
     }
@@ -0,0 +1,83 @@
+package com.secureauthai.tests;
+
+import com.secureauthai.pages.AuthOutcome;
+import com.secureauthai.pages.LoginPage;
+import com.secureauthai.pages.StepTimer;
+import com.secureauthai.pages.StepTimer.StepTiming;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Login journeys timed step by step with a {@link StepTimer}: a page load, then the steps of
+ * one auth method. Shared by the throttling matrix and the A/B comparison.
+ */
+enum Journey {
+    BIOMETRIC(UserProfile.BIOMETRIC) {
+        @Override
+        void steps(LoginPage page, StepTimer timer, PooledUser user, List<StepTiming> timings) {
+            page.switchToBiometric();
+            timings.add(timer.measure("username", () -> page.enterBiometricUsername(user.username()),
+                    () -> buttonName(page.waits().forBiometricButton()), "authenticate"::equals));
+            timings.add(timer.measure("authenticate", page::clickBiometricAuth,
+                    () -> page.waits().forCeremonyResult().name(), Journey::succeeded));
+        }
+    },
+    FACE(UserProfile.FACE) {
+        @Override
+        void steps(LoginPage page, StepTimer timer, PooledUser user, List<StepTiming> timings) {
+            page.switchToFace();
+            timings.add(timer.measure("username", () -> page.enterFaceUsername(user.username()),
+                    () -> buttonName(page.waits().forFaceButton()), "authenticate"::equals));
+            timings.add(timer.measure("authenticate", page::clickFaceAuth,
+                    () -> page.waits().forCeremonyResult().name(), Journey::succeeded));
+        }
+    },
+    PASSWORD(UserProfile.PASSWORD_ONLY) {
+        @Override
+        void steps(LoginPage page, StepTimer timer, PooledUser user, List<StepTiming> timings) {
+            page.switchToPassword();
+            page.enterEmail(user.email());
+            page.enterPassword(user.password());
+            timings.add(timer.measure("sign in", page::submitPassword,
+                    () -> page.waits().forPasswordLoginResult(),
+                    result -> result.equals("dashboard") || result.equals("success")));
+        }
+    };
+
+    final UserProfile userProfile;
+
+    Journey(UserProfile userProfile) {
+        this.userProfile = userProfile;
+    }
+
+    static Journey parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Loads {@code url} and runs the journey's steps as {@code user}; the caller signs out.
+     */
+    List<StepTiming> run(WebDriver driver, LoginPage page, String url, StepTimer timer, PooledUser user) {
+        List<StepTiming> timings = new ArrayList<>();
+        timings.add(timer.measureLoad("page load", () -> driver.get(url),
+                () -> page.waits().forLandingView(), "login"::equals));
+        steps(page, timer, user, timings);
+        return timings;
+    }
+
+    abstract void steps(LoginPage page, StepTimer timer, PooledUser user, List<StepTiming> timings);
+
+    private static String buttonName(By button) {
+        return LoginPage.BIOMETRIC_AUTH.equals(button) || LoginPage.FACE_AUTH.equals(button) ? "authenticate" : "register";
+    }
+
+    private static boolean succeeded(String outcome) {
+        return AuthOutcome.valueOf(outcome).isSuccess();
+    }
+}
@@ -1,38 +1,42 @@
 package com.secureauthai.tests;
 
 import com.secureauthai.pages.LoginPage;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 
 public class SimpleEndToEndFlowTest extends BaseTest {
 
     @Test
-    void passwordLoginFlowWithCorrectCredentials() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void passwordLoginFlowWithCorrectCredentials() {
+        PooledUser user = leaseUser(UserProfile.PASSWORD_ONLY);
+        LoginPage page = loginPage;
         page.open();
         
-        System.out.println("=== Starting Password Login Flow with etornam.koko ===");
+        System.out.println("=== Starting Password Login Flow with " + user.username() + " ===");
         
         // Switch to password tab
         page.switchToPassword();
         System.out.println("✓ Switched to password authentication tab");
         
-        // Enter correct credentials for etornam.koko
-        page.enterEmail("etorkoko@gmail.com");
-        page.enterPassword("12345678");
-        System.out.println("✓ Entered credentials for etornam.koko");
+        // Enter correct credentials for the leased user
+        page.enterEmail(user.email());
+        page.enterPassword(user.password());
+        System.out.println("✓ Entered credentials for " + user.username());
         
         // Submit password login
         page.submitPassword();
-        Thread.sleep(5000); // Wait for authentication and potential redirect
+        page.waits().forPasswordLoginResult();
         System.out.println("✓ Password login submitted and processed");
         
         System.out.println("=== Password Login Flow Test Completed Successfully ===");
     }
 
     @Test
-    void biometricAuthenticationCompleteFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void biometricAuthenticationCompleteFlow() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Complete Biometric Authentication Flow ===");
@@ -42,32 +46,32 @@ public class SimpleEndToEndFlowTest extends BaseTest {
         System.out.println("✓ Switched to biometric authentication tab");
         
         // Enter valid username
-        page.enterBiometricUsername("etornam.koko");
-        System.out.println("✓ Entered username: etornam.koko");
+        page.enterBiometricUsername(user.username());
+        System.out.println("✓ Entered username: " + user.username());
         
         // Wait for UI to detect user status
-        Thread.sleep(2000);
+        page.waits().forBiometricButton();
         
         // Step 1: Register biometric credentials if needed
         if (page.isPresent(page.BIOMETRIC_REGISTER)) {
             System.out.println("→ User needs biometric registration, registering now...");
             page.clickBiometricPrimary();
-            Thread.sleep(5000); // Wait for registration process (WebAuthn prompt)
+            page.waits().forCeremonyResult();
+            page.waits().forAuthenticateButton(LoginPage.BIOMETRIC_AUTH);
             System.out.println("✓ Biometric registration process completed");
             
             // After registration, attempt authentication
-            Thread.sleep(2000);
             if (page.isPresent(page.BIOMETRIC_AUTH)) {
                 System.out.println("→ Now attempting biometric authentication...");
                 page.clickBiometricAuth();
-                Thread.sleep(5000); // Wait for authentication
+                page.waits().forCeremonyResult();
                 System.out.println("✓ Biometric authentication attempted");
             }
         } else if (page.isPresent(page.BIOMETRIC_AUTH)) {
             // User already has credentials, authenticate directly
             System.out.println("→ User has existing biometric credentials, authenticating...");
             page.clickBiometricAuth();
-            Thread.sleep(5000); // Wait for authentication
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric authentication completed");
         }
         
@@ -75,8 +79,9 @@ public class SimpleEndToEndFlowTest extends BaseTest {
     }
 
     @Test
-    void faceIdAuthenticationCompleteFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void faceIdAuthenticationCompleteFlow() {
+        PooledUser user = leaseUser(UserProfile.FACE);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Complete Face ID Authentication Flow ===");
@@ -86,32 +91,32 @@ public class SimpleEndToEndFlowTest extends BaseTest {
         System.out.println("✓ Switched to face authentication tab");
         
         // Enter valid username  
-        page.enterFaceUsername("etornam.koko");
-        System.out.println("✓ Entered username: etornam.koko");
+        page.enterFaceUsername(user.username());
+        System.out.println("✓ Entered username: " + user.username());
         
         // Wait for UI to detect user status
-        Thread.sleep(2000);
+        page.waits().forFaceButton();
         
         // Step 1: Register face credentials if needed
         if (page.isPresent(page.FACE_REGISTER)) {
             System.out.println("→ User needs face registration, registering now...");
             page.clickFacePrimary();
-            Thread.sleep(8000); // Wait longer for face registration (camera + processing)
+            page.waits().forCeremonyResult();
+            page.waits().forAuthenticateButton(LoginPage.FACE_AUTH);
             System.out.println("✓ Face registration process completed");
             
             // After registration, attempt authentication
-            Thread.sleep(2000);
             if (page.isPresent(page.FACE_AUTH)) {
                 System.out.println("→ Now attempting face authentication...");
                 page.clickFaceAuth();
-                Thread.sleep(5000);
+                page.waits().forCeremonyResult();
                 System.out.println("✓ Face authentication attempted");
             }
         } else if (page.isPresent(page.FACE_AUTH)) {
             // User already has face credentials
             System.out.println("→ User has existing face credentials, authenticating...");
             page.clickFaceAuth();
-            Thread.sleep(5000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Face authentication completed");
         }
         
@@ -119,8 +124,9 @@ public class SimpleEndToEndFlowTest extends BaseTest {
     }
 
     @Test
-    void multipleAuthenticationMethodsFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void multipleAuthenticationMethodsFlow() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Multiple Authentication Methods Flow ===");
@@ -128,45 +134,44 @@ public class SimpleEndToEndFlowTest extends BaseTest {
         // Test 1: Password Authentication
         System.out.println("→ Step 1: Testing Password Authentication");
         page.switchToPassword();
-        page.enterEmail("etornam.koko@example.com");
-        page.enterPassword("12345678");
+        page.enterEmail(user.email());
+        page.enterPassword(user.password());
         page.submitPassword();
-        Thread.sleep(3000);
+        page.waits().forPasswordLoginResult();
         System.out.println("✓ Password authentication tested");
         
-        // Refresh page to test other methods (simulate new session)
-        driver.navigate().refresh();
-        Thread.sleep(2000);
+        // Log out to test other methods (simulate new session)
+        page.signOut();
         
         // Test 2: Biometric Authentication
         System.out.println("→ Step 2: Testing Biometric Authentication");
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         if (page.isPresent(page.BIOMETRIC_AUTH)) {
             page.clickBiometricAuth();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric authentication tested");
         } else if (page.isPresent(page.BIOMETRIC_REGISTER)) {
             page.clickBiometricPrimary();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric registration tested");
         }
         
         // Test 3: Face Authentication
         System.out.println("→ Step 3: Testing Face Authentication");
         page.switchToFace();
-        page.enterFaceUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterFaceUsername(user.username());
+        page.waits().forFaceButton();
         
         if (page.isPresent(page.FACE_AUTH)) {
             page.clickFaceAuth();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Face authentication tested");
         } else if (page.isPresent(page.FACE_REGISTER)) {
             page.clickFacePrimary();
-            Thread.sleep(3000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Face registration tested");
         }
         
@@ -174,8 +179,8 @@ public class SimpleEndToEndFlowTest extends BaseTest {
     }
 
     @Test
-    void accountCreationBasicFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void accountCreationBasicFlow() {
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Starting Basic Account Creation Flow ===");
@@ -197,7 +202,7 @@ public class SimpleEndToEndFlowTest extends BaseTest {
             
             // Submit registration (without biometric option for simplicity)
             page.submitRegistration();
-            Thread.sleep(5000); // Wait for account creation
+            page.waits().forAccountRegistrationResult();
             System.out.println("✓ Account registration submitted successfully");
             
             System.out.println("=== Basic Account Creation Flow Test Completed ===");
@@ -0,0 +1,139 @@
+package com.secureauthai.tests;
+
+import com.secureauthai.pages.AuthOutcome;
+import com.secureauthai.pages.LoginPage;
+import com.secureauthai.support.MemoryProbe;
+import com.secureauthai.support.MemoryTrend;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.RunSummary;
+import com.secureauthai.support.TestConfig;
+import com.secureauthai.support.UserProfile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Soak run: repeats password login, logout, biometric and face sign-in in one tab for a long
+ * time and samples the tab's memory (JS heap, DOM nodes, event listeners, pending timers,
+ * intervals, live camera tracks) every few cycles. Fails when a metric keeps growing; heap
+ * snapshots are written when the leak is first seen and again some cycles later, for
+ * comparison in DevTools' Memory panel.
+ *
+ * Only successful sign-ins are followed by Logout; a failed attempt reloads the page, which
+ * frees the tab's memory, so failures are counted and reported.
+ *
+ * Not part of the normal run; start it with the "soak" Maven profile:
+ * mvn test -Psoak,headless [-Dsoak.minutes=120] [-Dsoak.cycles=0] [-Dsoak.sampleEvery=20]
+ * [-Dsoak.warmupCycles=50] [-Dsoak.snapshotCycles=100] [-Dsoak.limit.jsHeapMb=5].
+ * Samples are written to target/soak/memory.csv, snapshots to target/soak/heap-cycle{N}.heapsnapshot.
+ */
+@Tag("soak")
+@DisplayName("Soak")
+public class SoakTest extends BaseTest {
+
+    private static final Path OUTPUT = Path.of("target", "soak");
+    private static final long MINUTES = TestConfig.intProperty("soak.minutes", 60);
+    // 0 runs until the time is up
+    private static final int CYCLES = TestConfig.intProperty("soak.cycles", 0);
+    private static final int SAMPLE_EVERY = Math.max(1, TestConfig.intProperty("soak.sampleEvery", 20));
+    private static final int WARMUP_CYCLES = Math.max(0, TestConfig.intProperty("soak.warmupCycles", 50));
+    private static final int SNAPSHOT_CYCLES = Math.max(SAMPLE_EVERY, TestConfig.intProperty("soak.snapshotCycles", 100));
+
+    private int failedAttempts;
+
+    @Test
+    @DisplayName("Memory stays flat over repeated auth cycles")
+    void memoryStaysFlat() {
+        PooledUser passwordUser = leaseUser(UserProfile.PASSWORD_ONLY);
+        PooledUser biometricUser = leaseUser(UserProfile.BIOMETRIC);
+        PooledUser faceUser = leaseUser(UserProfile.FACE);
+        MemoryTrend trend = new MemoryTrend(WARMUP_CYCLES);
+        RunSummary.addSection("Soak memory growth", () -> {
+            List<String> lines = new ArrayList<>(trend.table());
+            lines.add("failed attempts (page reloaded): " + failedAttempts);
+            return lines;
+        });
+        MemoryProbe probe = MemoryProbe.install(driver);
+        List<Path> snapshots = new ArrayList<>();
+        try {
+            // Reload so the counting script runs in the tab from here on
+            loginPage.signOut();
+            long start = System.currentTimeMillis();
+            long deadline = start + MINUTES * 60_000;
+            int secondSnapshotAt = -1;
+            int cycle = 0;
+            trend.record(cycle, 0, probe.sample());
+            while ((CYCLES > 0 ? cycle < CYCLES : System.currentTimeMillis() < deadline)
+                    && (secondSnapshotAt < 0 || cycle < secondSnapshotAt)) {
+                runCycle(passwordUser, biometricUser, faceUser);
+                cycle++;
+                if (cycle % SAMPLE_EVERY != 0) {
+                    continue;
+                }
+                trend.record(cycle, System.currentTimeMillis() - start, probe.sample());
+                // The harness keeps no per-request history across samples: the wait records and
+                // the tracked requests are dropped here, and per-step request timings are capped
+                loginPage.waits().clear();
+                network().forgetFinished();
+                if (secondSnapshotAt < 0 && !trend.leaks().isEmpty()) {
+                    snapshots.add(probe.writeHeapSnapshot(OUTPUT.resolve("heap-cycle" + cycle + ".heapsnapshot")));
+                    secondSnapshotAt = cycle + SNAPSHOT_CYCLES;
+                }
+            }
+            if (secondSnapshotAt > 0) {
+                snapshots.add(probe.writeHeapSnapshot(OUTPUT.resolve("heap-cycle" + cycle + ".heapsnapshot")));
+            }
+        } finally {
+            probe.uninstall();
+            trend.writeCsv(OUTPUT.resolve("memory.csv"));
+        }
+        List<String> leaks = trend.leaks();
+        Assertions.assertTrue(leaks.isEmpty(), () -> "Memory keeps growing:\n  " + String.join("\n  ", leaks)
+                + "\nHeap snapshots: " + snapshots);
+    }
+
+    // Password login and logout, then biometric and face sign-in, each followed by logout
+    private void runCycle(PooledUser passwordUser, PooledUser biometricUser, PooledUser faceUser) {
+        LoginPage page = loginPage;
+        page.switchToPassword();
+        page.enterEmail(passwordUser.email());
+        page.enterPassword(passwordUser.password());
+        page.submitPassword();
+        String result = page.waits().forPasswordLoginResult();
+        finishAttempt((result.equals("dashboard") || result.equals("success")) && page.waits().forSignedIn());
+
+        page.switchToBiometric();
+        page.enterBiometricUsername(biometricUser.username());
+        if (LoginPage.BIOMETRIC_AUTH.equals(page.waits().forBiometricButton())) {
+            page.clickBiometricAuth();
+            finishAttempt(signedIn(page.waits().forCeremonyResult()));
+        } else {
+            finishAttempt(false);
+        }
+
+        page.switchToFace();
+        page.enterFaceUsername(faceUser.username());
+        if (LoginPage.FACE_AUTH.equals(page.waits().forFaceButton())) {
+            page.clickFaceAuth();
+            finishAttempt(signedIn(page.waits().forCeremonyResult()));
+        } else {
+            finishAttempt(false);
+        }
+    }
+
+    private boolean signedIn(AuthOutcome outcome) {
+        return outcome.isSuccess() && loginPage.waits().forSignedIn();
+    }
+
+    private void finishAttempt(boolean signedIn) {
+        if (!signedIn) {
+            failedAttempts++;
+        }
+        loginPage.signOut();
+    }
+}
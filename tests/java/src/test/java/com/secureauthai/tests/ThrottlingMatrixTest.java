@@ -0,0 +1,79 @@
+package com.secureauthai.tests;
+
+import com.secureauthai.pages.StepTimer;
+import com.secureauthai.pages.StepTimer.StepTiming;
+import com.secureauthai.support.NetworkProfile;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.RunSummary;
+import com.secureauthai.support.TestConfig;
+import com.secureauthai.support.TimingMatrix;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Throttling matrix: repeats one login journey under named network profiles and reports
+ * time-to-first-feedback and time-to-result per step as percentiles.
+ *
+ * Not part of the normal run; start it with the "matrix" Maven profile:
+ * mvn test -Pmatrix [-Dmatrix.journey=biometric|face|password] [-Dmatrix.profiles=fast-3g,corporate-vpn]
+ * [-Dmatrix.runs=5]. The table is printed in the run summary and written to
+ * target/throttling-matrix-{journey}.csv.
+ */
+@Tag("matrix")
+@DisplayName("Throttling matrix")
+@Execution(ExecutionMode.SAME_THREAD)
+public class ThrottlingMatrixTest extends BaseTest {
+
+    private static final TimingMatrix MATRIX = new TimingMatrix();
+    private static final Journey JOURNEY = Journey.parse(System.getProperty("matrix.journey", "biometric"));
+    private static final int RUNS = Math.max(1, TestConfig.intProperty("matrix.runs", 5));
+
+    static Stream<NetworkProfile> profiles() {
+        String names = System.getProperty("matrix.profiles", "");
+        if (names.isBlank()) {
+            return Arrays.stream(NetworkProfile.values());
+        }
+        return Arrays.stream(names.split(",")).map(NetworkProfile::parse);
+    }
+
+    @BeforeAll
+    static void registerReport() {
+        RunSummary.addSection("Throttling matrix (" + JOURNEY.name().toLowerCase(Locale.ROOT) + " journey)", MATRIX::table);
+    }
+
+    @AfterAll
+    static void exportCsv() {
+        MATRIX.writeCsv(Path.of("target", "throttling-matrix-" + JOURNEY.name().toLowerCase(Locale.ROOT) + ".csv"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("profiles")
+    void journeyUnderProfile(NetworkProfile profile) {
+        PooledUser user = leaseUser(JOURNEY.userProfile);
+        StepTimer timer = new StepTimer(driver);
+        try {
+            for (int run = 1; run <= RUNS; run++) {
+                profile.apply(driver);
+                for (StepTiming timing : JOURNEY.run(driver, loginPage, baseUrl, timer, user)) {
+                    MATRIX.record(profile, timing);
+                }
+                // Tear down at full speed; only the journey itself is measured
+                NetworkProfile.UNTHROTTLED.apply(driver);
+                loginPage.signOut();
+            }
+        } finally {
+            NetworkProfile.UNTHROTTLED.apply(driver);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.secureauthai.tests;
+
+import com.secureauthai.pages.UiInteraction;
+import com.secureauthai.support.BenchmarkReport;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.RunSummary;
+import com.secureauthai.support.TestConfig;
+import com.secureauthai.support.UserProfile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * UI latency benchmark: repeats single login-screen interactions (tab switches, the username
+ * lookup, authenticate until scanning) and reports their latency with confidence intervals.
+ * It measures, it does not assert; an interaction only fails if its result never shows.
+ *
+ * Not part of the normal run; start it with the "benchmark" Maven profile:
+ * mvn test -Pbenchmark,headless [-Dbenchmark.interactions=biometric-tab,username-lookup]
+ * [-Dbenchmark.warmup=5] [-Dbenchmark.iterations=30] [-Dbenchmark.label=v1.4.0]. The table is
+ * printed in the run summary and written to target/benchmark-ui.json.
+ */
+@Tag("benchmark")
+@DisplayName("UI latency benchmark")
+@Execution(ExecutionMode.SAME_THREAD)
+public class UiLatencyBenchmarkTest extends BaseTest {
+
+    private static final int WARMUP = Math.max(0, TestConfig.intProperty("benchmark.warmup", 5));
+    private static final int ITERATIONS = Math.max(2, TestConfig.intProperty("benchmark.iterations", 30));
+    private static final BenchmarkReport REPORT =
+            new BenchmarkReport(System.getProperty("benchmark.label", "").trim(), WARMUP);
+
+    static Stream<UiInteraction> interactions() {
+        String names = System.getProperty("benchmark.interactions", "");
+        if (names.isBlank()) {
+            return Arrays.stream(UiInteraction.values());
+        }
+        return Arrays.stream(names.split(",")).map(UiInteraction::parse);
+    }
+
+    @BeforeAll
+    static void registerReport() {
+        RunSummary.addSection("UI latency benchmark", REPORT::table);
+    }
+
+    @AfterAll
+    static void exportJson() {
+        REPORT.writeJson(Path.of("target", "benchmark-ui.json"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("interactions")
+    void interactionLatency(UiInteraction interaction) {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        // Warmup lets the app's lazy chunks, the JIT and the user lookup caches settle
+        for (int i = 0; i < WARMUP; i++) {
+            interaction.measure(driver, loginPage, user.username());
+        }
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            samples[i] = interaction.measure(driver, loginPage, user.username());
+        }
+        REPORT.add(interaction.name(), samples);
+    }
+}
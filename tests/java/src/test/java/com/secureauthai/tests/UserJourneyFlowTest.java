@@ -1,6 +1,9 @@
 package com.secureauthai.tests;
 
+import com.secureauthai.pages.AuthUiState;
 import com.secureauthai.pages.LoginPage;
+import com.secureauthai.support.PooledUser;
+import com.secureauthai.support.UserProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 
@@ -15,8 +18,8 @@ import org.junit.jupiter.api.Assertions;
 public class UserJourneyFlowTest extends BaseTest {
 
     @Test
-    void firstTimeUserAccountCreationWithBiometricCheckbox() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void firstTimeUserAccountCreationWithBiometricCheckbox() {
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: First-time User Account Creation with Biometric Checkbox ===");
@@ -47,15 +50,16 @@ public class UserJourneyFlowTest extends BaseTest {
         
         // Step 4: Submit registration
         page.submitRegistration();
-        Thread.sleep(5000); // Wait for account creation and potential biometric registration
+        page.waits().forAccountRegistrationResult();
         System.out.println("✓ Account creation completed");
         
         System.out.println("=== First-time User Account Creation Test Completed ===");
     }
 
     @Test
-    void returningUserBiometricLoginButtonStateChange() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void returningUserBiometricLoginButtonStateChange() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: Biometric Button State Change (Register → Authenticate) ===");
@@ -67,7 +71,7 @@ public class UserJourneyFlowTest extends BaseTest {
         // Step 1: Test with new/unknown username - should show "Register" button
         System.out.println("→ Testing with unknown username");
         page.enterBiometricUsername("unknownuser123");
-        Thread.sleep(1000); // Wait for UI to update
+        page.waits().forBiometricButton();
         
         String buttonText = page.getBiometricButtonText();
         System.out.println("→ Button text for unknown user: " + buttonText);
@@ -76,9 +80,9 @@ public class UserJourneyFlowTest extends BaseTest {
         }
         
         // Step 2: Test with existing username - should show "Authenticate" button  
-        System.out.println("→ Testing with existing username: etornam.koko");
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(2000); // Wait for system to check username and update button
+        System.out.println("→ Testing with existing username: " + user.username());
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         buttonText = page.getBiometricButtonText();
         System.out.println("→ Button text for existing user: " + buttonText);
@@ -93,38 +97,38 @@ public class UserJourneyFlowTest extends BaseTest {
     }
 
     @Test
-    void successfulBiometricAuthenticationFlow() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void successfulBiometricAuthenticationFlow() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: Successful Biometric Authentication Flow ===");
         
         // Navigate to biometric tab
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
-        System.out.println("→ Attempting biometric authentication for etornam.koko");
+        System.out.println("→ Attempting biometric authentication for " + user.username());
         
         // Step 1: Register biometric if needed
         if (page.isRegisterButtonPresent()) {
             System.out.println("→ User needs biometric registration, registering first...");
             page.clickBiometricPrimary();
-            Thread.sleep(5000); // Wait for WebAuthn registration
+            page.waits().forCeremonyResult();
+            page.waits().forAuthenticateButton(LoginPage.BIOMETRIC_AUTH);
             System.out.println("✓ Biometric registration completed");
             
-            Thread.sleep(1000); // Wait for UI to update after registration
         }
         
         // Step 2: Authenticate with biometric  
         if (page.isAuthenticateButtonPresent()) {
             System.out.println("→ Clicking 'Authenticate with Biometrics' button");
             page.clickBiometricAuth();
-            Thread.sleep(5000); // Wait for WebAuthn authentication
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric authentication attempted");
             
             // Check for success indicators
-            Thread.sleep(2000);
             System.out.println("✓ Biometric authentication process completed");
         }
         
@@ -132,36 +136,37 @@ public class UserJourneyFlowTest extends BaseTest {
     }
 
     @Test
-    void threeFailedBiometricAttemptsWithFallbackToPassword() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void threeFailedBiometricAttemptsWithFallbackToPassword() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: 3 Failed Biometric Attempts → Fallback to Password ===");
         
         // Start with biometric authentication
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         // Make 3 failed biometric attempts
         System.out.println("→ Making 3 failed biometric attempts...");
         for (int i = 1; i <= 3; i++) {
             System.out.println("→ Biometric attempt " + i + " of 3");
             
-            if (page.isAuthenticateButtonPresent()) {
+            AuthUiState state = page.snapshot();
+            if (state.biometricAuth().present()) {
                 page.clickBiometricAuth();
-            } else if (page.isRegisterButtonPresent()) {
+            } else if (state.biometricRegister().present()) {
                 // If showing register, click it (will likely fail for existing user or timeout)
                 page.clickBiometricPrimary();
             }
             
-            Thread.sleep(3000); // Wait for failure
+            page.waits().forCeremonyResult();
             System.out.println("✓ Attempt " + i + " completed (expected to fail)");
         }
         
         // After 3 failures, system should suggest fallback to password
         System.out.println("→ After 3 failed attempts, checking for fallback mechanism...");
-        Thread.sleep(2000);
         
         // Step 2: Switch to password tab (manually or automatically)
         System.out.println("→ Switching to password authentication");
@@ -174,21 +179,21 @@ public class UserJourneyFlowTest extends BaseTest {
             System.out.println("✓ Email auto-populated: " + autoEmail);
         } else {
             System.out.println("→ Email not auto-populated, entering manually");
-            page.enterEmail("etornam.koko@example.com");
+            page.enterEmail(user.email());
         }
         
         // Step 4: Complete password login
-        page.enterPassword("12345678");
+        page.enterPassword(user.password());
         page.submitPassword();
-        Thread.sleep(3000);
+        page.waits().forPasswordLoginResult();
         System.out.println("✓ Password fallback authentication completed");
         
         System.out.println("=== 3 Failed Biometric Attempts with Fallback Test Completed ===");
     }
 
     @Test
-    void completeUserJourneyRegistrationToLogoutToBiometricLogin() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void completeUserJourneyRegistrationToLogoutToBiometricLogin() {
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: Complete User Journey (Registration → Logout → Biometric Login) ===");
@@ -212,7 +217,7 @@ public class UserJourneyFlowTest extends BaseTest {
         }
         
         page.submitRegistration();
-        Thread.sleep(5000);
+        page.waits().forAccountRegistrationResult();
         System.out.println("✓ Account created successfully");
         
         // Step 2: Simulate logout by navigating back to login
@@ -224,27 +229,27 @@ public class UserJourneyFlowTest extends BaseTest {
         System.out.println("→ Step 3: Using biometric authentication to login");
         page.switchToBiometric();
         page.enterBiometricUsername(username);
-        Thread.sleep(2000);
+        page.waits().forBiometricButton();
         
         // Register biometric if needed
         if (page.isRegisterButtonPresent()) {
             System.out.println("→ Registering biometric credentials...");
             page.clickBiometricPrimary();
-            Thread.sleep(5000);
+            page.waits().forCeremonyResult();
+            page.waits().forAuthenticateButton(LoginPage.BIOMETRIC_AUTH);
             System.out.println("✓ Biometric credentials registered");
             
-            Thread.sleep(1000);
             // Now authenticate
             if (page.isAuthenticateButtonPresent()) {
                 System.out.println("→ Now authenticating with biometric...");
                 page.clickBiometricAuth();
-                Thread.sleep(5000);
+                page.waits().forCeremonyResult();
                 System.out.println("✓ Biometric authentication completed");
             }
         } else if (page.isAuthenticateButtonPresent()) {
             System.out.println("→ Biometric already registered, authenticating...");
             page.clickBiometricAuth();
-            Thread.sleep(5000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric authentication completed");
         }
         
@@ -252,8 +257,9 @@ public class UserJourneyFlowTest extends BaseTest {
     }
 
     @Test
-    void biometricDataStorageAndRetrieval() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void biometricDataStorageAndRetrieval() {
+        PooledUser user = leaseUser(UserProfile.PASSWORD_ONLY);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: Biometric Data Storage and Retrieval ===");
@@ -262,24 +268,24 @@ public class UserJourneyFlowTest extends BaseTest {
         
         // Test 1: Register biometric for user (data storage)
         System.out.println("→ Testing biometric data storage...");
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         if (page.isRegisterButtonPresent()) {
             System.out.println("→ Registering biometric data (storing in database)...");
             page.clickBiometricPrimary();
-            Thread.sleep(5000);
+            page.waits().forCeremonyResult();
             System.out.println("✓ Biometric data registered and stored");
         }
         
         // Test 2: Navigate away and come back to test data retrieval
         System.out.println("→ Testing biometric data retrieval...");
         driver.navigate().refresh();
-        Thread.sleep(2000);
+        page.waits().forLoginScreen();
         
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(2000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         // System should remember this user has biometric data and show authenticate button
         if (page.isAuthenticateButtonPresent()) {
@@ -293,25 +299,27 @@ public class UserJourneyFlowTest extends BaseTest {
     }
 
     @Test
-    void emailAutopopulationAfterBiometricFailures() throws InterruptedException {
-        LoginPage page = new LoginPage(driver, baseUrl);
+    void emailAutopopulationAfterBiometricFailures() {
+        PooledUser user = leaseUser(UserProfile.BIOMETRIC);
+        LoginPage page = loginPage;
         page.open();
         
         System.out.println("=== Test: Email Auto-population After Biometric Failures ===");
         
         // Step 1: Attempt biometric authentication and fail multiple times
         page.switchToBiometric();
-        page.enterBiometricUsername("etornam.koko");
-        Thread.sleep(1000);
+        page.enterBiometricUsername(user.username());
+        page.waits().forBiometricButton();
         
         System.out.println("→ Making multiple failed biometric attempts...");
         for (int i = 1; i <= 3; i++) {
-            if (page.isAuthenticateButtonPresent()) {
+            AuthUiState state = page.snapshot();
+            if (state.biometricAuth().present()) {
                 page.clickBiometricAuth();
-                Thread.sleep(2000); // Shorter wait for failure
-            } else if (page.isRegisterButtonPresent()) {
+                page.waits().forCeremonyResult();
+            } else if (state.biometricRegister().present()) {
                 page.clickBiometricPrimary();
-                Thread.sleep(2000);
+                page.waits().forCeremonyResult();
             }
             System.out.println("→ Failed attempt " + i);
         }
@@ -319,7 +327,6 @@ public class UserJourneyFlowTest extends BaseTest {
         // Step 2: Switch to password tab and check for auto-populated email
         System.out.println("→ Switching to password authentication...");
         page.switchToPassword();
-        Thread.sleep(1000);
         
         System.out.println("→ Checking for email auto-population...");
         if (page.isEmailAutopopulated()) {
@@ -329,12 +336,12 @@ public class UserJourneyFlowTest extends BaseTest {
         } else {
             System.out.println("→ Email not auto-populated, this may be expected behavior");
             System.out.println("→ Testing manual email entry for fallback");
-            page.enterEmail("etornam.koko@example.com");
+            page.enterEmail(user.email());
         }
         
-        page.enterPassword("12345678");
+        page.enterPassword(user.password());
         page.submitPassword();
-        Thread.sleep(3000);
+        page.waits().forPasswordLoginResult();
         System.out.println("✓ Password authentication completed as fallback");
         
         System.out.println("=== Email Auto-population Test Completed ===");
@@ -1,98 +1,186 @@
 /**
  * Selenium Test Initialization Script
- * This script should be injected into the browser to enable test mode
- * and set up mocks for biometric authentication.
+ * Registered once per browser (TestBootstrap) and evaluated at the start of every new
+ * document, before any page script, to enable test mode and set up mocks for biometric
+ * authentication. Nothing here may touch document.body until the DOM exists.
+ *
+ * window.__testMocks.set({ mode, delayMs }) switches how the mocks behave without a reload:
+ *   success           - resolve after delayMs
+ *   failure           - reject with an Error after delayMs
+ *   permission_denied - reject at once with NotAllowedError (WebAuthn, camera and face capture)
+ *   slow              - resolve after slowDelayMs
+ * set({ webauthn: 'native' }) makes the app use the browser's WebAuthn API instead of the
+ * WebAuthn mocks (Selenium attaches a virtual authenticator); camera and face mocks stay.
+ * The settings are kept in sessionStorage, so they survive reloads of the same tab.
  */
+(function () {
+  if (window.__testMocks) {
+    return;
+  }
+
+  const STORAGE_KEY = '__testMocks';
+  const DEFAULTS = { mode: 'success', delayMs: 1000, slowDelayMs: 8000, webauthn: 'mock' };
 
-// Enable test mode
-window.__SELENIUM_TEST_MODE__ = true;
-
-// Mock camera access for Face ID
-if (navigator.mediaDevices) {
-  const originalGetUserMedia = navigator.mediaDevices.getUserMedia;
-  
-  navigator.mediaDevices.getUserMedia = async function(constraints) {
-    console.log('🧪 Mock camera access granted for Selenium tests');
-    
-    // Create a mock video stream with a fake face
-    const canvas = document.createElement('canvas');
-    canvas.width = 640;
-    canvas.height = 480;
-    const ctx = canvas.getContext('2d');
-    
-    if (ctx) {
-      // Draw a simple face-like pattern for testing
-      ctx.fillStyle = '#f0c674';
-      ctx.fillRect(0, 0, 640, 480);
-      ctx.fillStyle = '#000000';
-      ctx.fillRect(200, 150, 60, 60); // Left eye
-      ctx.fillRect(380, 150, 60, 60); // Right eye
-      ctx.fillRect(280, 280, 80, 40); // Mouth
+  function load() {
+    try {
+      return Object.assign({}, DEFAULTS, JSON.parse(sessionStorage.getItem(STORAGE_KEY) || '{}'));
+    } catch (e) {
+      // about:blank and opaque origins have no sessionStorage
+      return Object.assign({}, DEFAULTS);
     }
-    
-    const stream = canvas.captureStream(30);
-    return Promise.resolve(stream);
+  }
+
+  let settings = load();
+  const calls = { registration: 0, authentication: 0, camera: 0, face: 0 };
+
+  window.__testMocks = {
+    set: function (changes) {
+      settings = Object.assign({}, settings, changes);
+      try {
+        sessionStorage.setItem(STORAGE_KEY, JSON.stringify(settings));
+      } catch (e) {
+        // Not persisted; still applies to this document
+      }
+      return settings;
+    },
+    // Back to the default mode and delays; the WebAuthn backend is left as it is
+    reset: function () {
+      return this.set(Object.assign({}, DEFAULTS, { webauthn: settings.webauthn }));
+    },
+    settings: function () {
+      return Object.assign({}, settings);
+    },
+    calls: calls
   };
-}
-
-// Set up WebAuthn mocks
-window.__mockWebAuthn = {
-  startRegistration: async function(options) {
-    console.log('🧪 Mock WebAuthn Registration for Selenium');
-    await new Promise(resolve => setTimeout(resolve, 1000));
-    return {
-      id: 'selenium-test-credential-' + Date.now(),
-      rawId: new ArrayBuffer(64),
-      response: {
-        attestationObject: new ArrayBuffer(1024),
-        clientDataJSON: new ArrayBuffer(256),
-        transports: ['internal']
-      },
-      type: 'public-key'
-    };
-  },
-  
-  startAuthentication: async function(options) {
-    console.log('🧪 Mock WebAuthn Authentication for Selenium');
-    await new Promise(resolve => setTimeout(resolve, 1000));
-    return {
-      id: 'selenium-test-credential-' + Date.now(),
-      rawId: new ArrayBuffer(64),
-      response: {
-        authenticatorData: new ArrayBuffer(256),
-        clientDataJSON: new ArrayBuffer(256),
-        signature: new ArrayBuffer(256),
-        signCount: 1
-      },
-      type: 'public-key'
+
+  function sleep(ms) {
+    return new Promise(resolve => setTimeout(resolve, ms));
+  }
+
+  // Applies the current mode; resolves when the mock should return its success value
+  async function outcome(kind) {
+    calls[kind]++;
+    console.log('🧪 Mock ' + kind + ' (' + settings.mode + ')');
+    switch (settings.mode) {
+      case 'permission_denied':
+        throw new DOMException('Permission denied', 'NotAllowedError');
+      case 'failure':
+        await sleep(settings.delayMs);
+        throw new Error('Mock biometric failure');
+      case 'slow':
+        await sleep(settings.slowDelayMs);
+        return;
+      default:
+        await sleep(settings.delayMs);
+    }
+  }
+
+  // Enable test mode
+  window.__SELENIUM_TEST_MODE__ = true;
+
+  // Mock camera access for Face ID
+  if (navigator.mediaDevices) {
+    navigator.mediaDevices.getUserMedia = async function (constraints) {
+      await outcome('camera');
+
+      // Create a mock video stream with a fake face
+      const canvas = document.createElement('canvas');
+      canvas.width = 640;
+      canvas.height = 480;
+      const ctx = canvas.getContext('2d');
+
+      if (ctx) {
+        // Draw a simple face-like pattern for testing
+        ctx.fillStyle = '#f0c674';
+        ctx.fillRect(0, 0, 640, 480);
+        ctx.fillStyle = '#000000';
+        ctx.fillRect(200, 150, 60, 60); // Left eye
+        ctx.fillRect(380, 150, 60, 60); // Right eye
+        ctx.fillRect(280, 280, 80, 40); // Mouth
+      }
+
+      return canvas.captureStream(30);
     };
   }
-};
 
-// Override PublicKeyCredential.isUserVerifyingPlatformAuthenticatorAvailable
-if (window.PublicKeyCredential) {
-  window.PublicKeyCredential.isUserVerifyingPlatformAuthenticatorAvailable = async function() {
-    console.log('🧪 Mock: Biometric authenticator available');
-    return true;
+  // Set up WebAuthn mocks
+  window.__mockWebAuthn = {
+    // Read by the app before each ceremony; true hands it to navigator.credentials
+    get native() {
+      return settings.webauthn === 'native';
+    },
+
+    startRegistration: async function (options) {
+      await outcome('registration');
+      return {
+        id: 'selenium-test-credential-' + Date.now(),
+        rawId: new ArrayBuffer(64),
+        response: {
+          attestationObject: new ArrayBuffer(1024),
+          clientDataJSON: new ArrayBuffer(256),
+          transports: ['internal']
+        },
+        type: 'public-key'
+      };
+    },
+
+    startAuthentication: async function (options) {
+      await outcome('authentication');
+      return {
+        id: 'selenium-test-credential-' + Date.now(),
+        rawId: new ArrayBuffer(64),
+        response: {
+          authenticatorData: new ArrayBuffer(256),
+          clientDataJSON: new ArrayBuffer(256),
+          signature: new ArrayBuffer(256),
+          signCount: 1
+        },
+        type: 'public-key'
+      };
+    }
+  };
+
+  // Face capture mock; same signature as the app's built-in test mock
+  window.__mockFaceCapture = {
+    captureFaceSignature: async function () {
+      await outcome('face');
+      return '1234567890abcdef';
+    }
   };
-}
-
-// Add visual indicator for test mode
-const testIndicator = document.createElement('div');
-testIndicator.innerHTML = '🧪 TEST MODE';
-testIndicator.style.cssText = `
-  position: fixed;
-  top: 0;
-  right: 0;
-  background: #ff6b6b;
-  color: white;
-  padding: 5px 10px;
-  font-family: monospace;
-  font-size: 12px;
-  z-index: 9999;
-  border-bottom-left-radius: 5px;
-`;
-document.body.appendChild(testIndicator);
-
-console.log('✅ Selenium test mode initialized with biometric mocks');
-console.log('🧪 WebAuthn and Face ID will use mock implementations');
\ No newline at end of file
+
+  // Override PublicKeyCredential.isUserVerifyingPlatformAuthenticatorAvailable
+  if (window.PublicKeyCredential) {
+    window.PublicKeyCredential.isUserVerifyingPlatformAuthenticatorAvailable = async function () {
+      return true;
+    };
+  }
+
+  // Add visual indicator for test mode once the body exists
+  function addIndicator() {
+    if (!document.body || window.top !== window) {
+      return;
+    }
+    const testIndicator = document.createElement('div');
+    testIndicator.textContent = '🧪 TEST MODE';
+    testIndicator.style.cssText = `
+      position: fixed;
+      top: 0;
+      right: 0;
+      background: #ff6b6b;
+      color: white;
+      padding: 5px 10px;
+      font-family: monospace;
+      font-size: 12px;
+      z-index: 9999;
+      border-bottom-left-radius: 5px;
+      pointer-events: none;
+    `;
+    document.body.appendChild(testIndicator);
+  }
+
+  if (document.readyState === 'loading') {
+    document.addEventListener('DOMContentLoaded', addIndicator, { once: true });
+  } else {
+    addIndicator();
+  }
+})();